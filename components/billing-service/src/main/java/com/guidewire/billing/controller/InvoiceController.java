@@ -1,5 +1,7 @@
 package com.guidewire.billing.controller;
 
+import com.guidewire.billing.dto.BulkCreateInvoicesRequest;
+import com.guidewire.billing.dto.BulkCreateInvoicesResponse;
 import com.guidewire.billing.dto.CreateInvoiceRequest;
 import com.guidewire.billing.dto.InvoiceResponse;
 import com.guidewire.billing.dto.UpdateInvoiceRequest;
@@ -54,6 +56,12 @@ public class InvoiceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateInvoicesResponse> createBulk(@Valid @RequestBody BulkCreateInvoicesRequest request) {
+        BulkCreateInvoicesResponse response = invoiceService.createBulk(request);
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<InvoiceResponse> update(
             @PathVariable UUID id,
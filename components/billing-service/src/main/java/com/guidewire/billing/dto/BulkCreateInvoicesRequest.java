@@ -0,0 +1,14 @@
+package com.guidewire.billing.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Items are not cascaded with @Valid: each one is validated on its own by the service, so an
+ * invalid item is reported in its result instead of rejecting the whole batch.
+ */
+public record BulkCreateInvoicesRequest(
+        @NotEmpty(message = "At least one invoice is required")
+        @Size(max = 1000, message = "At most 1000 invoices per request") List<BulkInvoiceItem> invoices) {}
@@ -0,0 +1,8 @@
+package com.guidewire.billing.dto;
+
+import java.util.List;
+
+public record BulkCreateInvoicesResponse(
+        int created,
+        int failed,
+        List<BulkInvoiceResult> results) {}
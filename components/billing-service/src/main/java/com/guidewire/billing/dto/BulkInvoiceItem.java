@@ -0,0 +1,9 @@
+package com.guidewire.billing.dto;
+
+/**
+ * One invoice of a bulk request. An item whose idempotencyKey already created an invoice is
+ * answered with that invoice instead of creating another, so the whole request can be retried.
+ */
+public record BulkInvoiceItem(
+        String idempotencyKey,
+        CreateInvoiceRequest invoice) {}
@@ -0,0 +1,18 @@
+package com.guidewire.billing.dto;
+
+public record BulkInvoiceResult(
+        int index,
+        Status status,
+        InvoiceResponse invoice,
+        String error) {
+
+    public enum Status { CREATED, FAILED }
+
+    public static BulkInvoiceResult created(int index, InvoiceResponse invoice) {
+        return new BulkInvoiceResult(index, Status.CREATED, invoice, null);
+    }
+
+    public static BulkInvoiceResult failed(int index, String error) {
+        return new BulkInvoiceResult(index, Status.FAILED, null, error);
+    }
+}
@@ -60,6 +60,9 @@ public class Invoice {
     @Column(name = "source_event")
     private String sourceEvent;
 
+    @Column(name = "idempotency_key", updatable = false)
+    private String idempotencyKey;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
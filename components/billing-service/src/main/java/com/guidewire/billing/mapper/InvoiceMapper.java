@@ -23,6 +23,7 @@ public interface InvoiceMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "items", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
     Invoice toEntity(CreateInvoiceRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +22,8 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
 
     List<Invoice> findByStatus(InvoiceStatus status);
 
+    List<Invoice> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
     @Query("""
             SELECT i FROM Invoice i
             WHERE (:policyId IS NULL OR i.policyId = :policyId)
@@ -1,5 +1,9 @@
 package com.guidewire.billing.service;
 
+import com.guidewire.billing.dto.BulkCreateInvoicesRequest;
+import com.guidewire.billing.dto.BulkCreateInvoicesResponse;
+import com.guidewire.billing.dto.BulkInvoiceItem;
+import com.guidewire.billing.dto.BulkInvoiceResult;
 import com.guidewire.billing.dto.CreateInvoiceRequest;
 import com.guidewire.billing.dto.InvoiceResponse;
 import com.guidewire.billing.dto.UpdateInvoiceRequest;
@@ -11,6 +15,7 @@ import com.guidewire.billing.exception.ResourceNotFoundException;
 import com.guidewire.billing.kafka.InvoiceEventProducer;
 import com.guidewire.billing.mapper.InvoiceMapper;
 import com.guidewire.billing.repository.InvoiceRepository;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,16 +24,27 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InvoiceService {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final InvoiceRepository invoiceRepository;
     private final InvoiceMapper invoiceMapper;
     private final InvoiceEventProducer invoiceEventProducer;
+    private final Validator validator;
 
     @Transactional
     public InvoiceResponse create(CreateInvoiceRequest request) {
@@ -36,21 +52,93 @@ public class InvoiceService {
 
         validateTotalAmount(request.totalAmount());
 
-        Invoice invoice = invoiceMapper.toEntity(request);
-        if (request.currency() == null || request.currency().isBlank()) {
-            invoice.setCurrency("MXN");
+        Invoice saved = invoiceRepository.save(toInvoice(request));
+        log.info("Invoice created with id={}", saved.getId());
+        return invoiceMapper.toResponse(saved);
+    }
+
+    /**
+     * Creates the valid invoices of the batch in one transaction and reports the invalid ones as
+     * FAILED at their index, so one bad item does not reject the rest. A persistence error fails
+     * the whole batch and nothing is created.
+     *
+     * An item whose idempotency key already created an invoice gets that invoice back as CREATED
+     * instead of a new one, and items repeating a key of the same batch share the result of the
+     * first. A request retried after a timeout therefore creates nothing twice; a concurrent
+     * retry loses on the unique index and succeeds as a replay on its next attempt.
+     */
+    @Transactional
+    public BulkCreateInvoicesResponse createBulk(BulkCreateInvoicesRequest request) {
+        List<BulkInvoiceItem> items = request.invoices();
+        log.info("Creating {} invoices in bulk", items.size());
+
+        Map<String, Invoice> existing = findByIdempotencyKeys(items);
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        BulkInvoiceResult[] results = new BulkInvoiceResult[items.size()];
+        int[] sameAs = new int[items.size()];
+        Arrays.fill(sameAs, -1);
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Invoice> invoices = new ArrayList<>();
+        int replayed = 0;
+        for (int i = 0; i < items.size(); i++) {
+            BulkInvoiceItem item = items.get(i);
+            String key = item != null ? item.idempotencyKey() : null;
+            if (key != null && existing.containsKey(key)) {
+                results[i] = BulkInvoiceResult.created(i, invoiceMapper.toResponse(existing.get(key)));
+                replayed++;
+                continue;
+            }
+            if (key != null) {
+                Integer first = firstIndexByKey.putIfAbsent(key, i);
+                if (first != null) {
+                    sameAs[i] = first;
+                    continue;
+                }
+            }
+            String error = validate(item);
+            if (error != null) {
+                results[i] = BulkInvoiceResult.failed(i, error);
+            } else {
+                Invoice invoice = toInvoice(item.invoice());
+                invoice.setIdempotencyKey(key);
+                validIndexes.add(i);
+                invoices.add(invoice);
+            }
         }
 
-        for (var itemDto : request.items()) {
-            InvoiceItem item = invoiceMapper.toItemEntity(itemDto);
-            BigDecimal subtotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            item.setSubtotal(subtotal);
-            invoice.addItem(item);
+        List<Invoice> saved = invoiceRepository.saveAll(invoices);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = validIndexes.get(j);
+            results[index] = BulkInvoiceResult.created(index, invoiceMapper.toResponse(saved.get(j)));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (sameAs[i] >= 0) {
+                BulkInvoiceResult first = results[sameAs[i]];
+                results[i] = new BulkInvoiceResult(i, first.status(), first.invoice(), first.error());
+            }
         }
 
-        Invoice saved = invoiceRepository.save(invoice);
-        log.info("Invoice created with id={}", saved.getId());
-        return invoiceMapper.toResponse(saved);
+        int created = (int) Arrays.stream(results).filter(r -> r.status() == BulkInvoiceResult.Status.CREATED).count();
+        int failed = items.size() - created;
+        log.info("Bulk invoice creation finished: created={} ({} already existed), failed={}", created, replayed, failed);
+        return new BulkCreateInvoicesResponse(created, failed, List.of(results));
+    }
+
+    private Map<String, Invoice> findByIdempotencyKeys(List<BulkInvoiceItem> items) {
+        Set<String> keys = new HashSet<>();
+        for (BulkInvoiceItem item : items) {
+            if (item != null && item.idempotencyKey() != null) {
+                keys.add(item.idempotencyKey());
+            }
+        }
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Invoice> existing = new HashMap<>();
+        for (Invoice invoice : invoiceRepository.findByIdempotencyKeyIn(keys)) {
+            existing.put(invoice.getIdempotencyKey(), invoice);
+        }
+        return existing;
     }
 
     @Transactional(readOnly = true)
@@ -107,6 +195,45 @@ public class InvoiceService {
         return invoiceMapper.toResponse(updated);
     }
 
+    private Invoice toInvoice(CreateInvoiceRequest request) {
+        Invoice invoice = invoiceMapper.toEntity(request);
+        if (request.currency() == null || request.currency().isBlank()) {
+            invoice.setCurrency("MXN");
+        }
+
+        for (var itemDto : request.items()) {
+            InvoiceItem item = invoiceMapper.toItemEntity(itemDto);
+            BigDecimal subtotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            item.setSubtotal(subtotal);
+            invoice.addItem(item);
+        }
+        return invoice;
+    }
+
+    /** The checks a single create gets from @Valid and validateTotalAmount, as a message or null. */
+    private String validate(BulkInvoiceItem item) {
+        if (item == null || item.invoice() == null) {
+            return "Invoice is required";
+        }
+        if (item.idempotencyKey() != null && item.idempotencyKey().length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return "idempotencyKey: must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters";
+        }
+        CreateInvoiceRequest request = item.invoice();
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            validateTotalAmount(request.totalAmount());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
     private void validateTotalAmount(BigDecimal totalAmount) {
         if (totalAmount == null || totalAmount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Total amount must be greater than 0");
@@ -0,0 +1,4 @@
+-- Key of the bulk item that created the invoice; a retried bulk request returns the existing invoice
+ALTER TABLE invoices ADD COLUMN idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX uq_invoices_idempotency_key ON invoices (idempotency_key) WHERE idempotency_key IS NOT NULL;
@@ -1,6 +1,10 @@
 package com.guidewire.billing.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidewire.billing.dto.BulkCreateInvoicesRequest;
+import com.guidewire.billing.dto.BulkCreateInvoicesResponse;
+import com.guidewire.billing.dto.BulkInvoiceItem;
+import com.guidewire.billing.dto.BulkInvoiceResult;
 import com.guidewire.billing.dto.CreateInvoiceRequest;
 import com.guidewire.billing.dto.InvoiceItemDto;
 import com.guidewire.billing.dto.InvoiceResponse;
@@ -25,6 +29,8 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -139,4 +145,53 @@ class InvoiceControllerTest {
                 .andExpect(jsonPath("$.status").value("PROCESSING"))
                 .andExpect(jsonPath("$.sourceEvent").value("payment-initiated"));
     }
+
+    @Test
+    @DisplayName("POST /api/v1/invoices/bulk should return 200 with a result per item")
+    void createBulk_shouldReturn200WithPerItemResults() throws Exception {
+        // Arrange
+        CreateInvoiceRequest valid = new CreateInvoiceRequest(
+                POLICY_ID, CUSTOMER_ID, new BigDecimal("500.00"), "MXN", null,
+                List.of(new InvoiceItemDto(
+                        null, "Premium payment", 1, new BigDecimal("500.00"), null)));
+        CreateInvoiceRequest invalid = new CreateInvoiceRequest(
+                POLICY_ID, CUSTOMER_ID, new BigDecimal("500.00"), "MXN", null, List.of());
+
+        InvoiceResponse created = new InvoiceResponse(
+                INVOICE_ID, POLICY_ID, CUSTOMER_ID, InvoiceStatus.PENDING,
+                new BigDecimal("500.00"), "MXN", null,
+                LocalDateTime.now(), LocalDateTime.now(), List.of());
+
+        when(invoiceService.createBulk(any(BulkCreateInvoicesRequest.class)))
+                .thenReturn(new BulkCreateInvoicesResponse(1, 1, List.of(
+                        BulkInvoiceResult.created(0, created),
+                        BulkInvoiceResult.failed(1, "items: At least one item is required"))));
+
+        // Act & Assert: the invalid item does not reject the request
+        mockMvc.perform(post("/api/v1/invoices/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkCreateInvoicesRequest(List.of(
+                                        new BulkInvoiceItem("billing-events-0-41", valid),
+                                        new BulkInvoiceItem("billing-events-0-42", invalid))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].invoice.id").value(INVOICE_ID.toString()))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1].error").value("items: At least one item is required"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/invoices/bulk should return 400 for an empty batch")
+    void createBulk_shouldReturn400WhenEmpty() throws Exception {
+        mockMvc.perform(post("/api/v1/invoices/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCreateInvoicesRequest(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.invoices").value("At least one invoice is required"));
+
+        verify(invoiceService, never()).createBulk(any());
+    }
 }
@@ -0,0 +1,211 @@
+package com.guidewire.billing.service;
+
+import com.guidewire.billing.dto.BulkCreateInvoicesRequest;
+import com.guidewire.billing.dto.BulkCreateInvoicesResponse;
+import com.guidewire.billing.dto.BulkInvoiceItem;
+import com.guidewire.billing.dto.BulkInvoiceResult;
+import com.guidewire.billing.dto.CreateInvoiceRequest;
+import com.guidewire.billing.dto.InvoiceItemDto;
+import com.guidewire.billing.dto.InvoiceResponse;
+import com.guidewire.billing.entity.Invoice;
+import com.guidewire.billing.entity.InvoiceItem;
+import com.guidewire.billing.entity.InvoiceStatus;
+import com.guidewire.billing.kafka.InvoiceEventProducer;
+import com.guidewire.billing.mapper.InvoiceMapper;
+import com.guidewire.billing.repository.InvoiceRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceServiceBulkTest {
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @Mock
+    private InvoiceMapper invoiceMapper;
+
+    @Mock
+    private InvoiceEventProducer invoiceEventProducer;
+
+    @Captor
+    private ArgumentCaptor<List<Invoice>> invoicesCaptor;
+
+    private InvoiceService invoiceService;
+
+    private static final UUID POLICY_ID = UUID.randomUUID();
+    private static final UUID CUSTOMER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        invoiceService = new InvoiceService(invoiceRepository, invoiceMapper, invoiceEventProducer,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    private CreateInvoiceRequest buildRequest(BigDecimal totalAmount, List<InvoiceItemDto> items) {
+        return new CreateInvoiceRequest(POLICY_ID, CUSTOMER_ID, totalAmount, null, "evt-1", items);
+    }
+
+    private BulkInvoiceItem item(String idempotencyKey, CreateInvoiceRequest request) {
+        return new BulkInvoiceItem(idempotencyKey, request);
+    }
+
+    private List<InvoiceItemDto> oneItem() {
+        return List.of(new InvoiceItemDto(null, "Premium payment", 2, new BigDecimal("250.00"), null));
+    }
+
+    private void stubEntityMapping() {
+        when(invoiceMapper.toEntity(any(CreateInvoiceRequest.class))).thenAnswer(inv -> {
+            CreateInvoiceRequest request = inv.getArgument(0);
+            return Invoice.builder()
+                    .policyId(request.policyId())
+                    .customerId(request.customerId())
+                    .totalAmount(request.totalAmount())
+                    .currency(request.currency())
+                    .build();
+        });
+        when(invoiceMapper.toItemEntity(any(InvoiceItemDto.class))).thenAnswer(inv -> {
+            InvoiceItemDto dto = inv.getArgument(0);
+            return InvoiceItem.builder()
+                    .description(dto.description())
+                    .quantity(dto.quantity())
+                    .unitPrice(dto.unitPrice())
+                    .build();
+        });
+    }
+
+    private void stubSaveAndResponseMapping() {
+        when(invoiceRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Invoice> saved = new ArrayList<>(inv.getArgument(0));
+            saved.forEach(invoice -> invoice.setId(UUID.randomUUID()));
+            return saved;
+        });
+        when(invoiceMapper.toResponse(any(Invoice.class))).thenAnswer(inv -> {
+            Invoice invoice = inv.getArgument(0);
+            return new InvoiceResponse(invoice.getId(), invoice.getPolicyId(), invoice.getCustomerId(),
+                    InvoiceStatus.PENDING, invoice.getTotalAmount(), invoice.getCurrency(), null,
+                    null, null, List.of());
+        });
+    }
+
+    @Test
+    @DisplayName("createBulk() should create valid items and report invalid ones at their index")
+    void createBulk_shouldReportInvalidItemsWithoutRejectingTheBatch() {
+        // Arrange
+        stubEntityMapping();
+        stubSaveAndResponseMapping();
+        BulkCreateInvoicesRequest request = new BulkCreateInvoicesRequest(List.of(
+                item("key-0", buildRequest(new BigDecimal("500.00"), oneItem())),
+                item("key-1", buildRequest(new BigDecimal("500.00"), List.of())),
+                item("key-2", buildRequest(new BigDecimal("120.00"), oneItem()))));
+
+        // Act
+        BulkCreateInvoicesResponse response = invoiceService.createBulk(request);
+
+        // Assert
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(1);
+        assertThat(response.results()).extracting(BulkInvoiceResult::index).containsExactly(0, 1, 2);
+        assertThat(response.results()).extracting(BulkInvoiceResult::status).containsExactly(
+                BulkInvoiceResult.Status.CREATED, BulkInvoiceResult.Status.FAILED, BulkInvoiceResult.Status.CREATED);
+        assertThat(response.results().get(1).error()).isEqualTo("items: At least one item is required");
+        assertThat(response.results().get(2).invoice().totalAmount()).isEqualByComparingTo("120.00");
+
+        verify(invoiceRepository).saveAll(invoicesCaptor.capture());
+        List<Invoice> saved = invoicesCaptor.getValue();
+        assertThat(saved).hasSize(2);
+        assertThat(saved.get(0).getCurrency()).isEqualTo("MXN");
+        assertThat(saved).extracting(Invoice::getIdempotencyKey).containsExactly("key-0", "key-2");
+        assertThat(saved.get(0).getItems().get(0).getSubtotal()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    @DisplayName("createBulk() should report every violation of an item and null items")
+    void createBulk_shouldReportViolationsAndNullItems() {
+        // Arrange
+        when(invoiceRepository.saveAll(anyList())).thenReturn(List.of());
+        List<BulkInvoiceItem> requests = new ArrayList<>();
+        requests.add(item(null, new CreateInvoiceRequest(null, CUSTOMER_ID, BigDecimal.ZERO, null, null, oneItem())));
+        requests.add(null);
+        requests.add(item("key-2", null));
+        requests.add(item("k".repeat(256), buildRequest(new BigDecimal("500.00"), oneItem())));
+
+        // Act
+        BulkCreateInvoicesResponse response = invoiceService.createBulk(new BulkCreateInvoicesRequest(requests));
+
+        // Assert
+        assertThat(response.created()).isZero();
+        assertThat(response.failed()).isEqualTo(4);
+        assertThat(response.results().get(0).error())
+                .isEqualTo("policyId: Policy ID is required; totalAmount: Total amount must be greater than 0");
+        assertThat(response.results().get(1).error()).isEqualTo("Invoice is required");
+        assertThat(response.results().get(2).error()).isEqualTo("Invoice is required");
+        assertThat(response.results().get(3).error()).isEqualTo("idempotencyKey: must be at most 255 characters");
+    }
+
+    @Test
+    @DisplayName("createBulk() should return the existing invoice for a key that was already created")
+    void createBulk_shouldReplayKnownIdempotencyKeys() {
+        // Arrange
+        stubEntityMapping();
+        stubSaveAndResponseMapping();
+        Invoice existing = Invoice.builder()
+                .id(UUID.randomUUID())
+                .policyId(POLICY_ID)
+                .customerId(CUSTOMER_ID)
+                .totalAmount(new BigDecimal("500.00"))
+                .currency("MXN")
+                .idempotencyKey("key-0")
+                .build();
+        when(invoiceRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of(existing));
+
+        // Act: key-0 is a retry of a committed item, key-1 appears twice in the batch
+        BulkCreateInvoicesResponse response = invoiceService.createBulk(new BulkCreateInvoicesRequest(List.of(
+                item("key-0", buildRequest(new BigDecimal("500.00"), oneItem())),
+                item("key-1", buildRequest(new BigDecimal("120.00"), oneItem())),
+                item("key-1", buildRequest(new BigDecimal("120.00"), oneItem())))));
+
+        // Assert
+        assertThat(response.created()).isEqualTo(3);
+        assertThat(response.failed()).isZero();
+        assertThat(response.results()).extracting(BulkInvoiceResult::index).containsExactly(0, 1, 2);
+        assertThat(response.results().get(0).invoice().id()).isEqualTo(existing.getId());
+        assertThat(response.results().get(2).invoice().id()).isEqualTo(response.results().get(1).invoice().id());
+
+        verify(invoiceRepository).saveAll(invoicesCaptor.capture());
+        assertThat(invoicesCaptor.getValue()).extracting(Invoice::getIdempotencyKey).containsExactly("key-1");
+    }
+
+    @Test
+    @DisplayName("createBulk() should fail the whole batch when saving fails")
+    void createBulk_shouldPropagatePersistenceErrors() {
+        // Arrange
+        stubEntityMapping();
+        when(invoiceRepository.saveAll(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> invoiceService.createBulk(new BulkCreateInvoicesRequest(
+                List.of(item("key-0", buildRequest(new BigDecimal("500.00"), oneItem()))))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("connection lost");
+    }
+}
@@ -0,0 +1,120 @@
+package com.guidewire.integration.gateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.guidewire.integration.gateway.processor.TransformationProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SOAP XML to JSON transformation of a ClaimCenter-like request: {@code stax} is the streaming
+ * {@link TransformationProcessor#soapXmlToJson}, {@code dom} the DOM parse it replaced (kept
+ * here as the baseline). {@code lineItems} nests that many line items in one of the fields to
+ * model the large ClaimCenter payloads. Run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoapXmlToJsonBenchmark {
+
+    @Param({"dom", "stax"})
+    public String parser;
+
+    @Param({"0", "500"})
+    public int lineItems;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TransformationProcessor processor = new TransformationProcessor(new SimpleMeterRegistry());
+    private DefaultCamelContext camelContext;
+    private String xml;
+
+    @Setup
+    public void setUp() {
+        camelContext = new DefaultCamelContext();
+        StringBuilder body = new StringBuilder("<cc:SubmitClaimRequest xmlns:cc=\"http://guidewire.com/cc/ws\">")
+                .append("<cc:claimId>CLM-2024-000123</cc:claimId>")
+                .append("<cc:policyNumber>POL-AUTO-778899</cc:policyNumber>")
+                .append("<cc:customerId>c1d2e3f4-a5b6-7890-cdef-123456789abc</cc:customerId>")
+                .append("<cc:lossDate>2024-03-15</cc:lossDate>")
+                .append("<cc:lossType>COLLISION</cc:lossType>")
+                .append("<cc:claimedAmount>185000.00</cc:claimedAmount>")
+                .append("<cc:currency>MXN</cc:currency>")
+                .append("<cc:description>Rear-end collision on Av. Constitucion, Monterrey. Third party vehicle ")
+                .append("left the scene; police report filed the same afternoon.</cc:description>")
+                .append("<cc:lineItems>");
+        for (int i = 0; i < lineItems; i++) {
+            body.append("<cc:lineItem><cc:code>PART-").append(i).append("</cc:code>")
+                    .append("<cc:description>Replacement part ").append(i).append("</cc:description>")
+                    .append("<cc:amount>").append(100 + i).append(".50</cc:amount></cc:lineItem>");
+        }
+        xml = body.append("</cc:lineItems></cc:SubmitClaimRequest>").toString();
+        System.out.printf("%nlineItems=%d: %d chars%n", lineItems, xml.length());
+    }
+
+    @TearDown
+    public void tearDown() {
+        camelContext.stop();
+    }
+
+    @Benchmark
+    public Object soapXmlToJson() throws Exception {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(xml);
+        if ("dom".equals(parser)) {
+            domSoapXmlToJson(exchange.getIn());
+        } else {
+            processor.soapXmlToJson(exchange);
+        }
+        return exchange.getIn().getBody();
+    }
+
+    /** The previous implementation: a new DocumentBuilderFactory and full DOM per request. */
+    private void domSoapXmlToJson(Message message) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        Document doc = factory.newDocumentBuilder().parse(new InputSource(new StringReader(message.getBody(String.class))));
+
+        ObjectNode jsonNode = objectMapper.createObjectNode();
+        NodeList children = doc.getDocumentElement().getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i) instanceof Element element) {
+                String name = element.getLocalName();
+                String value = element.getTextContent().trim();
+                jsonNode.put(name, value);
+                switch (name) {
+                    case "policyNumber", "claimId", "invoiceId", "customerId" -> message.setHeader(name, value);
+                    default -> { }
+                }
+            }
+        }
+        message.setBody(objectMapper.writeValueAsString(jsonNode));
+    }
+}
@@ -1,22 +1,141 @@
 package com.guidewire.integration.gateway.config;
 
+import com.guidewire.integration.gateway.idempotent.MappedIdempotentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.apache.camel.spi.IdempotentRepository;
 import org.apache.camel.support.processor.idempotent.MemoryIdempotentRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 /**
- * Provides an in-memory idempotent repository for deduplicating Kafka messages.
- * For production, this should be replaced with a persistent store (e.g., Redis or JDBC).
+ * Idempotent repositories for deduplicating Kafka messages, one namespace per consumer route
+ * so that keys of different topics never collide or evict each other.
+ *
+ * gateway.idempotent.store selects the implementation:
+ * - mapped (default): {@link MappedIdempotentRepository}, a memory-mapped hash table file per
+ *   namespace in gateway.idempotent.dir. Holds millions of keys at 16 bytes each outside the
+ *   heap and survives restarts. gateway.idempotent.bloom.enabled adds a Bloom filter in front
+ *   of the table (off by default: the table lookup is already a local memory access).
+ * - memory: Camel's LRU {@link MemoryIdempotentRepository}, on the heap and lost on restart.
+ *   For tests and local runs.
  *
  * Issue #50 - Kafka Consumer improvements
  */
 @Configuration
 public class IdempotentRepositoryConfig {
 
-    @Bean("simpleIdempotentRepo")
-    public IdempotentRepository simpleIdempotentRepo() {
-        // In-memory repo with a max of 1000 entries (LRU eviction). Sufficient for POC.
-        return MemoryIdempotentRepository.memoryIdempotentRepository(1000);
+    @Value("${gateway.idempotent.store:mapped}")
+    private String store;
+
+    @Value("${gateway.idempotent.dir:/tmp/camel-gateway/idempotent}")
+    private String dir;
+
+    @Value("${gateway.idempotent.max-keys:1000000}")
+    private long maxKeys;
+
+    // Matches the default Kafka retention: older offsets can no longer be replayed
+    @Value("${gateway.idempotent.ttl:7d}")
+    private Duration ttl;
+
+    @Value("${gateway.idempotent.bloom.enabled:false}")
+    private boolean bloomEnabled;
+
+    @Value("${gateway.idempotent.bloom.fpp:0.01}")
+    private double bloomFpp;
+
+    // 0 sizes the filter for max-keys
+    @Value("${gateway.idempotent.bloom.expected-keys:0}")
+    private long bloomExpectedKeys;
+
+    @Bean("billingIdempotentRepo")
+    public IdempotentRepository billingIdempotentRepo(MeterRegistry registry) {
+        return repository("billing", registry);
+    }
+
+    @Bean("incidentIdempotentRepo")
+    public IdempotentRepository incidentIdempotentRepo(MeterRegistry registry) {
+        return repository("incidents", registry);
+    }
+
+    @Bean("customerIdempotentRepo")
+    public IdempotentRepository customerIdempotentRepo(MeterRegistry registry) {
+        return repository("customers", registry);
+    }
+
+    private IdempotentRepository repository(String namespace, MeterRegistry registry) {
+        Tags tags = Tags.of("component", "camel-gateway", "namespace", namespace);
+        switch (store) {
+            case "mapped" -> {
+                MappedIdempotentRepository repo = new MappedIdempotentRepository(Path.of(dir), namespace, maxKeys, ttl);
+                if (bloomEnabled) {
+                    repo.setBloomFilter(bloomExpectedKeys > 0 ? bloomExpectedKeys : maxKeys, bloomFpp);
+                    bloomFilterMetrics(repo, tags, registry);
+                }
+                FunctionCounter.builder("idempotent_duplicates", repo, MappedIdempotentRepository::getDuplicateCount)
+                        .description("Messages skipped because their key was already seen")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("idempotent_keys_added", repo, MappedIdempotentRepository::getAddedCount)
+                        .description("Keys added to the idempotent repository")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("idempotent_evictions", repo, MappedIdempotentRepository::getEvictionCount)
+                        .description("Keys evicted before their TTL because their bucket was full")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("idempotent_entries", repo, MappedIdempotentRepository::getEntries)
+                        .description("Keys held by the idempotent repository")
+                        .tags(tags)
+                        .register(registry);
+                Gauge.builder("idempotent_capacity", repo, MappedIdempotentRepository::getCapacity)
+                        .description("Slots of the idempotent repository table")
+                        .tags(tags)
+                        .register(registry);
+                return repo;
+            }
+            case "memory" -> {
+                MemoryIdempotentRepository repo =
+                        (MemoryIdempotentRepository) MemoryIdempotentRepository.memoryIdempotentRepository((int) maxKeys);
+                Gauge.builder("idempotent_entries", repo, MemoryIdempotentRepository::getCacheSize)
+                        .description("Keys held by the idempotent repository")
+                        .tags(tags)
+                        .register(registry);
+                return repo;
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown gateway.idempotent.store '" + store + "' (expected mapped or memory)");
+        }
+    }
+
+    private void bloomFilterMetrics(MappedIdempotentRepository repo, Tags tags, MeterRegistry registry) {
+        FunctionCounter.builder("idempotent_bloom_skips", repo, MappedIdempotentRepository::getBloomFilterSkipCount)
+                .description("Keys the Bloom filter ruled out, skipping the table lookup")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("idempotent_bloom_false_positives", repo,
+                        MappedIdempotentRepository::getBloomFilterFalsePositiveCount)
+                .description("New keys the Bloom filter could not rule out")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("idempotent_bloom_false_positive_rate", repo, MappedIdempotentRepository::getBloomFilterFalsePositiveRate)
+                .description("Observed share of new keys the Bloom filter could not rule out")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("idempotent_bloom_expected_fpp", repo, MappedIdempotentRepository::getBloomFilterExpectedFpp)
+                .description("False-positive probability expected from the Bloom filter fill")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("idempotent_bloom_bytes", repo, MappedIdempotentRepository::getBloomFilterBytes)
+                .description("Heap used by the Bloom filter, both generations")
+                .tags(tags)
+                .baseUnit("bytes")
+                .register(registry);
     }
 }
@@ -0,0 +1,535 @@
+package com.guidewire.integration.gateway.idempotent;
+
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Idempotent repository backed by a memory-mapped hash table file, one file per namespace.
+ * Keys live in the page cache instead of the heap and survive a restart of the process.
+ *
+ * The table is split into buckets of {@value #SLOTS_PER_BUCKET} slots (128 bytes, two cache
+ * lines). A slot holds the 64-bit hash of the key and the time it was added; the key itself
+ * is not stored, so two keys only collide if their full 64-bit hashes match. Each key has two
+ * candidate buckets, picked by the low and the high half of its hash, and every operation
+ * touches only those: a key whose TTL has passed counts as absent and its slot is reused,
+ * and when both buckets are full the oldest key in them is evicted.
+ *
+ * A key is stored as pending by {@link #add} and made permanent by {@link #confirm}, which
+ * Camel's idempotentConsumer calls once the exchange has completed. Pending keys count as
+ * present while the process runs, so a concurrent redelivery is still skipped, but the ones
+ * left by a crash are dropped on start: the record was never confirmed as delivered, its offset
+ * was not committed, and its redelivery must not be mistaken for a duplicate.
+ *
+ * An optional {@link RotatingBloomFilter} in front of the table answers for keys that are
+ * definitely new, which then skip the table lookup and go straight to the insert. It is
+ * rebuilt from the table on start and rotated every TTL, so it never forgets a live key.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class MappedIdempotentRepository extends ServiceSupport implements IdempotentRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedIdempotentRepository.class);
+
+    static final int SLOTS_PER_BUCKET = 8;
+    private static final int CANDIDATE_SLOTS = 2 * SLOTS_PER_BUCKET;
+    private static final int SLOT_BYTES = 16;             // 8 bytes hash + 8 bytes added-at millis
+    private static final long PENDING = Long.MIN_VALUE;    // sign bit of added-at: added, not confirmed
+    private static final int BUCKET_BYTES = SLOTS_PER_BUCKET * SLOT_BYTES;
+    private static final int HEADER_BYTES = 64;
+    private static final long MAGIC = 0x4757494450524550L; // "GWIDPREP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_BUCKETS = 1 << 23;        // 1 GiB; a single mapping is limited to 2 GiB
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path file;
+    private final String namespace;
+    private final int buckets;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong filterSkips = new AtomicLong();
+    private final AtomicLong filterFalsePositives = new AtomicLong();
+
+    private RotatingBloomFilter filter;
+    private volatile long filterRotatedAt;
+
+    private FileChannel channel;
+    private FileLock fileLock;
+    private MappedByteBuffer table;
+
+    /**
+     * @param directory directory holding the table files, created if missing
+     * @param namespace file name of this table, one per route
+     * @param maxKeys   number of keys to hold before buckets start evicting
+     * @param ttl       how long a key is remembered; zero keeps keys until they are evicted
+     */
+    public MappedIdempotentRepository(Path directory, String namespace, long maxKeys, Duration ttl) {
+        this(directory, namespace, maxKeys, ttl, System::currentTimeMillis);
+    }
+
+    MappedIdempotentRepository(Path directory, String namespace, long maxKeys, Duration ttl, LongSupplier clock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+        }
+        this.file = directory.resolve(namespace + ".idx");
+        this.namespace = namespace;
+        this.buckets = bucketsFor(maxKeys);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Puts a Bloom filter in front of the table. Must be called before the repository starts.
+     *
+     * @param expectedKeys keys added per TTL; more raise the false-positive rate
+     * @param fpp          false-positive probability wanted at {@code expectedKeys}
+     */
+    public void setBloomFilter(long expectedKeys, double fpp) {
+        if (isStarted()) {
+            throw new IllegalStateException("Bloom filter must be set before the repository starts");
+        }
+        this.filter = new RotatingBloomFilter(expectedKeys, fpp);
+    }
+
+    /**
+     * Power-of-two bucket count that keeps the table at most 80% full with {@code maxKeys}
+     * keys, so that few buckets fill up and evict before the table is full.
+     */
+    static int bucketsFor(long maxKeys) {
+        long wanted = (maxKeys * 5 / 4 + SLOTS_PER_BUCKET - 1) / SLOTS_PER_BUCKET;
+        if (wanted > MAX_BUCKETS) {
+            throw new IllegalArgumentException("maxKeys too large for a single table: " + maxKeys);
+        }
+        int result = 1;
+        while (result < wanted) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    // --- lifecycle ---------------------------------------------------------------
+
+    @Override
+    protected void doStart() throws Exception {
+        Files.createDirectories(file.getParent());
+        long size = HEADER_BYTES + (long) buckets * BUCKET_BYTES;
+        if (Files.exists(file) && !matchesLayout(file)) {
+            Path previous = file.resolveSibling(file.getFileName() + ".old");
+            Files.move(file, previous, StandardCopyOption.REPLACE_EXISTING);
+            open(size);
+            long migrated = migrateFrom(previous);
+            Files.delete(previous);
+            log.info("Idempotent repository [{}] resized to {} buckets, {} keys migrated", namespace, buckets, migrated);
+        } else {
+            open(size);
+        }
+        entries.set(scanEntries());
+        filterRotatedAt = clock.getAsLong();
+        log.info("Idempotent repository [{}] opened at {} ({} buckets, {} keys)", namespace, file, buckets, entries.get());
+        if (filter != null) {
+            log.info("Idempotent repository [{}] Bloom filter: {} KiB, {} hash functions",
+                    namespace, filter.sizeInBytes() / 1024, filter.hashFunctions());
+        }
+    }
+
+    private void open(long size) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;                      // held by this JVM
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("Idempotent repository file " + file + " is in use by another process");
+        }
+        boolean created = channel.size() == 0;
+        table = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (created) {
+            table.putLong(0, MAGIC);
+            table.putInt(8, FORMAT_VERSION);
+            table.putInt(12, buckets);
+        }
+    }
+
+    private boolean matchesLayout(Path path) throws IOException {
+        try (FileChannel existing = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (existing.size() != HEADER_BYTES + (long) buckets * BUCKET_BYTES) {
+                return false;
+            }
+            MappedByteBuffer header = existing.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            return header.getLong(0) == MAGIC && header.getInt(8) == FORMAT_VERSION && header.getInt(12) == buckets;
+        }
+    }
+
+    /**
+     * Re-inserts the live keys of a table written with another bucket count. Files that are
+     * not tables of this format are discarded.
+     */
+    private long migrateFrom(Path previous) throws IOException {
+        long migrated = 0;
+        try (FileChannel old = FileChannel.open(previous, StandardOpenOption.READ)) {
+            if (old.size() < HEADER_BYTES) {
+                return 0;
+            }
+            MappedByteBuffer source = old.map(FileChannel.MapMode.READ_ONLY, 0, old.size());
+            if (source.getLong(0) != MAGIC || source.getInt(8) != FORMAT_VERSION) {
+                log.warn("Idempotent repository [{}]: discarding unrecognised file {}", namespace, previous);
+                return 0;
+            }
+            long oldSlots = Math.min((long) source.getInt(12) * SLOTS_PER_BUCKET,
+                    (old.size() - HEADER_BYTES) / SLOT_BYTES);
+            long now = clock.getAsLong();
+            for (long slot = 0; slot < oldSlots; slot++) {
+                int offset = (int) (HEADER_BYTES + slot * SLOT_BYTES);
+                long hash = source.getLong(offset);
+                long addedAt = source.getLong(offset + 8);
+                if (hash != 0 && (addedAt & PENDING) == 0 && !expired(addedAt, now) && insert(hash, addedAt)) {
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Frees the slots of keys left pending by a previous run, counts the occupied slots and puts
+     * their keys in the Bloom filter, if any.
+     */
+    private long scanEntries() {
+        long count = 0;
+        long dropped = 0;
+        for (long slot = 0; slot < (long) buckets * SLOTS_PER_BUCKET; slot++) {
+            int offset = (int) (HEADER_BYTES + slot * SLOT_BYTES);
+            long hash = table.getLong(offset);
+            if (hash != 0 && (table.getLong(offset + 8) & PENDING) != 0) {
+                table.putLong(offset, 0);
+                table.putLong(offset + 8, 0);
+                dropped++;
+            } else if (hash != 0) {
+                count++;
+                if (filter != null) {
+                    filter.put(hash);
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.info("Idempotent repository [{}]: dropped {} keys never confirmed before the last shutdown", namespace, dropped);
+        }
+        return count;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (table != null) {
+            table.force();
+            table = null;
+        }
+        if (fileLock != null) {
+            fileLock.release();
+            fileLock = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // --- IdempotentRepository ----------------------------------------------------
+
+    @Override
+    public boolean add(String key) {
+        long hash = hash(key);
+        rotateFilterIfDue();
+        synchronized (firstLock(hash)) {
+            synchronized (secondLock(hash)) {
+                boolean maybeSeen = filter == null || filter.mightContain(hash);
+                if (maybeSeen && find(hash) >= 0) {
+                    duplicates.incrementAndGet();
+                    return false;
+                }
+                if (filter != null) {
+                    (maybeSeen ? filterFalsePositives : filterSkips).incrementAndGet();
+                    filter.put(hash);
+                }
+                insert(hash, clock.getAsLong() | PENDING);
+                added.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(String key) {
+        long hash = hash(key);
+        if (filter != null && !filter.mightContain(hash)) {
+            filterSkips.incrementAndGet();
+            return false;
+        }
+        synchronized (firstLock(hash)) {
+            synchronized (secondLock(hash)) {
+                return find(hash) >= 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(String key) {
+        long hash = hash(key);
+        synchronized (firstLock(hash)) {
+            synchronized (secondLock(hash)) {
+                int offset = find(hash);
+                if (offset < 0) {
+                    return false;
+                }
+                table.putLong(offset, 0);
+                table.putLong(offset + 8, 0);
+                entries.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /** Makes a pending key permanent, so it survives a restart. */
+    @Override
+    public boolean confirm(String key) {
+        long hash = hash(key);
+        synchronized (firstLock(hash)) {
+            synchronized (secondLock(hash)) {
+                int offset = find(hash);
+                if (offset < 0) {
+                    return false;
+                }
+                table.putLong(offset + 8, table.getLong(offset + 8) & ~PENDING);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        clearHolding(0);
+    }
+
+    /** Takes every stripe lock, always in the same order, then wipes the table. */
+    private void clearHolding(int stripe) {
+        if (stripe == LOCK_STRIPES) {
+            for (int offset = HEADER_BYTES; offset < table.capacity(); offset += 8) {
+                table.putLong(offset, 0);
+            }
+            entries.set(0);
+            if (filter != null) {
+                filter.clear();
+            }
+            return;
+        }
+        synchronized (locks[stripe]) {
+            clearHolding(stripe + 1);
+        }
+    }
+
+    /**
+     * Starts a new filter generation every TTL. A key stays in the filter until the second
+     * rotation after it was added, which is at least a TTL later. Without a TTL the filter
+     * never rotates and its false-positive rate grows with the keys added.
+     */
+    private void rotateFilterIfDue() {
+        if (filter == null || ttlMillis <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (now - filterRotatedAt >= ttlMillis) {
+            synchronized (filter) {
+                if (now - filterRotatedAt >= ttlMillis) {
+                    filter.rotate();
+                    filterRotatedAt = now;
+                }
+            }
+        }
+    }
+
+    // --- table -------------------------------------------------------------------
+
+    /** Offset of the live slot holding {@code hash}, or -1. */
+    private int find(long hash) {
+        long now = clock.getAsLong();
+        for (int i = 0; i < CANDIDATE_SLOTS; i++) {
+            int offset = slotOffset(hash, i);
+            if (table.getLong(offset) == hash && !expired(addedAt(table.getLong(offset + 8)), now)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores {@code hash} in a free or expired slot of whichever of its two buckets has more
+     * of them, or else over the oldest key in both. Returns false, storing nothing, when every
+     * slot holds a key newer than {@code addedAt} (only possible while migrating).
+     */
+    private boolean insert(long hash, long addedAt) {
+        long now = clock.getAsLong();
+        int[] free = new int[2];
+        int[] freeSlot = {-1, -1};
+        boolean[] empty = new boolean[2];
+        int oldest = -1;
+        long oldestAddedAt = Long.MAX_VALUE;
+        for (int i = 0; i < CANDIDATE_SLOTS; i++) {
+            int offset = slotOffset(hash, i);
+            int choice = i / SLOTS_PER_BUCKET;
+            long slotHash = table.getLong(offset);
+            long slotAddedAt = addedAt(table.getLong(offset + 8));
+            if (slotHash == hash) {
+                // expired copy of this key (find() saw no live one): refresh it in place
+                return write(offset, hash, addedAt);
+            }
+            if (slotHash == 0 || expired(slotAddedAt, now)) {
+                if (freeSlot[choice] < 0) {
+                    freeSlot[choice] = offset;
+                    empty[choice] = slotHash == 0;
+                }
+                free[choice]++;
+            } else if (slotAddedAt < oldestAddedAt) {
+                oldestAddedAt = slotAddedAt;
+                oldest = offset;
+            }
+        }
+        int choice = free[1] > free[0] ? 1 : 0;
+        if (freeSlot[choice] >= 0) {
+            if (empty[choice]) {
+                entries.incrementAndGet();
+            }
+            return write(freeSlot[choice], hash, addedAt);
+        }
+        if (oldestAddedAt > addedAt(addedAt)) {
+            return false;
+        }
+        evictions.incrementAndGet();
+        return write(oldest, hash, addedAt);
+    }
+
+    private boolean write(int offset, long hash, long addedAt) {
+        // added-at first: a torn write leaves an old key with a new timestamp, never a new key at the epoch
+        table.putLong(offset + 8, addedAt);
+        table.putLong(offset, hash);
+        return true;
+    }
+
+    private static long addedAt(long word) {
+        return word & ~PENDING;
+    }
+
+    private boolean expired(long addedAt, long now) {
+        return ttlMillis > 0 && now - addedAt >= ttlMillis;
+    }
+
+    /** Slots 0-7 are in the bucket picked by the low half of the hash, 8-15 by the high half. */
+    private int slotOffset(long hash, int i) {
+        return HEADER_BYTES + bucket(hash, i / SLOTS_PER_BUCKET) * BUCKET_BYTES + (i % SLOTS_PER_BUCKET) * SLOT_BYTES;
+    }
+
+    private int bucket(long hash, int choice) {
+        return (int) ((choice == 0 ? hash : hash >>> 32) & (buckets - 1));
+    }
+
+    // Operations lock the stripes of both buckets, lowest first, so they never deadlock
+    private Object firstLock(long hash) {
+        return locks[Math.min(bucket(hash, 0) & (LOCK_STRIPES - 1), bucket(hash, 1) & (LOCK_STRIPES - 1))];
+    }
+
+    private Object secondLock(long hash) {
+        return locks[Math.max(bucket(hash, 0) & (LOCK_STRIPES - 1), bucket(hash, 1) & (LOCK_STRIPES - 1))];
+    }
+
+    /** 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer. Never 0. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    // --- metrics -----------------------------------------------------------------
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /** Slots holding a key; expired keys are only reclaimed when their slot is reused. */
+    public long getEntries() {
+        return entries.get();
+    }
+
+    public long getCapacity() {
+        return (long) buckets * SLOTS_PER_BUCKET;
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getAddedCount() {
+        return added.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** Lookups the Bloom filter answered as definitely new, without reading the table. */
+    public long getBloomFilterSkipCount() {
+        return filterSkips.get();
+    }
+
+    /** New keys the Bloom filter reported as possibly seen. */
+    public long getBloomFilterFalsePositiveCount() {
+        return filterFalsePositives.get();
+    }
+
+    /** Observed false-positive rate: share of new keys the filter could not rule out. */
+    public double getBloomFilterFalsePositiveRate() {
+        long falsePositives = filterFalsePositives.get();
+        long total = falsePositives + filterSkips.get();
+        return total == 0 ? 0 : (double) falsePositives / total;
+    }
+
+    /** False-positive rate expected from how full the filter is. */
+    public double getBloomFilterExpectedFpp() {
+        return filter == null ? 0 : filter.expectedFpp();
+    }
+
+    public long getBloomFilterBytes() {
+        return filter == null ? 0 : filter.sizeInBytes();
+    }
+}
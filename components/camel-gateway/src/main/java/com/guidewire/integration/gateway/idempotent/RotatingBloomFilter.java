@@ -0,0 +1,124 @@
+package com.guidewire.integration.gateway.idempotent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter over 64-bit key hashes, in two generations. Keys go into the current
+ * generation and are looked up in both; {@link #rotate()} drops the previous generation and
+ * starts an empty one, so a key is remembered for at least one rotation period.
+ *
+ * All bits of a key sit in one 512-bit block (one cache line), so a lookup costs one cache
+ * miss per generation instead of one per hash function. Bits are set atomically: concurrent
+ * puts never lose each other's bits, so the filter has no false negatives.
+ */
+class RotatingBloomFilter {
+
+    private static final int BLOCK_LONGS = 8;               // 512 bits
+    private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+
+    private final int blocks;
+    private final int hashes;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    /**
+     * @param expectedKeys keys added per rotation period
+     * @param fpp          false-positive probability wanted with {@code expectedKeys} keys in each generation
+     */
+    RotatingBloomFilter(long expectedKeys, double fpp) {
+        if (expectedKeys <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedKeys must be positive and fpp in (0, 1)");
+        }
+        double bitsPerKey = -Math.log(fpp) / (Math.log(2) * Math.log(2));
+        long bits = (long) Math.ceil(expectedKeys * bitsPerKey);
+        long wantedBlocks = (bits + BLOCK_BITS - 1) / BLOCK_BITS;
+        if (wantedBlocks > Integer.MAX_VALUE / BLOCK_LONGS) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedKeys + " keys at fpp " + fpp);
+        }
+        this.blocks = (int) Math.max(1, wantedBlocks);
+        this.hashes = (int) Math.max(1, Math.round(bitsPerKey * Math.log(2)));
+        this.current = new AtomicLongArray(blocks * BLOCK_LONGS);
+        this.previous = new AtomicLongArray(blocks * BLOCK_LONGS);
+    }
+
+    void put(long hash) {
+        AtomicLongArray bits = current;
+        int base = blockBase(hash);
+        long h = mix(hash);
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((h >>> (i * 9 % 55)) & (BLOCK_BITS - 1));
+            long mask = 1L << bit;
+            int word = base + (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /** False means the key was never put in the last one to two rotation periods. */
+    boolean mightContain(long hash) {
+        int base = blockBase(hash);
+        long h = mix(hash);
+        return contains(current, base, h) || contains(previous, base, h);
+    }
+
+    private boolean contains(AtomicLongArray bits, int base, long h) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((h >>> (i * 9 % 55)) & (BLOCK_BITS - 1));
+            if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the previous generation. A put racing the swap lands in the generation that just
+     * became the previous one, which still keeps it for a full period.
+     */
+    void rotate() {
+        previous = current;
+        current = new AtomicLongArray(blocks * BLOCK_LONGS);
+    }
+
+    void clear() {
+        current = new AtomicLongArray(blocks * BLOCK_LONGS);
+        previous = new AtomicLongArray(blocks * BLOCK_LONGS);
+    }
+
+    /**
+     * False-positive probability expected from how full both generations are: a new key is
+     * a false positive if all its bits are set in either of them.
+     */
+    double expectedFpp() {
+        double current = Math.pow(fill(this.current), hashes);
+        double previous = Math.pow(fill(this.previous), hashes);
+        return 1 - (1 - current) * (1 - previous);
+    }
+
+    private static double fill(AtomicLongArray bits) {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return (double) set / ((long) bits.length() * Long.SIZE);
+    }
+
+    long sizeInBytes() {
+        return 2L * blocks * BLOCK_LONGS * Long.BYTES;
+    }
+
+    int hashFunctions() {
+        return hashes;
+    }
+
+    // Block from the high half of the hash (multiply-shift, any block count), bits from a remix of all of it
+    private int blockBase(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+    }
+
+    private static long mix(long hash) {
+        long h = hash * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,34 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.component.kafka.KafkaConstants;
+
+/**
+ * Batching counterpart of {@link OrderedDispatchProcessor}: registers each consumed Kafka record
+ * in the {@link OffsetTracker} and hands a copy to a {@link MicroBatcher} lane picked by its
+ * key, so the consumer thread keeps polling while the batches are delivered by {@link BulkDelivery}.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class BatchDispatchProcessor implements Processor {
+
+    private final MicroBatcher<Exchange> batcher;
+    private final OffsetTracker offsets;
+
+    public BatchDispatchProcessor(MicroBatcher<Exchange> batcher, OffsetTracker offsets) {
+        this.batcher = batcher;
+        this.offsets = offsets;
+    }
+
+    @Override
+    public void process(Exchange exchange) {
+        String topic = exchange.getIn().getHeader(KafkaConstants.TOPIC, String.class);
+        int partition = exchange.getIn().getHeader(KafkaConstants.PARTITION, Integer.class);
+        long offset = exchange.getIn().getHeader(KafkaConstants.OFFSET, Long.class);
+        Object key = exchange.getIn().getHeader(KafkaConstants.KEY);
+
+        offsets.dispatched(topic, partition, offset);
+        batcher.add(key, exchange.copy());
+    }
+}
@@ -0,0 +1,276 @@
+package com.guidewire.integration.gateway.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.component.kafka.consumer.KafkaManualCommit;
+import org.apache.camel.spi.IdempotentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Delivers a {@link MicroBatcher} batch of Kafka records with a single call: each record body is
+ * posted as {@code {"idempotencyKey":...,"invoice":<body>}} inside {@code {"invoices":[...]}} to
+ * the bulk endpoint, which answers with a result per item in request order. Records whose key was
+ * already processed, or repeats a key earlier in the batch, are skipped first, and records whose
+ * body is not a JSON object are dead-lettered on their own so they cannot spoil the request.
+ *
+ * A key is only added to the idempotent repository once its item came back CREATED or was
+ * dead-lettered, so a crash mid-batch redelivers the records that were not settled. The item
+ * idempotency key (the Kafka key, or topic-partition-offset for records without one) lets the
+ * bulk endpoint answer a retried request with the invoices it already created, which is what
+ * makes the bulk route's retries of a request that did reach the service safe.
+ *
+ * Items the service rejects are sent one by one to the dead letter endpoint with the X-DLQ-*
+ * headers the route error handler sets. If the whole call fails once the bulk route's retries
+ * are exhausted, or the batch fails unexpectedly, every item of the batch not yet settled is
+ * dead-lettered. A record is completed in the
+ * {@link OffsetTracker} once delivered, skipped or dead-lettered, and one commit per partition
+ * is issued for the batch. A record that cannot be dead-lettered is sent again with a doubling
+ * back-off until it is, as {@link OrderedDispatchProcessor} does with deliveries; its lane and
+ * partition wait meanwhile.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class BulkDelivery implements Consumer<List<Exchange>> {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDelivery.class);
+
+    /** Header with the number of records in the bulk request, for the route's metrics. */
+    public static final String BATCH_SIZE = "GatewayBatchSize";
+
+    /** Exchange property set on a record once it is completed in the {@link OffsetTracker}. */
+    private static final String COMPLETED = "GatewayBatchCompleted";
+
+    private final ProducerTemplate producerTemplate;
+    private final String bulkEndpoint;
+    private final String deadLetterEndpoint;
+    private final IdempotentRepository idempotentRepository;
+    private final OffsetTracker offsets;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DistributionSummary batchSizes;
+    private final Counter created;
+    private final Counter deadLettered;
+    private final Counter duplicates;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+
+    public BulkDelivery(ProducerTemplate producerTemplate, String bulkEndpoint, String deadLetterEndpoint,
+                        IdempotentRepository idempotentRepository, OffsetTracker offsets,
+                        MeterRegistry meterRegistry, String metricsRoute) {
+        this(producerTemplate, bulkEndpoint, deadLetterEndpoint, idempotentRepository, offsets,
+                meterRegistry, metricsRoute, 1000, 30000);
+    }
+
+    public BulkDelivery(ProducerTemplate producerTemplate, String bulkEndpoint, String deadLetterEndpoint,
+                        IdempotentRepository idempotentRepository, OffsetTracker offsets,
+                        MeterRegistry meterRegistry, String metricsRoute,
+                        long retryDelayMillis, long maxRetryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.producerTemplate = producerTemplate;
+        this.bulkEndpoint = bulkEndpoint;
+        this.deadLetterEndpoint = deadLetterEndpoint;
+        this.idempotentRepository = idempotentRepository;
+        this.offsets = offsets;
+        this.batchSizes = DistributionSummary.builder("kafka_consumer_batch_size")
+                .description("Records per bulk request")
+                .tag("component", "camel-gateway")
+                .tag("route", metricsRoute)
+                .register(meterRegistry);
+        this.created = itemCounter(meterRegistry, metricsRoute, "created");
+        this.deadLettered = itemCounter(meterRegistry, metricsRoute, "dead_lettered");
+        this.duplicates = itemCounter(meterRegistry, metricsRoute, "duplicate");
+    }
+
+    private static Counter itemCounter(MeterRegistry meterRegistry, String metricsRoute, String result) {
+        return Counter.builder("kafka_consumer_batch_items")
+                .description("Records of batched routes by outcome")
+                .tag("component", "camel-gateway")
+                .tag("route", metricsRoute)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void accept(List<Exchange> records) {
+        Map<String, Runnable> commits = new LinkedHashMap<>();
+        List<Exchange> batch = new ArrayList<>(records.size());
+        Set<String> batchKeys = new HashSet<>();
+        for (Exchange record : records) {
+            String key = record.getIn().getHeader(KafkaConstants.KEY, String.class);
+            if (key != null && (idempotentRepository.contains(key) || !batchKeys.add(key))) {
+                log.warn("Duplicate event detected, skipping: {}", key);
+                duplicates.increment();
+                complete(record, commits);
+            } else {
+                batch.add(record);
+            }
+        }
+        try {
+            if (!batch.isEmpty()) {
+                deliver(batch, commits);
+            }
+        } catch (RuntimeException e) {
+            log.error("Bulk delivery of {} records failed unexpectedly, dead-lettering those not settled", batch.size(), e);
+            for (Exchange record : batch) {
+                if (!record.getProperty(COMPLETED, false, Boolean.class)) {
+                    deadLetter(record, e.getMessage() != null ? e.getMessage() : e.getClass().getName(), 0, commits);
+                }
+            }
+        }
+        commits.forEach((partition, commit) -> {
+            try {
+                commit.run();
+            } catch (RuntimeException e) {
+                // e.g. the partition was revoked by a rebalance; its new owner resumes from the last commit
+                log.warn("Commit of batch on {} failed: {}", partition, e.getMessage());
+            }
+        });
+    }
+
+    private void deliver(List<Exchange> records, Map<String, Runnable> commits) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode invoices = request.putArray("invoices");
+        List<Exchange> batch = new ArrayList<>(records.size());
+        for (Exchange record : records) {
+            JsonNode invoice = parse(record.getIn().getBody(String.class));
+            if (invoice == null) {
+                deadLetter(record, "Record body is not a JSON object", 0, commits);
+                continue;
+            }
+            invoices.addObject()
+                    .put("idempotencyKey", itemKey(record))
+                    .set("invoice", invoice);
+            batch.add(record);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        String body = request.toString();
+
+        Exchange result = producerTemplate.send(bulkEndpoint, exchange -> {
+            exchange.getIn().setBody(body);
+            exchange.getIn().setHeader(BATCH_SIZE, batch.size());
+        });
+        if (result.isFailed()) {
+            String error = result.getException() != null ? result.getException().getMessage() : "unknown";
+            int retries = result.getIn().getHeader(Exchange.REDELIVERY_COUNTER, 0, Integer.class);
+            log.error("Bulk delivery of {} records failed after {} retries, dead-lettering them: {}",
+                    batch.size(), retries, error);
+            batch.forEach(record -> deadLetter(record, error, retries, commits));
+            return;
+        }
+
+        JsonNode results;
+        try {
+            results = objectMapper.readTree(result.getMessage().getBody(String.class)).path("results");
+        } catch (IOException | IllegalArgumentException e) {
+            results = null;
+        }
+        if (results == null || !results.isArray() || results.size() != batch.size()) {
+            log.error("Bulk response does not have one result per record, dead-lettering the {} records", batch.size());
+            batch.forEach(record -> deadLetter(record, "Unexpected bulk response", 0, commits));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            JsonNode item = results.get(i);
+            if ("CREATED".equals(item.path("status").asText())) {
+                created.increment();
+                settled(batch.get(i));
+                complete(batch.get(i), commits);
+            } else {
+                deadLetter(batch.get(i), item.path("error").asText("unknown"), 0, commits);
+            }
+        }
+    }
+
+    /** The record body as a JSON object, or null if it has none or does not parse to one. */
+    private JsonNode parse(String body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node != null && node.isObject() ? node : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void deadLetter(Exchange record, String error, int retries, Map<String, Runnable> commits) {
+        record.getIn().setHeader("X-DLQ-Error", error);
+        record.getIn().setHeader("X-DLQ-Route", record.getFromRouteId());
+        record.getIn().setHeader("X-DLQ-Timestamp", System.currentTimeMillis());
+        record.getIn().setHeader("X-DLQ-Retries", retries);
+        long delay = retryDelayMillis;
+        Exchange sent = producerTemplate.send(deadLetterEndpoint, record.copy());
+        while (sent.isFailed()) {
+            log.error("Dead-lettering {}-{}@{} failed, retrying in {} ms; offsets of the partition are held back until it succeeds",
+                    record.getIn().getHeader(KafkaConstants.TOPIC), record.getIn().getHeader(KafkaConstants.PARTITION),
+                    record.getIn().getHeader(KafkaConstants.OFFSET), delay, sent.getException());
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Batcher stopped before {}-{}@{} was dead-lettered; it is consumed again after restart",
+                        record.getIn().getHeader(KafkaConstants.TOPIC), record.getIn().getHeader(KafkaConstants.PARTITION),
+                        record.getIn().getHeader(KafkaConstants.OFFSET));
+                return;
+            }
+            delay = Math.min(delay * 2, maxRetryDelayMillis);
+            sent = producerTemplate.send(deadLetterEndpoint, record.copy());
+        }
+        deadLettered.increment();
+        settled(record);
+        complete(record, commits);
+    }
+
+    /** Records the key of a record that was created or dead-lettered, as idempotentConsumer would on completion. */
+    private void settled(Exchange record) {
+        String key = record.getIn().getHeader(KafkaConstants.KEY, String.class);
+        if (key != null) {
+            idempotentRepository.add(key);
+            idempotentRepository.confirm(key);
+        }
+    }
+
+    private static String itemKey(Exchange record) {
+        String key = record.getIn().getHeader(KafkaConstants.KEY, String.class);
+        if (key != null) {
+            return key;
+        }
+        return record.getIn().getHeader(KafkaConstants.TOPIC) + "-" + record.getIn().getHeader(KafkaConstants.PARTITION)
+                + "-" + record.getIn().getHeader(KafkaConstants.OFFSET);
+    }
+
+    private void complete(Exchange record, Map<String, Runnable> commits) {
+        String topic = record.getIn().getHeader(KafkaConstants.TOPIC, String.class);
+        int partition = record.getIn().getHeader(KafkaConstants.PARTITION, Integer.class);
+        long offset = record.getIn().getHeader(KafkaConstants.OFFSET, Long.class);
+        KafkaManualCommit manualCommit = record.getIn().getHeader(KafkaConstants.MANUAL_COMMIT, KafkaManualCommit.class);
+        Runnable commit = offsets.completed(topic, partition, offset, manualCommit != null ? manualCommit::commit : null);
+        record.setProperty(COMPLETED, true);
+        if (commit != null) {
+            // a later record of the partition supersedes the commit of an earlier one
+            commits.put(topic + "-" + partition, commit);
+        }
+    }
+}
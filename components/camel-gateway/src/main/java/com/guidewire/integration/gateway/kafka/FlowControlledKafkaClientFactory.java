@@ -0,0 +1,135 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.component.kafka.DefaultKafkaClientFactory;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Kafka client factory for the consume-* routes, whose consumers report to the route's
+ * {@link OffsetTracker}. Records are handed to workers without blocking the consumer thread,
+ * which must keep calling poll() within max.poll.interval.ms and also runs the async commits.
+ * Back-pressure is applied here instead: before every poll, partitions the tracker reports as
+ * saturated are paused and resumed once their workers catch up. While any partition is paused,
+ * polls wait at most {@link #PAUSED_POLL_TIMEOUT} so the resume is not delayed by a full poll
+ * timeout. Partitions revoked or lost in a rebalance are dropped from the tracker.
+ *
+ * Pause and resume run on the consumer thread, the only one allowed to use the consumer.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class FlowControlledKafkaClientFactory extends DefaultKafkaClientFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(FlowControlledKafkaClientFactory.class);
+
+    static final Duration PAUSED_POLL_TIMEOUT = Duration.ofMillis(100);
+
+    private final OffsetTracker offsets;
+
+    public FlowControlledKafkaClientFactory(OffsetTracker offsets) {
+        this.offsets = offsets;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Consumer getConsumer(Properties kafkaProps) {
+        return wrap(super.getConsumer(kafkaProps), offsets);
+    }
+
+    static Consumer<?, ?> wrap(Consumer<?, ?> consumer, OffsetTracker offsets) {
+        return (Consumer<?, ?>) Proxy.newProxyInstance(Consumer.class.getClassLoader(),
+                new Class<?>[] {Consumer.class}, new FlowControl(consumer, offsets));
+    }
+
+    private static final class FlowControl implements InvocationHandler {
+
+        private final Consumer<?, ?> consumer;
+        private final OffsetTracker offsets;
+        private final Set<TopicPartition> paused = new HashSet<>();
+
+        private FlowControl(Consumer<?, ?> consumer, OffsetTracker offsets) {
+            this.consumer = consumer;
+            this.offsets = offsets;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("poll") && args.length == 1 && args[0] instanceof Duration timeout) {
+                applyFlowControl();
+                if (!paused.isEmpty() && timeout.compareTo(PAUSED_POLL_TIMEOUT) > 0) {
+                    args = new Object[] {PAUSED_POLL_TIMEOUT};
+                }
+            } else if (method.getName().equals("subscribe") && args.length == 2
+                    && args[1] instanceof ConsumerRebalanceListener listener) {
+                args = new Object[] {args[0], new RevocationListener(listener)};
+            }
+            try {
+                return method.invoke(consumer, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void applyFlowControl() {
+            Set<TopicPartition> assignment = consumer.assignment();
+            paused.retainAll(assignment);
+            for (TopicPartition partition : assignment) {
+                boolean saturated = offsets.saturated(partition.topic(), partition.partition());
+                if (saturated && paused.add(partition)) {
+                    log.warn("Pausing {}: too many records in flight", partition);
+                    consumer.pause(List.of(partition));
+                } else if (!saturated && paused.remove(partition)) {
+                    log.info("Resuming {}", partition);
+                    consumer.resume(List.of(partition));
+                }
+            }
+        }
+
+        private void forget(Collection<TopicPartition> partitions) {
+            for (TopicPartition partition : partitions) {
+                offsets.revoked(partition.topic(), partition.partition());
+                paused.remove(partition);
+            }
+        }
+
+        /** Lets the route's listener commit first, then drops the partitions' state. */
+        private final class RevocationListener implements ConsumerRebalanceListener {
+
+            private final ConsumerRebalanceListener delegate;
+
+            private RevocationListener(ConsumerRebalanceListener delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                delegate.onPartitionsRevoked(partitions);
+                forget(partitions);
+            }
+
+            @Override
+            public void onPartitionsLost(Collection<TopicPartition> partitions) {
+                delegate.onPartitionsLost(partitions);
+                forget(partitions);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                delegate.onPartitionsAssigned(partitions);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of single-threaded lanes, each with its own queue. Tasks with the same key always
+ * go to the same lane, so they run one at a time and in submission order, while different keys
+ * run in parallel. {@link #submit} never blocks, so the Kafka consumer thread keeps polling; the
+ * queues are bounded by pausing saturated partitions instead (see
+ * {@link FlowControlledKafkaClientFactory}).
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class KeyOrderedWorkerPool extends ServiceSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedWorkerPool.class);
+
+    private static final Runnable STOP = () -> { };
+
+    private final String name;
+    private final List<BlockingQueue<Runnable>> lanes = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger unkeyed = new AtomicInteger();
+    private final long drainTimeoutMillis;
+
+    public KeyOrderedWorkerPool(String name, int workers, long drainTimeoutMillis) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.name = name;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new LinkedBlockingQueue<>());
+        }
+    }
+
+    @Override
+    protected void doStart() {
+        for (int i = 0; i < lanes.size(); i++) {
+            BlockingQueue<Runnable> lane = lanes.get(i);
+            Thread thread = new Thread(() -> runLane(lane), name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /** Finishes the queued tasks, waiting up to the drain timeout, then interrupts the lanes. */
+    @Override
+    protected void doStop() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        for (BlockingQueue<Runnable> lane : lanes) {
+            // queued after the pending tasks; a lane that does not reach it in time is interrupted below
+            lane.add(STOP);
+        }
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if (thread.isAlive()) {
+                log.warn("Worker {} still busy after {} ms, interrupting", thread.getName(), drainTimeoutMillis);
+                thread.interrupt();
+            }
+        }
+        threads.clear();
+    }
+
+    /**
+     * Queues {@code task} on the lane of {@code key}. Tasks without a key have no order to keep
+     * and are spread over the lanes.
+     */
+    public void submit(Object key, Runnable task) {
+        int index = key != null
+                ? Math.floorMod(key.hashCode(), lanes.size())
+                : Math.floorMod(unkeyed.getAndIncrement(), lanes.size());
+        lanes.get(index).add(task);
+    }
+
+    /** Tasks waiting in the lane queues. */
+    public int queued() {
+        int count = 0;
+        for (BlockingQueue<Runnable> lane : lanes) {
+            count += lane.size();
+        }
+        return count;
+    }
+
+    private void runLane(BlockingQueue<Runnable> lane) {
+        while (true) {
+            Runnable task;
+            try {
+                task = lane.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == STOP) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Worker task failed on {}", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Groups items into batches of up to {@code maxBatchSize}, flushing a batch once it is full or
+ * {@code maxWaitMillis} after its first item arrived, whichever comes first. Like
+ * {@link KeyOrderedWorkerPool}, items with the same key always go to the same lane and each
+ * lane flushes its batches one at a time and in order, while different lanes flush in parallel.
+ * {@link #add} never blocks the Kafka consumer thread; the lanes are bounded by pausing
+ * saturated partitions instead (see {@link FlowControlledKafkaClientFactory}).
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class MicroBatcher<T> extends ServiceSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private static final Object STOP = new Object();
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long drainTimeoutMillis;
+    private final Consumer<List<T>> flush;
+    private final List<BlockingQueue<Object>> lanes = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger unkeyed = new AtomicInteger();
+
+    public MicroBatcher(String name, int lanes, int maxBatchSize, long maxWaitMillis,
+                        long drainTimeoutMillis, Consumer<List<T>> flush) {
+        if (lanes <= 0 || maxBatchSize <= 0 || maxWaitMillis < 0) {
+            throw new IllegalArgumentException("lanes and maxBatchSize must be positive, maxWaitMillis not negative");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.flush = flush;
+        for (int i = 0; i < lanes; i++) {
+            this.lanes.add(new LinkedBlockingQueue<>());
+        }
+    }
+
+    @Override
+    protected void doStart() {
+        for (int i = 0; i < lanes.size(); i++) {
+            BlockingQueue<Object> lane = lanes.get(i);
+            Thread thread = new Thread(() -> runLane(lane), name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /** Flushes what is queued, waiting up to the drain timeout, then interrupts the lanes. */
+    @Override
+    protected void doStop() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        for (BlockingQueue<Object> lane : lanes) {
+            lane.add(STOP);
+        }
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if (thread.isAlive()) {
+                log.warn("Batcher {} still flushing after {} ms, interrupting", thread.getName(), drainTimeoutMillis);
+                thread.interrupt();
+            }
+        }
+        threads.clear();
+    }
+
+    /**
+     * Queues {@code item} on the lane of {@code key}. Items without a key have no order to keep
+     * and are spread over the lanes.
+     */
+    public void add(Object key, T item) {
+        int index = key != null
+                ? Math.floorMod(key.hashCode(), lanes.size())
+                : Math.floorMod(unkeyed.getAndIncrement(), lanes.size());
+        lanes.get(index).add(item);
+    }
+
+    /** Items waiting in the lane queues, not counting the batches being flushed. */
+    public int queued() {
+        int count = 0;
+        for (BlockingQueue<Object> lane : lanes) {
+            count += lane.size();
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runLane(BlockingQueue<Object> lane) {
+        boolean stopping = false;
+        while (!stopping) {
+            List<T> batch = new ArrayList<>();
+            try {
+                Object first = lane.take();
+                if (first == STOP) {
+                    return;
+                }
+                batch.add((T) first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    Object next = lane.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add((T) next);
+                }
+            } catch (InterruptedException e) {
+                // the unflushed items are never completed, so their offsets are not committed
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                flush.accept(batch);
+            } catch (RuntimeException e) {
+                // the flush is expected to settle its own items; those it left are never completed,
+                // so the commits of their partitions stay held back until they are consumed again
+                log.error("Batch flush of {} items failed on {}; items it did not settle are redelivered only after a restart or rebalance",
+                        batch.size(), Thread.currentThread().getName(), e);
+            }
+        }
+    }
+}
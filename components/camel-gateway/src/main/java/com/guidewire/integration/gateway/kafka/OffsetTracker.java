@@ -0,0 +1,120 @@
+package com.guidewire.integration.gateway.kafka;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks, per topic partition, the records handed to workers and decides which offset may be
+ * committed once they complete out of order: the last completed record with no earlier record
+ * still in flight. A record that has not completed yet holds back the commits of its partition,
+ * so it is consumed again after a restart or rebalance.
+ *
+ * A partition with {@code maxInFlightPerPartition} records in flight is {@link #saturated}, and
+ * {@link FlowControlledKafkaClientFactory} pauses it until its workers catch up, which bounds
+ * both the in-flight and the completed records kept here. The state of a partition is dropped
+ * when it is revoked; completions of its records still running are then ignored.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class OffsetTracker {
+
+    private final Map<String, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final int maxInFlightPerPartition;
+
+    public OffsetTracker() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public OffsetTracker(int maxInFlightPerPartition) {
+        if (maxInFlightPerPartition <= 0) {
+            throw new IllegalArgumentException("maxInFlightPerPartition must be positive");
+        }
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+    }
+
+    /** Called by the consumer thread, in offset order, before handing a record to a worker. */
+    public void dispatched(String topic, int partition, long offset) {
+        PartitionState state = partitions.computeIfAbsent(topic + "-" + partition, k -> new PartitionState());
+        synchronized (state) {
+            state.inFlight.add(offset);
+        }
+    }
+
+    /**
+     * Marks a record as completed.
+     *
+     * @param commit commits this record's offset; kept until no earlier record is in flight
+     * @return the commit to run now (of the highest record that became committable), or null
+     */
+    public Runnable completed(String topic, int partition, long offset, Runnable commit) {
+        PartitionState state = partitions.get(topic + "-" + partition);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            if (!state.inFlight.remove(offset)) {
+                return null;
+            }
+            state.completed.put(offset, commit);
+            long lowestInFlight = state.inFlight.isEmpty() ? Long.MAX_VALUE : state.inFlight.first();
+            NavigableMap<Long, Runnable> committable = state.completed.headMap(lowestInFlight, false);
+            if (committable.isEmpty()) {
+                return null;
+            }
+            Runnable last = committable.lastEntry().getValue();
+            committable.clear();
+            return last;
+        }
+    }
+
+    /** Whether the partition has as many records in flight as allowed and should stop fetching. */
+    public boolean saturated(String topic, int partition) {
+        PartitionState state = partitions.get(topic + "-" + partition);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.inFlight.size() >= maxInFlightPerPartition;
+        }
+    }
+
+    /** Partitions that are {@link #saturated}. */
+    public int saturatedPartitions() {
+        int count = 0;
+        for (PartitionState state : partitions.values()) {
+            synchronized (state) {
+                if (state.inFlight.size() >= maxInFlightPerPartition) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Forgets a partition taken away by a rebalance. Its records still in flight complete without
+     * committing anything, and the next owner resumes from the last commit.
+     */
+    public void revoked(String topic, int partition) {
+        partitions.remove(topic + "-" + partition);
+    }
+
+    /** Records handed to workers and not completed yet, over all partitions. */
+    public long inFlight() {
+        long count = 0;
+        for (PartitionState state : partitions.values()) {
+            synchronized (state) {
+                count += state.inFlight.size();
+            }
+        }
+        return count;
+    }
+
+    private static final class PartitionState {
+        private final TreeSet<Long> inFlight = new TreeSet<>();
+        private final TreeMap<Long, Runnable> completed = new TreeMap<>();
+    }
+}
@@ -0,0 +1,96 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.component.kafka.consumer.KafkaManualCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands each consumed Kafka record to a {@link KeyOrderedWorkerPool} lane picked by its key and
+ * returns, so the consumer thread keeps polling while the workers deliver records in parallel.
+ * Records of one key stay in order. Once delivered (or dead-lettered by the delivery route's
+ * error handler), the record is marked completed in the {@link OffsetTracker}, and the offset
+ * is committed only when every earlier record of the partition has completed too.
+ *
+ * A record the delivery route could not even dead-letter is delivered again, with a back-off
+ * doubling up to {@code maxRetryDelayMillis}, until it succeeds or the worker pool stops. Its
+ * lane and partition wait meanwhile: the partition is paused once its in-flight limit is
+ * reached, and its offsets resume advancing when the record finally goes through.
+ *
+ * Commits are issued from the worker threads, so the consumer endpoint must use the async
+ * manual commit factory, which hands them back to the consumer thread.
+ *
+ * Issue #50 - Kafka Consumer improvements
+ */
+public class OrderedDispatchProcessor implements Processor {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderedDispatchProcessor.class);
+
+    private final ProducerTemplate producerTemplate;
+    private final String deliveryEndpoint;
+    private final KeyOrderedWorkerPool workers;
+    private final OffsetTracker offsets;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+
+    public OrderedDispatchProcessor(ProducerTemplate producerTemplate, String deliveryEndpoint,
+                                    KeyOrderedWorkerPool workers, OffsetTracker offsets) {
+        this(producerTemplate, deliveryEndpoint, workers, offsets, 1000, 30000);
+    }
+
+    public OrderedDispatchProcessor(ProducerTemplate producerTemplate, String deliveryEndpoint,
+                                    KeyOrderedWorkerPool workers, OffsetTracker offsets,
+                                    long retryDelayMillis, long maxRetryDelayMillis) {
+        this.producerTemplate = producerTemplate;
+        this.deliveryEndpoint = deliveryEndpoint;
+        this.workers = workers;
+        this.offsets = offsets;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+    }
+
+    @Override
+    public void process(Exchange exchange) {
+        String topic = exchange.getIn().getHeader(KafkaConstants.TOPIC, String.class);
+        int partition = exchange.getIn().getHeader(KafkaConstants.PARTITION, Integer.class);
+        long offset = exchange.getIn().getHeader(KafkaConstants.OFFSET, Long.class);
+        Object key = exchange.getIn().getHeader(KafkaConstants.KEY);
+        KafkaManualCommit manualCommit = exchange.getIn().getHeader(KafkaConstants.MANUAL_COMMIT, KafkaManualCommit.class);
+        Exchange record = exchange.copy();
+
+        offsets.dispatched(topic, partition, offset);
+        workers.submit(key, () -> deliver(record, topic, partition, offset, manualCommit));
+    }
+
+    private void deliver(Exchange record, String topic, int partition, long offset, KafkaManualCommit manualCommit) {
+        long delay = retryDelayMillis;
+        Exchange result = producerTemplate.send(deliveryEndpoint, record.copy());
+        while (result.isFailed()) {
+            // Not even dead-lettered: the partition must not be committed past it
+            log.error("Delivery of {}-{}@{} failed, retrying in {} ms; offsets of the partition are held back until it succeeds",
+                    topic, partition, offset, delay, result.getException());
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Worker stopped before {}-{}@{} was delivered; it is consumed again after restart",
+                        topic, partition, offset);
+                return;
+            }
+            delay = Math.min(delay * 2, maxRetryDelayMillis);
+            result = producerTemplate.send(deliveryEndpoint, record.copy());
+        }
+        Runnable commit = offsets.completed(topic, partition, offset, manualCommit != null ? manualCommit::commit : null);
+        if (commit != null) {
+            try {
+                commit.run();
+            } catch (RuntimeException e) {
+                // e.g. the partition was revoked by a rebalance; its new owner resumes from the last commit
+                log.warn("Commit up to {}-{}@{} failed: {}", topic, partition, offset, e.getMessage());
+            }
+        }
+    }
+}
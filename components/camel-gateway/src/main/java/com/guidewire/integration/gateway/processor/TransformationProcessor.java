@@ -1,8 +1,8 @@
 package com.guidewire.integration.gateway.processor;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.camel.Exchange;
@@ -10,20 +10,15 @@ import org.apache.camel.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -38,6 +33,9 @@ public class TransformationProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(TransformationProcessor.class);
 
+    // Thread-safe once configured. DTDs and external entities are disabled against XXE
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     private final ObjectMapper objectMapper;
     private final Counter transformationErrorCounter;
 
@@ -52,6 +50,10 @@ public class TransformationProcessor {
      * Converts incoming SOAP XML body to JSON for REST backend consumption.
      * Extracts key fields from the SOAP body and sets them as Camel headers
      * (e.g., policyNumber, claimId, invoiceId) for dynamic routing.
+     *
+     * The XML is read in one streaming pass, without building a DOM: each child of the root
+     * element becomes a string field holding its trimmed text content, written straight to the
+     * JSON output. A repeated child name is written again, and JSON readers keep its last value.
      */
     public void soapXmlToJson(Exchange exchange) {
         try {
@@ -65,36 +67,11 @@ public class TransformationProcessor {
 
             log.debug("Transforming SOAP XML to JSON: {}", xmlBody);
 
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            // Disable external entities for security
-            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new InputSource(new StringReader(xmlBody)));
-
-            ObjectNode jsonNode = objectMapper.createObjectNode();
-
-            // Extract all child elements from the root (SOAP body content)
-            Element root = doc.getDocumentElement();
-            NodeList children = root.getChildNodes();
-            for (int i = 0; i < children.getLength(); i++) {
-                if (children.item(i) instanceof Element element) {
-                    String name = element.getLocalName();
-                    String value = element.getTextContent().trim();
-                    jsonNode.put(name, value);
-
-                    // Set routing headers based on known ID fields
-                    switch (name) {
-                        case "policyNumber" -> message.setHeader("policyNumber", value);
-                        case "claimId" -> message.setHeader("claimId", value);
-                        case "invoiceId" -> message.setHeader("invoiceId", value);
-                        case "customerId" -> message.setHeader("customerId", value);
-                    }
-                }
-            }
+            Map<String, String> routingHeaders = new HashMap<>(4);
+            String jsonString = streamXmlToJson(xmlBody, routingHeaders);
 
-            String jsonString = objectMapper.writeValueAsString(jsonNode);
+            // Set only once the whole document has parsed, so a malformed body leaves no headers behind
+            routingHeaders.forEach(message::setHeader);
             log.debug("Transformed to JSON: {}", jsonString);
             message.setBody(jsonString);
 
@@ -105,6 +82,53 @@ public class TransformationProcessor {
         }
     }
 
+    private String streamXmlToJson(String xml, Map<String, String> routingHeaders)
+            throws XMLStreamException, IOException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+        StringWriter json = new StringWriter(xml.length() / 2);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            // 1 inside the root element, 2 inside one of its children (a JSON field)
+            int depth = 0;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+            // Read up to the end of the document so trailing malformed content still fails
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        if (++depth == 2) {
+                            field = reader.getLocalName();
+                            text.setLength(0);
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (depth >= 2) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (depth-- == 2) {
+                            String value = text.toString().trim();
+                            generator.writeStringField(field, value);
+
+                            // Set routing headers based on known ID fields
+                            switch (field) {
+                                case "policyNumber", "claimId", "invoiceId", "customerId" ->
+                                        routingHeaders.put(field, value);
+                                default -> { }
+                            }
+                        }
+                    }
+                    default -> { }
+                }
+            }
+            generator.writeEndObject();
+        } finally {
+            reader.close();
+        }
+        return json.toString();
+    }
+
     /**
      * Converts REST JSON response back to SOAP XML for the SOAP client.
      * Wraps the JSON fields in a SOAP envelope for the response.
@@ -172,6 +196,14 @@ public class TransformationProcessor {
         }
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     private String wrapInSoapEnvelope(String bodyContent) {
         return """
                 <?xml version="1.0" encoding="UTF-8"?>\
@@ -1,34 +1,93 @@
 package com.guidewire.integration.gateway.routes;
 
+import com.guidewire.integration.gateway.kafka.BatchDispatchProcessor;
+import com.guidewire.integration.gateway.kafka.BulkDelivery;
+import com.guidewire.integration.gateway.kafka.FlowControlledKafkaClientFactory;
+import com.guidewire.integration.gateway.kafka.KeyOrderedWorkerPool;
+import com.guidewire.integration.gateway.kafka.MicroBatcher;
+import com.guidewire.integration.gateway.kafka.OffsetTracker;
+import com.guidewire.integration.gateway.kafka.OrderedDispatchProcessor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.camel.Exchange;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.spi.IdempotentRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Supplier;
+
 /**
  * Kafka consumer routes with improved error handling:
  * - Dead-letter routing with original headers preserved
  * - Retry with exponential backoff and max attempts
- * - Idempotency via message key headers to prevent duplicate processing
+ * - Idempotency via message key headers to prevent duplicate processing, with a
+ *   repository namespace per route (see IdempotentRepositoryConfig)
  * - Per-route metrics via micrometer counters
+ * - Parallel delivery: each consume-* route hands records to a key-ordered worker pool and
+ *   keeps polling; the deliver-* route does the idempotency check and the HTTP call. Records
+ *   of one key are delivered in order, and offsets are committed only up to the last record
+ *   with no earlier one still in flight (see OrderedDispatchProcessor)
+ * - Micro-batching for billing events: records are grouped per key lane into batches of up
+ *   to batch-size records or batch-timeout-ms, posted to billing-service's bulk endpoint in one
+ *   call, and the items it rejects are dead-lettered one by one (see BulkDelivery)
  *
  * Issue #50 - Kafka Consumer improvements
  */
 @Component
 public class KafkaConsumerRoute extends RouteBuilder {
 
+    private static final String ASYNC_COMMIT_FACTORY =
+            "org.apache.camel.component.kafka.consumer.DefaultKafkaManualAsyncCommitFactory";
+
     @Value("${kafka.bootstrap-servers:localhost:9092}")
     private String kafkaBootstrapServers;
 
     @Value("${apicurio.registry.url:http://localhost:8080/apis/registry/v2}")
     private String apicurioRegistryUrl;
 
+    // false when drools-engine consumes incidents.incident-created itself (drools.kafka.enabled)
+    @Value("${gateway.incidents.fraud-check-via-http:true}")
+    private boolean fraudCheckViaHttp;
+
+    // Kafka consumers per route; more than the topic's partitions stay idle
+    @Value("${gateway.kafka.consumers-count:1}")
+    private int consumersCount;
+
+    // Worker lanes per route; records of one key always use the same lane
+    @Value("${gateway.kafka.workers:8}")
+    private int workers;
+
+    // Records of a partition dispatched and not completed before the partition is paused
+    @Value("${gateway.kafka.max-in-flight-per-partition:1000}")
+    private int maxInFlightPerPartition;
+
+    @Value("${gateway.kafka.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+
+    // false posts billing events one by one to /api/v1/invoices instead of the bulk endpoint
+    @Value("${gateway.kafka.billing.batch-enabled:true}")
+    private boolean billingBatchEnabled;
+
+    @Value("${gateway.kafka.billing.batch-size:500}")
+    private int billingBatchSize;
+
+    @Value("${gateway.kafka.billing.batch-timeout-ms:50}")
+    private long billingBatchTimeoutMs;
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConsumerRoute(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public void configure() throws Exception {
 
         // -- Global error handler: DLQ with exponential backoff --
-        errorHandler(deadLetterChannel("kafka:dlq.errors?brokers=" + kafkaBootstrapServers)
+        errorHandler(deadLetterChannel(deadLetterUri())
                 .maximumRedeliveries(5)
                 .redeliveryDelay(1000)
                 .backOffMultiplier(2.0)
@@ -52,64 +111,74 @@ public class KafkaConsumerRoute extends RouteBuilder {
         // =====================================================================
         // Billing events consumer
         // =====================================================================
-        from("kafka:billing.invoice-created?brokers=" + kafkaBootstrapServers
-                + "&groupId=camel-gateway-group"
-                + "&autoOffsetReset=earliest"
-                + "&autoCommitEnable=false"
-                + "&allowManualCommit=true"
-                + "&valueDeserializer=io.apicurio.registry.serde.avro.AvroKafkaDeserializer"
-                + "&additionalProperties.apicurio.registry.url=" + apicurioRegistryUrl)
-                .routeId("consume-billing-events")
-                .log("Consumed billing event [key=${header.kafka.KEY}, partition=${header.kafka.PARTITION}, offset=${header.kafka.OFFSET}]")
-                // Idempotency check: skip if we already processed this key
-                .idempotentConsumer(header("kafka.KEY"))
-                    .idempotentRepository("simpleIdempotentRepo")
-                    .skipDuplicate(true)
-                    .log(LoggingLevel.WARN, "Duplicate billing event detected, skipping: ${header.kafka.KEY}")
-                .end()
-                .to("micrometer:counter:events_consumed?tags=topic=billing.invoice-created")
-                .setHeader(Exchange.HTTP_METHOD, constant("POST"))
-                .setHeader(Exchange.CONTENT_TYPE, constant("application/json"))
-                .to("http:billing-service:8082/api/v1/invoices?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .log("Billing event routed successfully [key=${header.kafka.KEY}]");
+        if (billingBatchEnabled) {
+            consumeInBatches("billing.invoice-created", "billing-events", "billing",
+                    "billingIdempotentRepo", "direct:deliver-billing-batch");
+            from("direct:deliver-billing-batch")
+                    .routeId("deliver-billing-batch")
+                    // Retries the whole request, which is safe because every item carries an idempotency key
+                    // that billing-service replays; BulkDelivery dead-letters the records once retries are exhausted
+                    .errorHandler(defaultErrorHandler()
+                            .maximumRedeliveries(5)
+                            .redeliveryDelay(1000)
+                            .backOffMultiplier(2.0)
+                            .maximumRedeliveryDelay(30000)
+                            .retryAttemptedLogLevel(LoggingLevel.WARN)
+                            .logRetryAttempted(true))
+                    .to("micrometer:counter:events_consumed?tags=topic=billing.invoice-created&increment=${header."
+                            + BulkDelivery.BATCH_SIZE + "}")
+                    .setHeader(Exchange.HTTP_METHOD, constant("POST"))
+                    .setHeader(Exchange.CONTENT_TYPE, constant("application/json"))
+                    .to("http:billing-service:8082/api/v1/invoices/bulk?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                    .log("Billing batch routed successfully [records=${header." + BulkDelivery.BATCH_SIZE + "}]");
+        } else {
+            consume("billing.invoice-created", "billing-events", "billing");
+            from("direct:deliver-billing-events")
+                    .routeId("deliver-billing-events")
+                    // Idempotency check: skip if we already processed this key
+                    .idempotentConsumer(header("kafka.KEY"))
+                        .idempotentRepository("billingIdempotentRepo")
+                        .skipDuplicate(true)
+                        .log(LoggingLevel.WARN, "Duplicate billing event detected, skipping: ${header.kafka.KEY}")
+                    .end()
+                    .to("micrometer:counter:events_consumed?tags=topic=billing.invoice-created")
+                    .setHeader(Exchange.HTTP_METHOD, constant("POST"))
+                    .setHeader(Exchange.CONTENT_TYPE, constant("application/json"))
+                    .to("http:billing-service:8082/api/v1/invoices?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                    .log("Billing event routed successfully [key=${header.kafka.KEY}]");
+        }
 
         // =====================================================================
         // Incident events consumer
         // =====================================================================
-        from("kafka:incidents.incident-created?brokers=" + kafkaBootstrapServers
-                + "&groupId=camel-gateway-group"
-                + "&autoOffsetReset=earliest"
-                + "&autoCommitEnable=false"
-                + "&allowManualCommit=true"
-                + "&valueDeserializer=io.apicurio.registry.serde.avro.AvroKafkaDeserializer"
-                + "&additionalProperties.apicurio.registry.url=" + apicurioRegistryUrl)
-                .routeId("consume-incident-events")
-                .log("Consumed incident event [key=${header.kafka.KEY}, partition=${header.kafka.PARTITION}, offset=${header.kafka.OFFSET}]")
+        consume("incidents.incident-created", "incident-events", "incidents");
+        ProcessorDefinition<?> incidentRoute = from("direct:deliver-incident-events")
+                .routeId("deliver-incident-events")
                 .idempotentConsumer(header("kafka.KEY"))
-                    .idempotentRepository("simpleIdempotentRepo")
+                    .idempotentRepository("incidentIdempotentRepo")
                     .skipDuplicate(true)
                     .log(LoggingLevel.WARN, "Duplicate incident event detected, skipping: ${header.kafka.KEY}")
                 .end()
-                .to("micrometer:counter:events_consumed?tags=topic=incidents.incident-created")
-                .setHeader(Exchange.HTTP_METHOD, constant("POST"))
-                .setHeader(Exchange.CONTENT_TYPE, constant("application/json"))
-                .to("http:drools-engine:8086/api/v1/rules/fraud-check?bridgeEndpoint=true&throwExceptionOnFailure=true")
-                .log("Incident event processed through fraud detection [key=${header.kafka.KEY}], result: ${body}");
+                .to("micrometer:counter:events_consumed?tags=topic=incidents.incident-created");
+        if (fraudCheckViaHttp) {
+            incidentRoute
+                    .setHeader(Exchange.HTTP_METHOD, constant("POST"))
+                    .setHeader(Exchange.CONTENT_TYPE, constant("application/json"))
+                    .to("http:drools-engine:8086/api/v1/rules/fraud-check?bridgeEndpoint=true&throwExceptionOnFailure=true")
+                    .log("Incident event processed through fraud detection [key=${header.kafka.KEY}], result: ${body}");
+        } else {
+            incidentRoute.log(LoggingLevel.DEBUG,
+                    "Incident event left to drools-engine's Kafka consumer [key=${header.kafka.KEY}]");
+        }
 
         // =====================================================================
         // Customer events consumer
         // =====================================================================
-        from("kafka:customers.customer-registered?brokers=" + kafkaBootstrapServers
-                + "&groupId=camel-gateway-group"
-                + "&autoOffsetReset=earliest"
-                + "&autoCommitEnable=false"
-                + "&allowManualCommit=true"
-                + "&valueDeserializer=io.apicurio.registry.serde.avro.AvroKafkaDeserializer"
-                + "&additionalProperties.apicurio.registry.url=" + apicurioRegistryUrl)
-                .routeId("consume-customer-events")
-                .log("Consumed customer event [key=${header.kafka.KEY}, partition=${header.kafka.PARTITION}, offset=${header.kafka.OFFSET}]")
+        consume("customers.customer-registered", "customer-events", "customers");
+        from("direct:deliver-customer-events")
+                .routeId("deliver-customer-events")
                 .idempotentConsumer(header("kafka.KEY"))
-                    .idempotentRepository("simpleIdempotentRepo")
+                    .idempotentRepository("customerIdempotentRepo")
                     .skipDuplicate(true)
                     .log(LoggingLevel.WARN, "Duplicate customer event detected, skipping: ${header.kafka.KEY}")
                 .end()
@@ -119,4 +188,87 @@ public class KafkaConsumerRoute extends RouteBuilder {
                 .to("http:customers-service:8085/api/v1/customers?bridgeEndpoint=true&throwExceptionOnFailure=true")
                 .log("Customer event routed successfully [key=${header.kafka.KEY}]");
     }
+
+    /**
+     * Consumer route consume-{name}: polls the topic with {@code consumersCount} consumers and
+     * hands every record to direct:deliver-{name} on a key-ordered worker pool of its own.
+     */
+    private void consume(String topic, String name, String metricsRoute) throws Exception {
+        KeyOrderedWorkerPool workerPool = new KeyOrderedWorkerPool("kafka-" + name + "-worker", workers, drainTimeoutMs);
+        OffsetTracker offsetTracker = new OffsetTracker(maxInFlightPerPartition);
+        getCamelContext().addService(workerPool);
+        registerGauges(metricsRoute, offsetTracker, workerPool::queued);
+
+        from(kafkaUri(topic, name, offsetTracker))
+                .routeId("consume-" + name)
+                .log("Consumed " + topic + " record [key=${header.kafka.KEY}, partition=${header.kafka.PARTITION}, offset=${header.kafka.OFFSET}]")
+                .process(new OrderedDispatchProcessor(getCamelContext().createProducerTemplate(),
+                        "direct:deliver-" + name, workerPool, offsetTracker));
+    }
+
+    /**
+     * Batching consumer route consume-{name}: polls the topic like {@link #consume} but groups the
+     * records into micro-batches, each posted to {@code bulkEndpoint} as one request.
+     */
+    private void consumeInBatches(String topic, String name, String metricsRoute,
+                                  String idempotentRepository, String bulkEndpoint) throws Exception {
+        IdempotentRepository repository =
+                getCamelContext().getRegistry().lookupByNameAndType(idempotentRepository, IdempotentRepository.class);
+        // Started here rather than by an idempotentConsumer, and stopped after the batcher has drained
+        getCamelContext().addService(repository);
+        OffsetTracker offsetTracker = new OffsetTracker(maxInFlightPerPartition);
+        BulkDelivery delivery = new BulkDelivery(getCamelContext().createProducerTemplate(), bulkEndpoint,
+                deadLetterUri(), repository, offsetTracker, meterRegistry, metricsRoute);
+        MicroBatcher<Exchange> batcher = new MicroBatcher<>("kafka-" + name + "-batcher",
+                workers, billingBatchSize, billingBatchTimeoutMs, drainTimeoutMs, delivery);
+        getCamelContext().addService(batcher);
+        registerGauges(metricsRoute, offsetTracker, batcher::queued);
+
+        from(kafkaUri(topic, name, offsetTracker))
+                .routeId("consume-" + name)
+                .log("Consumed " + topic + " record [key=${header.kafka.KEY}, partition=${header.kafka.PARTITION}, offset=${header.kafka.OFFSET}]")
+                .process(new BatchDispatchProcessor(batcher, offsetTracker));
+    }
+
+    /**
+     * Endpoint of consume-{name}. Its consumers pause the partitions {@code offsetTracker} reports
+     * as saturated and drop revoked partitions from it (see FlowControlledKafkaClientFactory).
+     */
+    private String kafkaUri(String topic, String name, OffsetTracker offsetTracker) {
+        String clientFactory = "kafka-" + name + "-clients";
+        getCamelContext().getRegistry().bind(clientFactory, new FlowControlledKafkaClientFactory(offsetTracker));
+        return "kafka:" + topic + "?brokers=" + kafkaBootstrapServers
+                + "&groupId=camel-gateway-group"
+                + "&consumersCount=" + consumersCount
+                + "&autoOffsetReset=earliest"
+                + "&autoCommitEnable=false"
+                + "&allowManualCommit=true"
+                // Workers commit from their own threads; the async factory hands commits back to the poll loop
+                + "&kafkaManualCommitFactory=#class:" + ASYNC_COMMIT_FACTORY
+                + "&kafkaClientFactory=#" + clientFactory
+                + "&valueDeserializer=io.apicurio.registry.serde.avro.AvroKafkaDeserializer"
+                + "&additionalProperties.apicurio.registry.url=" + apicurioRegistryUrl;
+    }
+
+    private String deadLetterUri() {
+        return "kafka:dlq.errors?brokers=" + kafkaBootstrapServers;
+    }
+
+    private void registerGauges(String metricsRoute, OffsetTracker offsetTracker, Supplier<Number> queued) {
+        Gauge.builder("kafka_consumer_in_flight", offsetTracker, OffsetTracker::inFlight)
+                .description("Records handed to workers and not completed yet")
+                .tag("component", "camel-gateway")
+                .tag("route", metricsRoute)
+                .register(meterRegistry);
+        Gauge.builder("kafka_consumer_queued", queued)
+                .description("Records waiting for a worker")
+                .tag("component", "camel-gateway")
+                .tag("route", metricsRoute)
+                .register(meterRegistry);
+        Gauge.builder("kafka_consumer_paused_partitions", offsetTracker, OffsetTracker::saturatedPartitions)
+                .description("Partitions paused until their records in flight drop below the limit")
+                .tag("component", "camel-gateway")
+                .tag("route", metricsRoute)
+                .register(meterRegistry);
+    }
 }
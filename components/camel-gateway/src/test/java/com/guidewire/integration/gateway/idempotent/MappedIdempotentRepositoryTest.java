@@ -0,0 +1,211 @@
+package com.guidewire.integration.gateway.idempotent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedIdempotentRepository.
+ * Verifies deduplication, TTL expiry, bucket eviction, that confirmed keys survive a restart
+ * and unconfirmed ones do not, and that the Bloom filter front never lets a duplicate through.
+ */
+class MappedIdempotentRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final List<MappedIdempotentRepository> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MappedIdempotentRepository::stop);
+    }
+
+    private MappedIdempotentRepository open(String namespace, long maxKeys, Duration ttl) {
+        MappedIdempotentRepository repo = new MappedIdempotentRepository(dir, namespace, maxKeys, ttl, clock::get);
+        repo.start();
+        opened.add(repo);
+        return repo;
+    }
+
+    @Test
+    void add_rejectsDuplicatesUntilRemoved() {
+        MappedIdempotentRepository repo = open("billing", 1000, Duration.ZERO);
+
+        assertTrue(repo.add("INV-1"));
+        assertFalse(repo.add("INV-1"));
+        assertTrue(repo.contains("INV-1"));
+        assertFalse(repo.contains("INV-2"));
+
+        assertTrue(repo.remove("INV-1"));
+        assertFalse(repo.remove("INV-1"));
+        assertTrue(repo.add("INV-1"));
+
+        assertEquals(1, repo.getEntries());
+        assertEquals(2, repo.getAddedCount());
+        assertEquals(1, repo.getDuplicateCount());       // contains() is a lookup, not a duplicate
+    }
+
+    @Test
+    void namespaces_areIndependent() {
+        MappedIdempotentRepository billing = open("billing", 1000, Duration.ZERO);
+        MappedIdempotentRepository customers = open("customers", 1000, Duration.ZERO);
+
+        assertTrue(billing.add("KEY-1"));
+        assertTrue(customers.add("KEY-1"));
+
+        billing.clear();
+        assertFalse(billing.contains("KEY-1"));
+        assertTrue(customers.contains("KEY-1"));
+        assertEquals(0, billing.getEntries());
+    }
+
+    @Test
+    void keys_expireAfterTtl() {
+        MappedIdempotentRepository repo = open("incidents", 1000, Duration.ofMinutes(10));
+
+        assertTrue(repo.add("INC-1"));
+        clock.addAndGet(Duration.ofMinutes(9).toMillis());
+        assertFalse(repo.add("INC-1"));
+
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+        assertFalse(repo.contains("INC-1"));
+        assertTrue(repo.add("INC-1"));
+        assertEquals(1, repo.getEntries());
+    }
+
+    @Test
+    void fullBuckets_evictTheOldestKey() {
+        MappedIdempotentRepository repo = open("incidents", 8, Duration.ZERO);
+        long capacity = repo.getCapacity();
+
+        for (int i = 0; i < 1000; i++) {
+            clock.incrementAndGet();
+            assertTrue(repo.add("INC-" + i));
+        }
+
+        assertEquals(capacity, repo.getEntries());
+        assertEquals(1000 - capacity, repo.getEvictionCount());
+        assertTrue(repo.contains("INC-999"));
+    }
+
+    @Test
+    void keys_surviveRestartAndResize() {
+        MappedIdempotentRepository repo = open("customers", 1000, Duration.ofDays(7));
+        for (int i = 0; i < 500; i++) {
+            repo.add("CUST-" + i);
+            repo.confirm("CUST-" + i);
+        }
+        repo.stop();
+
+        MappedIdempotentRepository reopened = open("customers", 1000, Duration.ofDays(7));
+        assertEquals(500, reopened.getEntries());
+        assertFalse(reopened.add("CUST-42"));
+        reopened.stop();
+
+        MappedIdempotentRepository resized = open("customers", 100_000, Duration.ofDays(7));
+        assertEquals(500, resized.getEntries());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(resized.contains("CUST-" + i), "CUST-" + i);
+        }
+    }
+
+    @Test
+    void unconfirmedKeys_areDroppedOnRestart() {
+        MappedIdempotentRepository repo = open("billing", 1000, Duration.ofDays(7));
+        assertTrue(repo.add("INV-DELIVERED"));
+        assertTrue(repo.confirm("INV-DELIVERED"));
+        assertTrue(repo.add("INV-IN-FLIGHT"));          // the process dies before its delivery completes
+        assertFalse(repo.add("INV-IN-FLIGHT"));         // still a duplicate while this process runs
+        assertFalse(repo.confirm("INV-UNKNOWN"));
+        repo.stop();
+
+        MappedIdempotentRepository reopened = open("billing", 1000, Duration.ofDays(7));
+        assertEquals(1, reopened.getEntries());
+        assertFalse(reopened.add("INV-DELIVERED"));
+        assertTrue(reopened.add("INV-IN-FLIGHT"));       // redelivered after the restart, not skipped
+    }
+
+    @Test
+    void bloomFilter_skipsNewKeysAndStillCatchesDuplicates() {
+        MappedIdempotentRepository repo = new MappedIdempotentRepository(dir, "billing", 1000, Duration.ZERO, clock::get);
+        repo.setBloomFilter(1000, 0.01);
+        repo.start();
+        opened.add(repo);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(repo.add("INV-" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(repo.add("INV-" + i));
+        }
+
+        assertTrue(repo.getBloomFilterSkipCount() > 950, "skips: " + repo.getBloomFilterSkipCount());
+        assertEquals(1000, repo.getBloomFilterSkipCount() + repo.getBloomFilterFalsePositiveCount());
+        assertTrue(repo.getBloomFilterFalsePositiveRate() < 0.05);
+        assertTrue(repo.getBloomFilterExpectedFpp() > 0);
+        assertEquals(1000, repo.getDuplicateCount());
+    }
+
+    @Test
+    void bloomFilter_isRebuiltFromTheTableOnStart() {
+        MappedIdempotentRepository repo = open("incidents", 1000, Duration.ZERO);
+        for (int i = 0; i < 500; i++) {
+            repo.add("INC-" + i);
+            repo.confirm("INC-" + i);
+        }
+        repo.stop();
+
+        MappedIdempotentRepository filtered = new MappedIdempotentRepository(dir, "incidents", 1000, Duration.ZERO, clock::get);
+        filtered.setBloomFilter(1000, 0.01);
+        filtered.start();
+        opened.add(filtered);
+
+        for (int i = 0; i < 500; i++) {
+            assertFalse(filtered.add("INC-" + i), "INC-" + i);
+        }
+    }
+
+    @Test
+    void bloomFilter_keepsKeysForTheirTtlAcrossRotations() {
+        MappedIdempotentRepository repo = new MappedIdempotentRepository(dir, "customers", 1000, Duration.ofMinutes(10), clock::get);
+        repo.setBloomFilter(1000, 0.01);
+        repo.start();
+        opened.add(repo);
+
+        clock.addAndGet(Duration.ofMinutes(9).toMillis());
+        assertTrue(repo.add("CUST-1"));
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+        assertTrue(repo.add("CUST-2"));            // rotates: CUST-1 moves to the previous generation
+
+        clock.addAndGet(Duration.ofMinutes(8).toMillis());
+        assertFalse(repo.add("CUST-1"));
+
+        clock.addAndGet(Duration.ofMinutes(3).toMillis());
+        assertTrue(repo.add("CUST-1"));             // expired from the table and rotated out of the filter
+    }
+
+    @Test
+    void start_failsWhenTheFileIsInUse() {
+        open("billing", 1000, Duration.ZERO);
+
+        MappedIdempotentRepository second = new MappedIdempotentRepository(dir, "billing", 1000, Duration.ZERO);
+        assertThrows(IllegalStateException.class, second::start);
+    }
+
+    @Test
+    void bucketsFor_roundsUpToAPowerOfTwo() {
+        assertEquals(1, MappedIdempotentRepository.bucketsFor(1));
+        assertEquals(262_144, MappedIdempotentRepository.bucketsFor(1_000_000));
+        assertThrows(IllegalArgumentException.class, () -> MappedIdempotentRepository.bucketsFor(Long.MAX_VALUE / 8));
+    }
+}
@@ -0,0 +1,195 @@
+package com.guidewire.integration.gateway.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.component.kafka.consumer.KafkaManualCommit;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.processor.idempotent.MemoryIdempotentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkDelivery.
+ * Verifies per-item dead-lettering, including of records that are not JSON, duplicate skipping,
+ * that item keys are recorded only once settled, and that offsets are committed only for records
+ * that were delivered or dead-lettered, also when the batch fails unexpectedly.
+ */
+class BulkDeliveryTest {
+
+    private DefaultCamelContext camelContext;
+    private final List<String> bulkBodies = new CopyOnWriteArrayList<>();
+    private final List<Exchange> deadLettered = new CopyOnWriteArrayList<>();
+    private final List<Long> committed = new ArrayList<>();
+    private final List<String> keysKnownDuringCall = new CopyOnWriteArrayList<>();
+    private final OffsetTracker offsets = new OffsetTracker();
+    private final AtomicInteger repositoryFailuresLeft = new AtomicInteger();
+    private final MemoryIdempotentRepository idempotentRepository = new MemoryIdempotentRepository() {
+        @Override
+        public boolean add(String key) {
+            if (repositoryFailuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("repository unavailable");
+            }
+            return super.add(key);
+        }
+    };
+    private volatile String bulkResponse;
+    private volatile boolean bulkFails;
+    private final AtomicInteger deadLetterFailuresLeft = new AtomicInteger();
+    private BulkDelivery delivery;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:bulk").process(exchange -> {
+                    bulkBodies.add(exchange.getIn().getBody(String.class));
+                    keysKnownDuringCall.addAll(idempotentRepository.getCache().keySet());
+                    if (bulkFails) {
+                        throw new IllegalStateException("billing-service unavailable");
+                    }
+                    exchange.getIn().setBody(bulkResponse);
+                });
+                from("direct:dlq").process(exchange -> {
+                    if (deadLetterFailuresLeft.getAndDecrement() > 0) {
+                        throw new IllegalStateException("broker unavailable");
+                    }
+                    deadLettered.add(exchange.copy());
+                });
+            }
+        });
+        camelContext.start();
+        idempotentRepository.start();
+        delivery = new BulkDelivery(camelContext.createProducerTemplate(), "direct:bulk", "direct:dlq",
+                idempotentRepository, offsets, new SimpleMeterRegistry(), "billing", 10, 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotentRepository.stop();
+        camelContext.stop();
+    }
+
+    private Exchange record(long offset, String key) {
+        return record(offset, key, "{\"n\":" + offset + "}");
+    }
+
+    private Exchange record(long offset, String key, String body) {
+        offsets.dispatched("billing", 0, offset);
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(body);
+        exchange.getIn().setHeader(KafkaConstants.TOPIC, "billing");
+        exchange.getIn().setHeader(KafkaConstants.PARTITION, 0);
+        exchange.getIn().setHeader(KafkaConstants.OFFSET, offset);
+        exchange.getIn().setHeader(KafkaConstants.KEY, key);
+        exchange.getIn().setHeader(KafkaConstants.MANUAL_COMMIT, (KafkaManualCommit) () -> committed.add(offset));
+        return exchange;
+    }
+
+    @Test
+    void rejectedItems_areDeadLetteredAndTheBatchIsCommittedOnce() {
+        bulkResponse = "{\"created\":2,\"failed\":1,\"results\":["
+                + "{\"index\":0,\"status\":\"CREATED\"},"
+                + "{\"index\":1,\"status\":\"FAILED\",\"error\":\"items: At least one item is required\"},"
+                + "{\"index\":2,\"status\":\"CREATED\"}]}";
+
+        delivery.accept(List.of(record(1, "a"), record(2, "b"), record(3, "c")));
+
+        assertEquals(List.of("{\"invoices\":[{\"idempotencyKey\":\"a\",\"invoice\":{\"n\":1}},"
+                + "{\"idempotencyKey\":\"b\",\"invoice\":{\"n\":2}},"
+                + "{\"idempotencyKey\":\"c\",\"invoice\":{\"n\":3}}]}"), bulkBodies);
+        assertEquals(1, deadLettered.size());
+        assertEquals(2L, deadLettered.get(0).getIn().getHeader(KafkaConstants.OFFSET));
+        assertEquals("items: At least one item is required", deadLettered.get(0).getIn().getHeader("X-DLQ-Error"));
+        assertEquals(List.of(3L), committed);
+        assertEquals(0, offsets.inFlight());
+        assertTrue(idempotentRepository.contains("a"));
+        assertTrue(idempotentRepository.contains("b"));
+        assertTrue(idempotentRepository.contains("c"));
+    }
+
+    @Test
+    void keysAreNotRecordedBeforeTheResponse_andKeylessRecordsUseTheirOffset() {
+        bulkResponse = "{\"results\":[{\"index\":0,\"status\":\"CREATED\"},{\"index\":1,\"status\":\"CREATED\"}]}";
+
+        delivery.accept(List.of(record(1, "a\"q"), record(2, null)));
+
+        assertTrue(keysKnownDuringCall.isEmpty());
+        assertEquals(List.of("{\"invoices\":[{\"idempotencyKey\":\"a\\\"q\",\"invoice\":{\"n\":1}},"
+                + "{\"idempotencyKey\":\"billing-0-2\",\"invoice\":{\"n\":2}}]}"), bulkBodies);
+        assertTrue(idempotentRepository.contains("a\"q"));
+        assertEquals(List.of(2L), committed);
+    }
+
+    @Test
+    void duplicateKeys_areSkippedAndStillCommitted() {
+        idempotentRepository.add("a");
+        idempotentRepository.confirm("a");
+        bulkResponse = "{\"results\":[{\"index\":0,\"status\":\"CREATED\"}]}";
+
+        delivery.accept(List.of(record(1, "a"), record(2, "b"), record(3, "b")));
+
+        assertEquals(List.of("{\"invoices\":[{\"idempotencyKey\":\"b\",\"invoice\":{\"n\":2}}]}"), bulkBodies);
+        assertTrue(deadLettered.isEmpty());
+        assertEquals(List.of(3L), committed);
+    }
+
+    @Test
+    void failedCall_deadLettersEveryRecord_retryingTheDeadLetterUntilItSucceeds() {
+        bulkFails = true;
+        delivery.accept(List.of(record(1, "a"), record(2, "b")));
+
+        assertEquals(2, deadLettered.size());
+        assertEquals("billing-service unavailable", deadLettered.get(0).getIn().getHeader("X-DLQ-Error"));
+        assertEquals(List.of(2L), committed);
+
+        deadLetterFailuresLeft.set(3);
+        delivery.accept(List.of(record(3, "c")));
+
+        assertEquals(3, deadLettered.size());
+        assertEquals(List.of(2L, 3L), committed);
+        assertEquals(0, offsets.inFlight());
+        assertTrue(idempotentRepository.contains("c"));
+    }
+
+    @Test
+    void recordsThatAreNotJsonObjects_areDeadLetteredAlone() {
+        bulkResponse = "{\"results\":[{\"index\":0,\"status\":\"CREATED\"},{\"index\":1,\"status\":\"CREATED\"}]}";
+
+        delivery.accept(List.of(record(1, "a"), record(2, "b", "{\"n\":"), record(3, "c", null),
+                record(4, "d", "\"text\""), record(5, "e")));
+
+        assertEquals(List.of("{\"invoices\":[{\"idempotencyKey\":\"a\",\"invoice\":{\"n\":1}},"
+                + "{\"idempotencyKey\":\"e\",\"invoice\":{\"n\":5}}]}"), bulkBodies);
+        assertEquals(List.of(2L, 3L, 4L),
+                deadLettered.stream().map(e -> e.getIn().getHeader(KafkaConstants.OFFSET, Long.class)).toList());
+        assertEquals("Record body is not a JSON object", deadLettered.get(0).getIn().getHeader("X-DLQ-Error"));
+        assertEquals(List.of(5L), committed);
+        assertEquals(0, offsets.inFlight());
+    }
+
+    @Test
+    void unexpectedFailure_deadLettersTheRecordsNotSettled() {
+        bulkResponse = "{\"results\":[{\"index\":0,\"status\":\"CREATED\"},{\"index\":1,\"status\":\"CREATED\"}]}";
+        repositoryFailuresLeft.set(1);
+
+        delivery.accept(List.of(record(1, "a"), record(2, "b")));
+
+        assertEquals(2, deadLettered.size());
+        assertEquals("repository unavailable", deadLettered.get(0).getIn().getHeader("X-DLQ-Error"));
+        assertEquals(List.of(2L), committed);
+        assertEquals(0, offsets.inFlight());
+    }
+}
@@ -0,0 +1,93 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlowControlledKafkaClientFactory.
+ * Verifies that saturated partitions are paused and resumed on poll, and that revoked
+ * partitions are dropped from the OffsetTracker after the route's own listener has run.
+ */
+class FlowControlledKafkaClientFactoryTest {
+
+    private static final TopicPartition P0 = new TopicPartition("billing", 0);
+    private static final TopicPartition P1 = new TopicPartition("billing", 1);
+
+    private final OffsetTracker offsets = new OffsetTracker(2);
+    private final RecordingConsumer mock = new RecordingConsumer();
+    private Consumer<?, ?> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = FlowControlledKafkaClientFactory.wrap(mock, offsets);
+    }
+
+    @Test
+    void saturatedPartitions_arePausedUntilTheirWorkersCatchUp() {
+        consumer.assign(List.of(P0, P1));
+        mock.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+        offsets.dispatched("billing", 0, 1);
+        offsets.dispatched("billing", 0, 2);
+
+        consumer.poll(Duration.ofSeconds(1));
+        assertEquals(Set.of(P0), mock.paused());
+
+        offsets.completed("billing", 0, 1, null);
+        consumer.poll(Duration.ofSeconds(1));
+        assertTrue(mock.paused().isEmpty());
+    }
+
+    @Test
+    void revokedPartitions_areForgottenAfterTheRouteListener() {
+        List<String> calls = new ArrayList<>();
+        consumer.subscribe(List.of("billing"), new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                calls.add("revoked, in flight " + offsets.inFlight());
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                calls.add("assigned");
+            }
+        });
+        offsets.dispatched("billing", 0, 1);
+        offsets.dispatched("billing", 1, 1);
+
+        mock.listener.onPartitionsRevoked(List.of(P0));
+
+        assertEquals(List.of("revoked, in flight 2"), calls);
+        assertEquals(1, offsets.inFlight());
+        assertNull(offsets.completed("billing", 0, 1, () -> { }));
+    }
+
+    /** MockConsumer does not run rebalance listeners; keeps the one the proxy subscribed with. */
+    private static final class RecordingConsumer extends MockConsumer<String, String> {
+
+        private ConsumerRebalanceListener listener;
+
+        private RecordingConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public synchronized void subscribe(Collection<String> topics, ConsumerRebalanceListener listener) {
+            this.listener = listener;
+            super.subscribe(topics, listener);
+        }
+    }
+}
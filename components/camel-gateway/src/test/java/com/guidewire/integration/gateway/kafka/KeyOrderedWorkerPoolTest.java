@@ -0,0 +1,100 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeyOrderedWorkerPool.
+ * Verifies per-key ordering, parallelism across keys and draining on stop.
+ */
+class KeyOrderedWorkerPoolTest {
+
+    private final KeyOrderedWorkerPool pool = new KeyOrderedWorkerPool("test-worker", 4, 5000);
+
+    @AfterEach
+    void tearDown() {
+        pool.stop();
+    }
+
+    @Test
+    void tasksOfOneKey_runInSubmissionOrder() throws Exception {
+        pool.start();
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(400);
+
+        for (int i = 0; i < 100; i++) {
+            for (String key : List.of("A", "B", "C", "D")) {
+                int sequence = i;
+                pool.submit(key, () -> {
+                    seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        List<Integer> expected = IntStream.range(0, 100).boxed().toList();
+        seen.values().forEach(sequence -> assertEquals(expected, sequence));
+    }
+
+    @Test
+    void differentKeys_runInParallel() throws Exception {
+        pool.start();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // keys 0 and 1 hash to different lanes; both must be running at once to count down
+        for (int key = 0; key < 2; key++) {
+            pool.submit(key, () -> {
+                threads.add(Thread.currentThread().getName());
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(2, threads.size());
+    }
+
+    @Test
+    void stop_drainsQueuedTasks() throws Exception {
+        pool.start();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            pool.submit("A", () -> {
+                sleep(5);
+                done.countDown();
+            });
+        }
+
+        pool.stop();
+
+        assertEquals(0, done.getCount());
+        assertEquals(0, pool.queued());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MicroBatcher.
+ * Verifies flushing by size and by time, per-key ordering and draining on stop.
+ */
+class MicroBatcherTest {
+
+    private final List<List<Integer>> flushed = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Integer> batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    @Test
+    void fullBatches_areFlushedWithoutWaiting() throws Exception {
+        batcher = new MicroBatcher<>("test-batcher", 1, 10, 60_000, 5000, flushed::add);
+        batcher.start();
+
+        for (int i = 0; i < 30; i++) {
+            batcher.add("A", i);
+        }
+
+        waitFor(() -> flushed.size() == 3);
+        flushed.forEach(batch -> assertEquals(10, batch.size()));
+    }
+
+    @Test
+    void partialBatch_isFlushedAfterMaxWait() throws Exception {
+        batcher = new MicroBatcher<>("test-batcher", 1, 500, 50, 5000, flushed::add);
+        batcher.start();
+
+        long start = System.nanoTime();
+        batcher.add("A", 1);
+        batcher.add("A", 2);
+
+        waitFor(() -> flushed.size() == 1);
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+        assertEquals(List.of(1, 2), flushed.get(0));
+    }
+
+    @Test
+    void itemsOfOneKey_keepTheirOrderAcrossBatches_andStopFlushesTheRest() throws Exception {
+        batcher = new MicroBatcher<>("test-batcher", 4, 7, 60_000, 5000, flushed::add);
+        batcher.start();
+
+        for (int i = 0; i < 100; i++) {
+            for (String key : List.of("A", "B", "C", "D")) {
+                batcher.add(key, key.charAt(0) * 1000 + i);
+            }
+        }
+        batcher.stop();
+
+        List<Integer> all = new ArrayList<>();
+        flushed.forEach(all::addAll);
+        assertEquals(400, all.size());
+        assertEquals(0, batcher.queued());
+        for (String key : List.of("A", "B", "C", "D")) {
+            int base = key.charAt(0) * 1000;
+            List<Integer> ofKey = all.stream().filter(v -> v / 1000 == base / 1000).toList();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(base + i, ofKey.get(i));
+            }
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
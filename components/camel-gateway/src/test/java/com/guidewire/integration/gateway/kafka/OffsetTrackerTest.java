@@ -0,0 +1,93 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffsetTracker.
+ * Verifies that commits only advance past contiguous completed records of each partition, the
+ * in-flight limit per partition and that revoked partitions are forgotten.
+ */
+class OffsetTrackerTest {
+
+    private final OffsetTracker tracker = new OffsetTracker();
+    private final List<Long> committed = new ArrayList<>();
+
+    private Runnable complete(String topic, int partition, long offset) {
+        return tracker.completed(topic, partition, offset, () -> committed.add(offset));
+    }
+
+    @Test
+    void completed_commitsTheLastContiguousRecord() {
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.dispatched("billing", 0, offset);
+        }
+
+        assertNull(complete("billing", 0, 12));
+        assertNull(complete("billing", 0, 11));
+        assertEquals(3, tracker.inFlight());
+
+        complete("billing", 0, 10).run();
+        assertEquals(List.of(12L), committed);
+
+        assertNull(complete("billing", 0, 14));
+        complete("billing", 0, 13).run();
+        assertEquals(List.of(12L, 14L), committed);
+        assertEquals(0, tracker.inFlight());
+    }
+
+    @Test
+    void partitions_areTrackedIndependently() {
+        tracker.dispatched("billing", 0, 1);
+        tracker.dispatched("billing", 1, 1);
+        tracker.dispatched("customers", 0, 1);
+
+        complete("billing", 1, 1).run();
+        complete("customers", 0, 1).run();
+
+        assertEquals(List.of(1L, 1L), committed);
+        assertEquals(1, tracker.inFlight());
+    }
+
+    @Test
+    void unknownOrRepeatedCompletions_commitNothing() {
+        assertNull(complete("billing", 0, 7));
+
+        tracker.dispatched("billing", 0, 7);
+        assertNotNull(complete("billing", 0, 7));
+        assertNull(complete("billing", 0, 7));
+    }
+
+    @Test
+    void saturated_whileThePartitionHoldsTheMaximumInFlight() {
+        OffsetTracker limited = new OffsetTracker(2);
+        limited.dispatched("billing", 0, 1);
+        assertFalse(limited.saturated("billing", 0));
+
+        limited.dispatched("billing", 0, 2);
+        assertTrue(limited.saturated("billing", 0));
+        assertFalse(limited.saturated("billing", 1));
+        assertEquals(1, limited.saturatedPartitions());
+
+        limited.completed("billing", 0, 2, null);
+        assertFalse(limited.saturated("billing", 0));
+        assertEquals(0, limited.saturatedPartitions());
+    }
+
+    @Test
+    void revoked_dropsThePartitionAndIgnoresLateCompletions() {
+        tracker.dispatched("billing", 0, 1);
+        tracker.dispatched("billing", 0, 2);
+        assertNull(complete("billing", 0, 2));
+
+        tracker.revoked("billing", 0);
+
+        assertEquals(0, tracker.inFlight());
+        assertNull(complete("billing", 0, 1));
+        assertTrue(committed.isEmpty());
+    }
+}
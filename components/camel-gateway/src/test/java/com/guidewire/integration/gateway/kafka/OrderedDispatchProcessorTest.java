@@ -0,0 +1,86 @@
+package com.guidewire.integration.gateway.kafka;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.component.kafka.consumer.KafkaManualCommit;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderedDispatchProcessor.
+ * Verifies that a record the delivery route could not dead-letter is delivered again until it
+ * succeeds, holding back the commits of its partition meanwhile.
+ */
+class OrderedDispatchProcessorTest {
+
+    private DefaultCamelContext camelContext;
+    private final KeyOrderedWorkerPool workers = new KeyOrderedWorkerPool("test-worker", 2, 5000);
+    private final OffsetTracker offsets = new OffsetTracker();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final List<Long> delivered = new CopyOnWriteArrayList<>();
+    private final List<Long> committed = new CopyOnWriteArrayList<>();
+    private OrderedDispatchProcessor processor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        camelContext = new DefaultCamelContext();
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:deliver").process(exchange -> {
+                    if (failuresLeft.getAndDecrement() > 0) {
+                        throw new IllegalStateException("broker unavailable");
+                    }
+                    delivered.add(exchange.getIn().getHeader(KafkaConstants.OFFSET, Long.class));
+                });
+            }
+        });
+        camelContext.start();
+        workers.start();
+        processor = new OrderedDispatchProcessor(camelContext.createProducerTemplate(), "direct:deliver",
+                workers, offsets, 10, 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.stop();
+        camelContext.stop();
+    }
+
+    private Exchange record(long offset) {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setHeader(KafkaConstants.TOPIC, "billing");
+        exchange.getIn().setHeader(KafkaConstants.PARTITION, 0);
+        exchange.getIn().setHeader(KafkaConstants.OFFSET, offset);
+        exchange.getIn().setHeader(KafkaConstants.KEY, "a");
+        exchange.getIn().setHeader(KafkaConstants.MANUAL_COMMIT, (KafkaManualCommit) () -> committed.add(offset));
+        return exchange;
+    }
+
+    @Test
+    void failedDelivery_isRetriedUntilItSucceeds() throws Exception {
+        failuresLeft.set(3);
+
+        processor.process(record(1));
+        processor.process(record(2));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (committed.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(1L, 2L), delivered);
+        assertEquals(List.of(1L, 2L), committed);
+        assertEquals(0, offsets.inFlight());
+    }
+}
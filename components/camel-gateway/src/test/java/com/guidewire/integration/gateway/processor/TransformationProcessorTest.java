@@ -145,6 +145,43 @@ class TransformationProcessorTest {
         assertTrue(body.contains("\"unknownField\":\"value\""));
     }
 
+    @Test
+    void soapXmlToJson_nestedNamespacedAndCdataContent_flattensToTrimmedText() {
+        Exchange exchange = new DefaultExchange(camelContext);
+        String xml = "<ns:ClaimRequest xmlns:ns=\"http://guidewire.com/cc\">"
+                + "<ns:claimId> CLM-7 </ns:claimId>"
+                + "<address><city>Monterrey</city><!-- ignored --><zip>64000</zip></address>"
+                + "<note><![CDATA[amount < 500 & \"urgent\"]]></note>"
+                + "</ns:ClaimRequest>";
+        exchange.getIn().setBody(xml);
+
+        processor.soapXmlToJson(exchange);
+
+        assertEquals("{\"claimId\":\"CLM-7\",\"address\":\"Monterrey64000\","
+                        + "\"note\":\"amount < 500 & \\\"urgent\\\"\"}",
+                exchange.getIn().getBody(String.class));
+        assertEquals("CLM-7", exchange.getIn().getHeader("claimId"));
+    }
+
+    @Test
+    void soapXmlToJson_externalEntity_isRejected() {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody("<!DOCTYPE Root [<!ENTITY xxe SYSTEM \"file:///etc/hostname\">]>"
+                + "<Root><policyNumber>&xxe;</policyNumber></Root>");
+
+        assertThrows(RuntimeException.class, () -> processor.soapXmlToJson(exchange));
+        assertNull(exchange.getIn().getHeader("policyNumber"));
+    }
+
+    @Test
+    void soapXmlToJson_malformedAfterKnownField_setsNoHeaders() {
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody("<Root><policyNumber>P1</policyNumber><broken></Root>");
+
+        assertThrows(RuntimeException.class, () -> processor.soapXmlToJson(exchange));
+        assertNull(exchange.getIn().getHeader("policyNumber"));
+    }
+
     @Test
     void soapXmlToJson_invalidXml_throwsRuntimeException() {
         Exchange exchange = new DefaultExchange(camelContext);
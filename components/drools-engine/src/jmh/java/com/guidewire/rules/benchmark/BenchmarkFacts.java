@@ -0,0 +1,80 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Representative facts for the benchmarks. Facts are mutated by the rules, so every
+ * invocation builds a fresh one; the builder cost is the same for every variant.
+ */
+final class BenchmarkFacts {
+
+    private BenchmarkFacts() {
+    }
+
+    /**
+     * @param amountBand LOW (no amount rule), MEDIUM, HIGH or CRITICAL (matches the DRL thresholds)
+     */
+    static ClaimFact claim(String amountBand) {
+        return ClaimFact.builder()
+                .claimId("CLM-BENCH")
+                .customerId("CUST-BENCH")
+                .claimedAmount(claimedAmount(amountBand))
+                .incidentDate(LocalDate.now())
+                .customerRegistrationDate(LocalDate.now().minusYears(2))
+                .claimCount(2)
+                .claimType("COLLISION")
+                .hasPoliceReport(true)
+                .hasWitnesses(false)
+                .build();
+    }
+
+    static PolicyFact policy(String productType, boolean complete) {
+        return PolicyFact.builder()
+                .policyId(complete ? "POL-BENCH" : null)
+                .customerId("CUST-BENCH")
+                .productType(productType)
+                .premiumAmount(new BigDecimal("12000"))
+                .coverageLimit(new BigDecimal("250000"))
+                .customerStatus("ACTIVE")
+                .customerAge(42)
+                .customerName("Benchmark Customer")
+                .customerEmail("bench@example.com")
+                .build();
+    }
+
+    static CommissionFact commission(String productType) {
+        return CommissionFact.builder()
+                .productType(productType)
+                .premiumAmount(new BigDecimal("60000"))
+                .salesChannel("BROKER")
+                .agentTier("SENIOR")
+                .yearsOfExperience(7)
+                .build();
+    }
+
+    static IncidentRoutingFact routing(String customerTier, String priority) {
+        return IncidentRoutingFact.builder()
+                .priority(priority)
+                .severity("MAJOR")
+                .claimedAmount(new BigDecimal("150000"))
+                .productType("AUTO")
+                .customerTier(customerTier)
+                .build();
+    }
+
+    private static BigDecimal claimedAmount(String amountBand) {
+        return switch (amountBand) {
+            case "LOW" -> new BigDecimal("15000");
+            case "MEDIUM" -> new BigDecimal("350000");
+            case "HIGH" -> new BigDecimal("750000");
+            case "CRITICAL" -> new BigDecimal("1500000");
+            default -> throw new IllegalArgumentException("Unknown amount band: " + amountBand);
+        };
+    }
+}
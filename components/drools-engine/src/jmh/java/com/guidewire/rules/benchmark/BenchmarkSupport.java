@@ -0,0 +1,79 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.service.PerRequestSessionStrategy;
+import com.guidewire.rules.service.PooledSessionStrategy;
+import com.guidewire.rules.service.RuleDomain;
+import com.guidewire.rules.service.RuleKieModule;
+import com.guidewire.rules.service.RuleMetrics;
+import com.guidewire.rules.service.RulesService;
+import com.guidewire.rules.service.SessionStrategies;
+import com.guidewire.rules.service.SessionStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Builds the KieBases once per benchmark JVM the same way the application does
+ * (precompiled executable model when present, DRL otherwise) and wires a
+ * RulesService for the requested session strategy, with one strategy per rule
+ * domain as in the application.
+ */
+final class BenchmarkSupport {
+
+    private static final Map<RuleDomain, KieBase> KIE_BASES = buildKieBases();
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * @param strategy {@code per-request} or {@code pooled}, as in drools.session.strategy
+     */
+    static RulesService rulesService(String strategy) {
+        return rulesService(strategy, kieSession -> { });
+    }
+
+    /**
+     * @param sessionInitializer applied to every session, e.g. {@link RuleMetrics#instrument}
+     */
+    static RulesService rulesService(String strategy, Consumer<KieSession> sessionInitializer) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new RulesService(new SessionStrategies(domain -> {
+            KieBase kieBase = kieBase(domain);
+            return switch (strategy) {
+                case "per-request" -> new PerRequestSessionStrategy(() -> kieBase, sessionInitializer);
+                case "pooled" -> new PooledSessionStrategy(() -> kieBase, sessionInitializer, 64,
+                        Duration.ofSeconds(5), meterRegistry, domain.kieBaseName());
+                default -> throw new IllegalArgumentException("Unknown session strategy: " + strategy);
+            };
+        }));
+    }
+
+    /**
+     * RulesService that evaluates every rule set on the KieBase with all packages, as before
+     * the KieBase was split per domain.
+     */
+    static RulesService sharedKieBaseRulesService() {
+        SessionStrategy sessionStrategy = new PerRequestSessionStrategy(kieBase(RuleDomain.ALL));
+        return new RulesService(sessionStrategy);
+    }
+
+    static KieBase kieBase(RuleDomain domain) {
+        return KIE_BASES.get(domain);
+    }
+
+    private static Map<RuleDomain, KieBase> buildKieBases() {
+        try {
+            return RuleKieModule.kieBases(new DroolsConfig().kieContainer(KieServices.Factory.get()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
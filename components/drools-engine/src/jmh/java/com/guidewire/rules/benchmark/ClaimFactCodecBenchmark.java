@@ -0,0 +1,82 @@
+package com.guidewire.rules.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidewire.rules.controller.ClaimFactAvroMessageConverter;
+import com.guidewire.rules.model.ClaimFact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a /fraud-check body as JSON (Jackson configured like Spring Boot)
+ * versus the application/avro codec. {@code encode} writes an evaluated claim with three
+ * flagged reasons, as a response; {@code decode} reads an incoming request. The payload
+ * size of each format is printed at setup. Run with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimFactCodecBenchmark {
+
+    @Param({"json", "avro"})
+    public String format;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ClaimFactAvroMessageConverter avro = new ClaimFactAvroMessageConverter();
+
+    private ClaimFact response;
+    private byte[] request;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = BenchmarkFacts.claim("HIGH");
+        response.setRiskLevel("HIGH");
+        response.setFraudScore(70);
+        response.setFlaggedReasons(List.of(
+                "Claimed amount exceeds 500,000 MXN - HIGH risk threshold",
+                "Customer registered less than 30 days before the incident",
+                "No police report and no witnesses for a theft claim"));
+        request = encode(BenchmarkFacts.claim("HIGH"));
+        System.out.printf("%n%s: request %d bytes, response %d bytes%n", format, request.length, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return encode(response);
+    }
+
+    @Benchmark
+    public ClaimFact decode() throws IOException {
+        if ("avro".equals(format)) {
+            return avro.read(new ByteArrayInputStream(request));
+        }
+        return objectMapper.readValue(request, ClaimFact.class);
+    }
+
+    private byte[] encode(ClaimFact claim) throws IOException {
+        if ("avro".equals(format)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            avro.write(claim, out);
+            return out.toByteArray();
+        }
+        return objectMapper.writeValueAsBytes(claim);
+    }
+}
@@ -0,0 +1,58 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.model.ClaimIntake;
+import com.guidewire.rules.service.RulesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time to evaluate the fraud, routing and policy facts of one claim: three
+ * separate evaluations (one session each) versus one claim-intake evaluation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimIntakeBenchmark {
+
+    @Param({"per-request", "pooled"})
+    public String strategy;
+
+    private RulesService rulesService;
+
+    @Setup
+    public void setUp() {
+        rulesService = BenchmarkSupport.rulesService(strategy);
+    }
+
+    @Benchmark
+    public ClaimIntake separateEvaluations() {
+        return ClaimIntake.builder()
+                .claim(rulesService.evaluateFraudRules(BenchmarkFacts.claim("HIGH")))
+                .routing(rulesService.evaluateRoutingRules(BenchmarkFacts.routing("STANDARD", "HIGH")))
+                .policy(rulesService.evaluatePolicyValidation(BenchmarkFacts.policy("AUTO", true)))
+                .build();
+    }
+
+    @Benchmark
+    public ClaimIntake claimIntake() {
+        return rulesService.evaluateClaimIntake(ClaimIntake.builder()
+                .claim(BenchmarkFacts.claim("HIGH"))
+                .routing(BenchmarkFacts.routing("STANDARD", "HIGH"))
+                .policy(BenchmarkFacts.policy("AUTO", true))
+                .build());
+    }
+}
@@ -0,0 +1,66 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.service.RuleMetrics;
+import com.guidewire.rules.service.RulesService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads sharing one RulesService, as concurrent HTTP requests do. Each thread
+ * cycles through all four rule sets so the mix matches mixed production traffic.
+ * Override the thread count with {@code -t}. {@code ruleMetrics} shows the cost of the
+ * per-rule listeners at the default sample rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ContendedRulesBenchmark {
+
+    @Param({"per-request", "pooled"})
+    public String strategy;
+
+    @Param({"off", "sampled"})
+    public String ruleMetrics;
+
+    private RulesService rulesService;
+
+    @Setup
+    public void setUp() {
+        rulesService = "off".equals(ruleMetrics)
+                ? BenchmarkSupport.rulesService(strategy)
+                : BenchmarkSupport.rulesService(strategy,
+                        new RuleMetrics(new SimpleMeterRegistry(), true, 0.1)::instrument);
+    }
+
+    @State(Scope.Thread)
+    public static class Rotation {
+        int next;
+    }
+
+    @Benchmark
+    public Object mixedRuleSets(Rotation rotation) {
+        return switch (rotation.next++ & 3) {
+            case 0 -> rulesService.evaluateFraudRules(BenchmarkFacts.claim("HIGH"));
+            case 1 -> rulesService.evaluatePolicyValidation(BenchmarkFacts.policy("LIFE", true));
+            case 2 -> rulesService.evaluateCommissionRules(BenchmarkFacts.commission("COMMERCIAL"));
+            default -> rulesService.evaluateRoutingRules(BenchmarkFacts.routing("VIP", "CRITICAL"));
+        };
+    }
+}
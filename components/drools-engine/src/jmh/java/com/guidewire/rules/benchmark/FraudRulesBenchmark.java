@@ -0,0 +1,47 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.service.RulesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of {@code fraud-detection.drl} through RulesService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudRulesBenchmark {
+
+    @Param({"per-request", "pooled"})
+    public String strategy;
+
+    @Param({"LOW", "MEDIUM", "HIGH", "CRITICAL"})
+    public String amountBand;
+
+    private RulesService rulesService;
+
+    @Setup
+    public void setUp() {
+        rulesService = BenchmarkSupport.rulesService(strategy);
+    }
+
+    @Benchmark
+    public ClaimFact fraudCheck() {
+        return rulesService.evaluateFraudRules(BenchmarkFacts.claim(amountBand));
+    }
+}
@@ -0,0 +1,72 @@
+package com.guidewire.rules.benchmark;
+
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.service.PerRequestSessionStrategy;
+import com.guidewire.rules.service.RuleDomain;
+import com.guidewire.rules.service.RulesService;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a session on the KieBase with every rule set ({@code rules}) versus the
+ * commission or routing domain KieBase alone. {@code newSession} creates and disposes
+ * an empty session; the other benchmarks evaluate one fact on a per-request session.
+ * Run with {@code -prof gc}: gc.alloc.rate.norm is the memory allocated per session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KieBaseSplitBenchmark {
+
+    @Param({"rules", "domain"})
+    public String kieBase;
+
+    private KieBase commissionKieBase;
+    private RulesService commissionRulesService;
+    private RulesService routingRulesService;
+
+    @Setup
+    public void setUp() {
+        boolean shared = "rules".equals(kieBase);
+        commissionKieBase = BenchmarkSupport.kieBase(shared ? RuleDomain.ALL : RuleDomain.COMMISSION);
+        commissionRulesService = new RulesService(new PerRequestSessionStrategy(commissionKieBase));
+        routingRulesService = shared
+                ? BenchmarkSupport.sharedKieBaseRulesService()
+                : BenchmarkSupport.rulesService("per-request");
+    }
+
+    @Benchmark
+    public long newSession() {
+        KieSession kieSession = commissionKieBase.newKieSession();
+        long id = kieSession.getIdentifier();
+        kieSession.dispose();
+        return id;
+    }
+
+    @Benchmark
+    public CommissionFact commission() {
+        return commissionRulesService.evaluateCommissionRules(BenchmarkFacts.commission("AUTO"));
+    }
+
+    @Benchmark
+    public IncidentRoutingFact routing() {
+        return routingRulesService.evaluateRoutingRules(BenchmarkFacts.routing("STANDARD", "HIGH"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.guidewire.rules.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer (Vyukov's bounded queue).
+ * Producers claim a slot with one CAS and never wait: {@link #offer} returns false
+ * when the buffer is full. Each slot carries a sequence number that tells producers
+ * and the consumer whether it is free or published, so no lock is taken on either side.
+ *
+ * Only one thread may call {@link #drainTo}.
+ */
+final class AuditRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private volatile long consumerPosition;
+
+    /**
+     * @param requestedCapacity rounded up to the next power of two
+     */
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T item) {
+        long position = producerPosition.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long gap = sequences.get(slot) - position;
+            if (gap == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    items.lazySet(slot, item);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (gap < 0) {
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published items to {@code target}, oldest first.
+     *
+     * @return number of items moved
+     */
+    int drainTo(List<T> target, int max) {
+        long position = consumerPosition;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) (position & mask);
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            target.add(items.get(slot));
+            items.lazySet(slot, null);
+            sequences.set(slot, position + mask + 1);
+            position++;
+            drained++;
+        }
+        consumerPosition = position;
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate number of items waiting, for metrics.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(capacity(), producerPosition.get() - consumerPosition));
+    }
+}
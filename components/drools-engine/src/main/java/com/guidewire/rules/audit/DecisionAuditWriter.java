@@ -0,0 +1,210 @@
+package com.guidewire.rules.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guidewire.rules.service.DecisionAuditor;
+import com.guidewire.rules.service.RuleBaseRegistry;
+import com.guidewire.rules.service.RuleDomain;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of every rule evaluation, written to the rule_decision_audit table of the
+ * drools_audit database without touching the request path. Decisions served from
+ * {@link com.guidewire.rules.service.DecisionCache} are written too, flagged as cached.
+ *
+ * {@link #record} only stamps the decision and offers it to a lock-free
+ * {@link AuditRingBuffer}; when the buffer is full the decision is dropped and counted,
+ * so a slow or unavailable database never blocks an evaluation. A single background
+ * thread drains the buffer, serializes the facts to JSON and writes them with JDBC
+ * batch inserts of up to {@code drools.audit.batch-size} rows. Under light load it
+ * flushes at least every {@code drools.audit.flush-interval-ms}. A batch that fails to
+ * insert is logged and counted, not retried.
+ *
+ * Publishes drools_audit_records{outcome=written|dropped|failed},
+ * drools_audit_buffer_size and drools_audit_flush_duration. Enabled with
+ * drools.audit.enabled=true.
+ */
+@Service
+public class DecisionAuditWriter implements DecisionAuditor {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionAuditWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO rule_decision_audit "
+            + "(evaluated_at, rule_set, rule_set_version, fact_type, fact, fired_rules, duration_micros, cached) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RuleBaseRegistry ruleBaseRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditRingBuffer<AuditedDecision> buffer;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public DecisionAuditWriter(JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               RuleBaseRegistry ruleBaseRegistry,
+                               MeterRegistry meterRegistry,
+                               @Value("${drools.audit.enabled:false}") boolean enabled,
+                               @Value("${drools.audit.buffer-size:8192}") int bufferSize,
+                               @Value("${drools.audit.batch-size:500}") int batchSize,
+                               @Value("${drools.audit.flush-interval-ms:200}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ruleBaseRegistry = ruleBaseRegistry;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.buffer = new AuditRingBuffer<>(enabled ? bufferSize : 2);
+
+        this.written = recordCounter(meterRegistry, "written");
+        this.dropped = recordCounter(meterRegistry, "dropped");
+        this.failed = recordCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder("drools_audit_flush_duration")
+                .description("Time spent writing one batch of audit records")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        Gauge.builder("drools_audit_buffer_size", buffer, AuditRingBuffer::size)
+                .description("Audit records waiting to be written")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drain, "rules-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Decision audit enabled: buffer={}, batchSize={}, flushInterval={}ms",
+                buffer.capacity(), batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+
+    /**
+     * Stops the writer after it has flushed what is already buffered.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void record(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+        offer(domain, fact, firedRules, durationNanos, false);
+    }
+
+    @Override
+    public void recordCached(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+        offer(domain, fact, firedRules, durationNanos, true);
+    }
+
+    private void offer(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos, boolean cached) {
+        if (!enabled) {
+            return;
+        }
+        AuditedDecision decision = new AuditedDecision(Instant.now(), domain, ruleBaseRegistry.getActive().version(),
+                fact, firedRules, durationNanos, cached);
+        if (!buffer.offer(decision)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<AuditedDecision> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained > 0) {
+                write(batch);
+                batch.clear();
+            }
+            if (drained < batchSize) {
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        log.info("Decision audit writer stopped");
+    }
+
+    void write(List<AuditedDecision> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (AuditedDecision decision : batch) {
+                rows.add(toRow(decision));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            written.increment(batch.size());
+        } catch (RuntimeException | JsonProcessingException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit records: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Object[] toRow(AuditedDecision decision) throws JsonProcessingException {
+        return new Object[]{
+                Timestamp.from(decision.evaluatedAt()),
+                decision.domain().kieBaseName(),
+                decision.ruleSetVersion(),
+                decision.fact().getClass().getSimpleName(),
+                objectMapper.writeValueAsString(decision.fact()),
+                objectMapper.writeValueAsString(decision.firedRules()),
+                TimeUnit.NANOSECONDS.toMicros(decision.durationNanos()),
+                decision.cached()
+        };
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("drools_audit_records")
+                .description("Rule decisions handed to the audit trail, by outcome")
+                .tag("component", "drools-engine")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    record AuditedDecision(Instant evaluatedAt, RuleDomain domain, long ruleSetVersion, Object fact,
+                           List<String> firedRules, long durationNanos, boolean cached) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.guidewire.rules.config;
+
+import com.guidewire.rules.controller.RulesAdmissionFilter;
+import com.guidewire.rules.service.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive admission control in front of {@code /api/v1/rules}, so a burst from
+ * ClaimCenter is shed with fast 503/429 responses instead of piling up hundreds of
+ * concurrent KieSessions. Enabled with {@code drools.admission.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "drools.admission.enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionConfig.class);
+
+    @Bean
+    public AdaptiveConcurrencyLimiter rulesConcurrencyLimiter(MeterRegistry meterRegistry,
+                                                              @Value("${drools.admission.initial-limit:20}") int initialLimit,
+                                                              @Value("${drools.admission.min-limit:4}") int minLimit,
+                                                              @Value("${drools.admission.max-limit:200}") int maxLimit,
+                                                              @Value("${drools.admission.batch-share:0.5}") double batchShare,
+                                                              @Value("${drools.admission.rtt-tolerance:2.0}") double tolerance,
+                                                              @Value("${drools.admission.smoothing:0.2}") double smoothing) {
+        log.info("Admission control enabled for /api/v1/rules: limit={} (min={}, max={}), batchShare={}",
+                initialLimit, minLimit, maxLimit, batchShare);
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, batchShare, tolerance, smoothing,
+                meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RulesAdmissionFilter> rulesAdmissionFilter(
+            AdaptiveConcurrencyLimiter rulesConcurrencyLimiter,
+            @Value("${drools.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        FilterRegistrationBean<RulesAdmissionFilter> registration =
+                new FilterRegistrationBean<>(new RulesAdmissionFilter(rulesConcurrencyLimiter, retryAfterSeconds));
+        registration.addUrlPatterns("/api/v1/rules/*");
+        return registration;
+    }
+}
@@ -0,0 +1,50 @@
+package com.guidewire.rules.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pool for batch rule evaluation. Rule evaluation is CPU bound,
+ * so the pool defaults to one thread per core. When the queue is full the
+ * submitting request thread runs the chunk itself, which throttles callers
+ * instead of rejecting work.
+ *
+ * What-if simulations get a pool of their own, so a long file replay never queues
+ * ahead of /batch requests. It has one thread more than its parallelism for the
+ * coordinator task of the one simulation allowed to run, which reads the file while
+ * the other threads evaluate chunks. SimulationService bounds the chunks it has in
+ * flight, so its queue stays short.
+ */
+@Configuration
+public class BatchConfig {
+
+    @Bean(name = "rulesBatchExecutor")
+    public ThreadPoolTaskExecutor rulesBatchExecutor(@Value("${drools.batch.parallelism:0}") int parallelism,
+                                                     @Value("${drools.batch.queue-capacity:1000}") int queueCapacity) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rules-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "rulesSimulationExecutor")
+    public ThreadPoolTaskExecutor rulesSimulationExecutor(@Value("${drools.simulation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads + 1);
+        executor.setMaxPoolSize(threads + 1);
+        executor.setThreadNamePrefix("rules-simulation-worker-");
+        executor.initialize();
+        return executor;
+    }
+}
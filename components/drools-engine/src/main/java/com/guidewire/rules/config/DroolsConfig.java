@@ -1,5 +1,12 @@
 package com.guidewire.rules.config;
 
+import com.guidewire.rules.service.PerRequestSessionStrategy;
+import com.guidewire.rules.service.PooledSessionStrategy;
+import com.guidewire.rules.service.RuleBaseRegistry;
+import com.guidewire.rules.service.RuleKieModule;
+import com.guidewire.rules.service.RuleMetrics;
+import com.guidewire.rules.service.SessionStrategies;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
@@ -10,20 +17,30 @@ import org.kie.api.runtime.KieContainer;
 import org.kie.internal.io.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@ImportRuntimeHints(DroolsRuntimeHints.class)
 public class DroolsConfig {
 
     private static final Logger log = LoggerFactory.getLogger(DroolsConfig.class);
 
     private static final String RULES_PATH = "rules/";
 
+    static final String EXECUTABLE_MODEL_RESOURCE = "META-INF/rules/executable-model.jar";
+
     @Bean
     public KieServices kieServices() {
         return KieServices.Factory.get();
@@ -31,20 +48,66 @@ public class DroolsConfig {
 
     @Bean
     public KieContainer kieContainer(KieServices kieServices) throws IOException {
+        long start = System.nanoTime();
+        ClassLoader classLoader = DroolsConfig.class.getClassLoader();
+
+        KieContainer kieContainer;
+        if (classLoader.getResource(EXECUTABLE_MODEL_RESOURCE) != null) {
+            kieContainer = loadExecutableModel(kieServices);
+        } else if (NativeDetector.inNativeImage()) {
+            throw new IllegalStateException("No precompiled executable model found at classpath:"
+                    + EXECUTABLE_MODEL_RESOURCE + "; a native image cannot compile DRL at runtime");
+        } else {
+            log.warn("No precompiled executable model found at classpath:{}, compiling DRL at startup",
+                    EXECUTABLE_MODEL_RESOURCE);
+            kieContainer = compileDrl(kieServices);
+        }
+
+        log.info("KieContainer ready in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return kieContainer;
+    }
+
+    /**
+     * Loads the kjar produced at build time by {@link ExecutableModelGenerator}. The rules are
+     * already compiled to Java classes, so no DRL parsing or MVEL compilation happens here.
+     */
+    private KieContainer loadExecutableModel(KieServices kieServices) throws IOException {
+        log.info("Loading precompiled executable model from classpath:{}", EXECUTABLE_MODEL_RESOURCE);
+        // Read the bytes ourselves: Drools cannot open a jar nested inside the Spring Boot fat jar by URL
+        byte[] kjar = new ClassPathResource(EXECUTABLE_MODEL_RESOURCE).getContentAsByteArray();
+        KieModule kieModule = kieServices.getRepository().addKieModule(ResourceFactory.newByteArrayResource(kjar));
+        return kieServices.newKieContainer(kieModule.getReleaseId());
+    }
+
+    private KieContainer compileDrl(KieServices kieServices) throws IOException {
+        KieBuilder kieBuilder = kieServices.newKieBuilder(ruleFileSystem(kieServices));
+        kieBuilder.buildAll();
+        checkBuildResults(kieBuilder);
+
+        KieModule kieModule = kieBuilder.getKieModule();
+        KieRepository kieRepository = kieServices.getRepository();
+        kieRepository.addKieModule(kieModule);
+
+        return kieServices.newKieContainer(kieRepository.getDefaultReleaseId());
+    }
+
+    static KieFileSystem ruleFileSystem(KieServices kieServices) throws IOException {
         KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
 
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
         Resource[] ruleFiles = resolver.getResources("classpath:" + RULES_PATH + "**/*.drl");
 
         for (Resource ruleFile : ruleFiles) {
-            String path = RULES_PATH + ruleFile.getFilename();
-            log.info("Loading DRL rule file: {}", path);
-            kieFileSystem.write(ResourceFactory.newClassPathResource(path, "UTF-8"));
+            String drl = ruleFile.getContentAsString(StandardCharsets.UTF_8);
+            String path = RuleKieModule.resourcePath(ruleFile.getFilename(), drl);
+            log.info("Loading DRL rule file: {}{} as {}", RULES_PATH, ruleFile.getFilename(), path);
+            kieFileSystem.write(path, drl);
         }
+        kieFileSystem.writeKModuleXML(RuleKieModule.model(kieServices).toXML());
+        return kieFileSystem;
+    }
 
-        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
-        kieBuilder.buildAll();
-
+    static void checkBuildResults(KieBuilder kieBuilder) {
         if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
             throw new IllegalStateException(
                     "Error building Drools rules: " + kieBuilder.getResults().getMessages(Message.Level.ERROR));
@@ -53,14 +116,35 @@ public class DroolsConfig {
         if (kieBuilder.getResults().hasMessages(Message.Level.WARNING)) {
             log.warn("Drools build warnings: {}", kieBuilder.getResults().getMessages(Message.Level.WARNING));
         }
-
-        KieModule kieModule = kieBuilder.getKieModule();
-        KieRepository kieRepository = kieServices.getRepository();
-        kieRepository.addKieModule(kieModule);
-
-        return kieServices.newKieContainer(kieRepository.getDefaultReleaseId());
     }
 
-    // Note: KieSession is NOT a singleton bean. Each rule evaluation creates
-    // a new session from kieContainer in RulesService to ensure thread safety.
+    // Note: KieSession is NOT a singleton bean. RulesService obtains a session
+    // per evaluation from the SessionStrategy of the rule domain, which either
+    // creates a new one or lends an exclusively owned session from that domain's
+    // pool to ensure thread safety. Sessions are always built from the domain
+    // KieBase currently active in the RuleBaseRegistry, so hot rule deployments
+    // take effect without a restart.
+    @Bean
+    public SessionStrategies sessionStrategies(RuleBaseRegistry ruleBaseRegistry, RuleMetrics ruleMetrics,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${drools.session.strategy:pooled}") String strategy,
+                                               @Value("${drools.session.pool.max-size:64}") int poolMaxSize,
+                                               @Value("${drools.session.pool.borrow-timeout-ms:5000}") long borrowTimeoutMs) {
+        return switch (strategy) {
+            case "pooled" -> {
+                log.info("Using pooled KieSession strategy per rule domain (maxSize={}, borrowTimeout={}ms)",
+                        poolMaxSize, borrowTimeoutMs);
+                yield new SessionStrategies(domain -> new PooledSessionStrategy(
+                        () -> ruleBaseRegistry.getActiveKieBase(domain), ruleMetrics::instrument,
+                        poolMaxSize, Duration.ofMillis(borrowTimeoutMs), meterRegistry, domain.kieBaseName()));
+            }
+            case "per-request" -> {
+                log.info("Using per-request KieSession strategy");
+                yield new SessionStrategies(domain -> new PerRequestSessionStrategy(
+                        () -> ruleBaseRegistry.getActiveKieBase(domain), ruleMetrics::instrument));
+            }
+            default -> throw new IllegalStateException(
+                    "Unknown drools.session.strategy '" + strategy + "', expected 'pooled' or 'per-request'");
+        };
+    }
 }
@@ -0,0 +1,102 @@
+package com.guidewire.rules.config;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * GraalVM native image hints for Drools, registered for Spring AOT by {@link DroolsConfig}
+ * ({@code mvn -Pnative native:compile}). Spring AOT covers the Spring side; Drools looks up
+ * classes and resources by name, which the image only contains when listed here:
+ * <ul>
+ *   <li>the executable model kjar, its rule classes (instantiated by name from the kjar's
+ *       drools-model listing) and the project model class;</li>
+ *   <li>the classes named in the kie.default*.properties.conf files of the Drools jars
+ *       (consequence exception handler, accumulate functions, evaluators, ...);</li>
+ *   <li>the facts, whose properties Drools reads by reflection for property reactivity;</li>
+ *   <li>the Avro schemas of the HTTP codec and the Kafka consumer.</li>
+ * </ul>
+ * The rule classes are only loadable in the image when the build unpacks them next to the
+ * application classes (see {@link ExecutableModelGenerator}).
+ */
+public class DroolsRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> KIE_CONFIGURATION_FILES = List.of(
+            "META-INF/kie.default.properties.conf", "META-INF/kie.default.mvel.properties.conf");
+
+    private static final List<Class<?>> FACT_TYPES = List.of(
+            ClaimFact.class, PolicyFact.class, CommissionFact.class, IncidentRoutingFact.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern(DroolsConfig.EXECUTABLE_MODEL_RESOURCE);
+        hints.resources().registerPattern("avro/*.avsc");
+        KIE_CONFIGURATION_FILES.forEach(hints.resources()::registerPattern);
+
+        registerConfiguredClasses(hints, classLoader);
+        registerExecutableModelClasses(hints, classLoader);
+        for (Class<?> factType : FACT_TYPES) {
+            hints.reflection().registerType(factType, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+
+    private static void registerConfiguredClasses(RuntimeHints hints, ClassLoader classLoader) {
+        try {
+            for (String configurationFile : KIE_CONFIGURATION_FILES) {
+                Enumeration<URL> urls = classLoader.getResources(configurationFile);
+                while (urls.hasMoreElements()) {
+                    Properties properties = new Properties();
+                    try (InputStream is = urls.nextElement().openStream()) {
+                        properties.load(is);
+                    }
+                    properties.stringPropertyNames().stream()
+                            .map(name -> properties.getProperty(name).trim())
+                            .filter(value -> ClassUtils.isPresent(value, classLoader))
+                            .forEach(className -> hints.reflection().registerType(TypeReference.of(className),
+                                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Every class of the kjar: Drools loads the project model and the rule models by name, and
+    // they reference the generated lambdas and domain metadata
+    private static void registerExecutableModelClasses(RuntimeHints hints, ClassLoader classLoader) {
+        InputStream kjar = classLoader.getResourceAsStream(DroolsConfig.EXECUTABLE_MODEL_RESOURCE);
+        if (kjar == null) {
+            return;
+        }
+        try (ZipInputStream zip = new ZipInputStream(kjar)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = entry.getName();
+                if (name.endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+                    String className = ClassUtils.convertResourcePathToClassName(
+                            name.substring(0, name.length() - ClassUtils.CLASS_FILE_SUFFIX.length()));
+                    hints.reflection().registerType(TypeReference.of(className),
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
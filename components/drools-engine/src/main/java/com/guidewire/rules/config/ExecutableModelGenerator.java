@@ -0,0 +1,82 @@
+package com.guidewire.rules.config;
+
+import org.drools.compiler.builder.impl.KnowledgeBuilderImpl;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.ReleaseId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build-time step (run by exec-maven-plugin in {@code process-classes}) that compiles the DRL
+ * files on the classpath to the Drools executable model and writes the resulting kjar to
+ * {@link DroolsConfig#EXECUTABLE_MODEL_RESOURCE} under the given output directory.
+ * {@link DroolsConfig} loads that kjar at startup instead of compiling DRL. The kjar has the
+ * per-domain KieBases of {@link com.guidewire.rules.service.RuleKieModule}.
+ *
+ * With {@code unpackClasses} (the native and nativeTest profiles) the generated classes are
+ * also written to the output directory: a native image cannot define the classes of the
+ * kjar at runtime, so they have to be compiled into the image with the application.
+ *
+ * The Drools compiler pool is shut down before returning: exec:java otherwise waits 15 s for
+ * its idle worker thread to die at the end of every build.
+ */
+public final class ExecutableModelGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutableModelGenerator.class);
+
+    private ExecutableModelGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            throw new IllegalArgumentException(
+                    "Usage: ExecutableModelGenerator <outputDirectory> <version> [unpackClasses]");
+        }
+        try {
+            generate(Path.of(args[0]), args[1], args.length == 3 && Boolean.parseBoolean(args[2]));
+        } finally {
+            KnowledgeBuilderImpl.ForkJoinPoolHolder.COMPILER_POOL.shutdown();
+            KnowledgeBuilderImpl.ForkJoinPoolHolder.COMPILER_POOL.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void generate(Path outputDirectory, String version, boolean unpackClasses) throws Exception {
+        Path target = outputDirectory.resolve(DroolsConfig.EXECUTABLE_MODEL_RESOURCE);
+
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId("com.guidewire.rules", "drools-engine-rules", version);
+
+        KieFileSystem kieFileSystem = DroolsConfig.ruleFileSystem(kieServices);
+        kieFileSystem.generateAndWritePomXML(releaseId);
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
+        kieBuilder.buildAll(ExecutableModelProject.class);
+        DroolsConfig.checkBuildResults(kieBuilder);
+
+        InternalKieModule kieModule = (InternalKieModule) kieBuilder.getKieModule();
+        Files.createDirectories(target.getParent());
+        Files.write(target, kieModule.getBytes());
+        log.info("Executable model written to {}", target);
+
+        if (unpackClasses) {
+            int classes = 0;
+            for (String fileName : kieModule.getFileNames()) {
+                if (fileName.endsWith(".class")) {
+                    Path classFile = outputDirectory.resolve(fileName);
+                    Files.createDirectories(classFile.getParent());
+                    Files.write(classFile, kieModule.getBytes(fileName));
+                    classes++;
+                }
+            }
+            log.info("{} executable model classes unpacked to {}", classes, outputDirectory);
+        }
+    }
+}
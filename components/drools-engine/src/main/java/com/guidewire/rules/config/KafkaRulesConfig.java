@@ -0,0 +1,40 @@
+package com.guidewire.rules.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Batch listener container for the incidents consumer. The listener receives a whole
+ * poll (up to spring.kafka.consumer.max-poll-records) and offsets are committed once
+ * it returns. A failing poll is redelivered with a fixed back-off until it succeeds:
+ * with a batch listener the error handler would otherwise commit the poll once retries
+ * run out and its fraud results would be lost. The consumer is paused between attempts,
+ * so retrying does not exceed max.poll.interval.ms. Records that cannot be deserialized
+ * never reach this loop; the ErrorHandlingDeserializer in application.yml hands them to
+ * the listener as null values, which are skipped as invalid.
+ */
+@Configuration
+@ConditionalOnProperty(name = "drools.kafka.enabled", havingValue = "true")
+public class KafkaRulesConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> rulesBatchListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${drools.kafka.concurrency:1}") int concurrency,
+            @Value("${drools.kafka.retry-backoff-ms:1000}") long retryBackoffMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryBackoffMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return factory;
+    }
+}
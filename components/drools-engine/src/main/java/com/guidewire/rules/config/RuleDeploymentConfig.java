@@ -0,0 +1,42 @@
+package com.guidewire.rules.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Single worker for rule deployments. Compiling a DRL set is CPU heavy and should
+ * never compete with itself; one thread also serializes concurrent uploads.
+ *
+ * Shadow evaluations get their own small, low-priority pool with a bounded queue, so
+ * comparing a candidate rule set never takes threads from live traffic; when the queue
+ * is full the evaluation is rejected and ShadowEvaluator drops it.
+ */
+@Configuration
+public class RuleDeploymentConfig {
+
+    @Bean(name = "rulesDeployExecutor")
+    public ThreadPoolTaskExecutor rulesDeployExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("rules-deploy-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "rulesShadowExecutor")
+    public ThreadPoolTaskExecutor rulesShadowExecutor(@Value("${drools.shadow.threads:1}") int threads,
+                                                      @Value("${drools.shadow.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, threads));
+        executor.setMaxPoolSize(Math.max(1, threads));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rules-shadow-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.initialize();
+        return executor;
+    }
+}
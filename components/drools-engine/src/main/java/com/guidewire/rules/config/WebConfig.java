@@ -0,0 +1,22 @@
+package com.guidewire.rules.config;
+
+import com.guidewire.rules.controller.ClaimFactAvroMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds the application/avro body format to the rule endpoints. It goes after the
+ * default converters: a converter bean would be placed before Jackson and answer
+ * requests that accept any type in Avro.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ClaimFactAvroMessageConverter());
+    }
+}
@@ -0,0 +1,177 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.Money;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Avro binary body for {@link ClaimFact}, negotiated with {@code Content-Type} and
+ * {@code Accept: application/avro}. The layout is the ClaimFact.avsc contract: the
+ * fields are encoded and decoded straight from the fact in schema order, with no
+ * GenericRecord in between and no BigDecimal for the amount, which travels as
+ * centavos. The schema is checked against that order at startup.
+ *
+ * Serves /fraud-check; any other endpoint keeps JSON. Registered after the JSON
+ * converter (see WebConfig), so clients that accept any type still get JSON.
+ */
+public class ClaimFactAvroMessageConverter extends AbstractHttpMessageConverter<ClaimFact> {
+
+    public static final MediaType APPLICATION_AVRO = MediaType.parseMediaType("application/avro");
+
+    private static final String SCHEMA_PATH = "/avro/ClaimFact.avsc";
+    private static final List<String> FIELD_ORDER = List.of(
+            "claimId", "customerId", "claimedAmountCents", "incidentDate", "customerRegistrationDate",
+            "claimCount", "recentClaimCount", "priority", "claimType", "hasPoliceReport", "hasWitnesses",
+            "riskLevel", "fraudScore", "flaggedReasons");
+
+    // A ClaimFact is a few hundred bytes; the factory defaults (8 KB read, 2 KB write buffers)
+    // would dominate the allocation of every request
+    private static final DecoderFactory DECODER_FACTORY = new DecoderFactory().configureDecoderBufferSize(512);
+    private static final EncoderFactory ENCODER_FACTORY = new EncoderFactory().configureBufferSize(256);
+
+    // Branch of a ["null", T] union
+    private static final int NULL_BRANCH = 0;
+    private static final int VALUE_BRANCH = 1;
+
+    public ClaimFactAvroMessageConverter() {
+        super(APPLICATION_AVRO);
+        checkSchema();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ClaimFact.class == clazz;
+    }
+
+    @Override
+    protected ClaimFact readInternal(Class<? extends ClaimFact> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        try {
+            return read(inputMessage.getBody());
+        } catch (AvroRuntimeException | EOFException e) {
+            throw new HttpMessageNotReadableException("Invalid Avro ClaimFact: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(ClaimFact claim, HttpOutputMessage outputMessage) throws IOException {
+        write(claim, outputMessage.getBody());
+    }
+
+    public ClaimFact read(InputStream in) throws IOException {
+        BinaryDecoder decoder = DECODER_FACTORY.binaryDecoder(in, null);
+        ClaimFact claim = new ClaimFact();
+        claim.setClaimId(readString(decoder));
+        claim.setCustomerId(readString(decoder));
+        claim.setClaimedAmountCents(decoder.readIndex() == VALUE_BRANCH ? decoder.readLong() : Money.ABSENT);
+        claim.setIncidentDate(readDate(decoder));
+        claim.setCustomerRegistrationDate(readDate(decoder));
+        claim.setClaimCount(decoder.readInt());
+        claim.setRecentClaimCount(decoder.readInt());
+        claim.setPriority(readString(decoder));
+        claim.setClaimType(readString(decoder));
+        claim.setHasPoliceReport(decoder.readBoolean());
+        claim.setHasWitnesses(decoder.readBoolean());
+        claim.setRiskLevel(readString(decoder));
+        claim.setFraudScore(decoder.readInt());
+        List<String> reasons = new ArrayList<>();
+        for (long block = decoder.readArrayStart(); block != 0; block = decoder.arrayNext()) {
+            for (long i = 0; i < block; i++) {
+                reasons.add(decoder.readString());
+            }
+        }
+        claim.setFlaggedReasons(reasons);
+        return claim;
+    }
+
+    public void write(ClaimFact claim, OutputStream out) throws IOException {
+        BinaryEncoder encoder = ENCODER_FACTORY.binaryEncoder(out, null);
+        writeString(encoder, claim.getClaimId());
+        writeString(encoder, claim.getCustomerId());
+        if (claim.getClaimedAmountCents() == Money.ABSENT) {
+            encoder.writeIndex(NULL_BRANCH);
+        } else {
+            encoder.writeIndex(VALUE_BRANCH);
+            encoder.writeLong(claim.getClaimedAmountCents());
+        }
+        writeDate(encoder, claim.getIncidentDate());
+        writeDate(encoder, claim.getCustomerRegistrationDate());
+        encoder.writeInt(claim.getClaimCount());
+        encoder.writeInt(claim.getRecentClaimCount());
+        writeString(encoder, claim.getPriority());
+        writeString(encoder, claim.getClaimType());
+        encoder.writeBoolean(claim.isHasPoliceReport());
+        encoder.writeBoolean(claim.isHasWitnesses());
+        writeString(encoder, claim.getRiskLevel());
+        encoder.writeInt(claim.getFraudScore());
+        List<String> reasons = claim.getFlaggedReasons() != null ? claim.getFlaggedReasons() : List.of();
+        encoder.writeArrayStart();
+        encoder.setItemCount(reasons.size());
+        for (String reason : reasons) {
+            encoder.startItem();
+            encoder.writeString(reason);
+        }
+        encoder.writeArrayEnd();
+        encoder.flush();
+    }
+
+    private static String readString(BinaryDecoder decoder) throws IOException {
+        return decoder.readIndex() == VALUE_BRANCH ? decoder.readString() : null;
+    }
+
+    private static LocalDate readDate(BinaryDecoder decoder) throws IOException {
+        return decoder.readIndex() == VALUE_BRANCH ? LocalDate.ofEpochDay(decoder.readInt()) : null;
+    }
+
+    private static void writeString(BinaryEncoder encoder, String value) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(NULL_BRANCH);
+        } else {
+            encoder.writeIndex(VALUE_BRANCH);
+            encoder.writeString(value);
+        }
+    }
+
+    private static void writeDate(BinaryEncoder encoder, LocalDate value) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(NULL_BRANCH);
+        } else {
+            encoder.writeIndex(VALUE_BRANCH);
+            encoder.writeInt((int) value.toEpochDay());
+        }
+    }
+
+    private static void checkSchema() {
+        try (InputStream is = ClaimFactAvroMessageConverter.class.getResourceAsStream(SCHEMA_PATH)) {
+            if (is == null) {
+                throw new IllegalStateException("Avro schema not found on classpath: " + SCHEMA_PATH);
+            }
+            List<String> fields = new Schema.Parser().parse(is).getFields().stream().map(Schema.Field::name).toList();
+            if (!fields.equals(FIELD_ORDER)) {
+                throw new IllegalStateException("ClaimFact Avro codec is out of date with " + SCHEMA_PATH
+                        + ": expected fields " + FIELD_ORDER + " but the schema has " + fields);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.RuleBaseStatus;
+import com.guidewire.rules.model.RuleDeploymentResult;
+import com.guidewire.rules.model.ShadowReport;
+import com.guidewire.rules.service.RuleDeploymentService;
+import com.guidewire.rules.service.ShadowEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Admin endpoints for hot rule deployment. Disabled unless
+ * {@code drools.deployment.admin.enabled=true}; expose only on an internal network.
+ */
+@RestController
+@RequestMapping("/api/v1/rules/admin/deployments")
+@ConditionalOnProperty(name = "drools.deployment.admin.enabled", havingValue = "true")
+public class RuleDeploymentController {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleDeploymentController.class);
+
+    private final RuleDeploymentService deploymentService;
+    private final ShadowEvaluator shadowEvaluator;
+    private final long deployTimeoutMs;
+    private final long retryAfterSeconds;
+
+    public RuleDeploymentController(RuleDeploymentService deploymentService,
+                                    ShadowEvaluator shadowEvaluator,
+                                    @Value("${drools.deployment.timeout-ms:60000}") long deployTimeoutMs,
+                                    @Value("${drools.deployment.retry-after-seconds:30}") long retryAfterSeconds) {
+        this.deploymentService = deploymentService;
+        this.shadowEvaluator = shadowEvaluator;
+        this.deployTimeoutMs = deployTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @GetMapping
+    public ResponseEntity<RuleBaseStatus> status() {
+        return ResponseEntity.ok(deploymentService.status());
+    }
+
+    /**
+     * Uploads a complete rule set. The request waits for compilation and validation;
+     * 422 means the rule set was rejected and the active one is unchanged.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<RuleDeploymentResult> deploy(@RequestParam("files") List<MultipartFile> files)
+            throws IOException, InterruptedException {
+        Map<String, String> drlFiles = readFiles(files);
+        log.info("Received rule deployment with files {}", drlFiles.keySet());
+        RuleDeploymentResult result = await(() -> deploymentService.deploy(drlFiles, "upload"));
+        log.info("Rule deployment finished: status={}, version={}", result.getStatus(), result.getVersion());
+        return ResponseEntity.status(result.isActivated() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(result);
+    }
+
+    /**
+     * Uploads a complete rule set to be evaluated in shadow on live fraud traffic. It
+     * replaces the current shadow rule set; responses keep coming from the active one.
+     */
+    @PostMapping(path = "/shadow", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<RuleDeploymentResult> deployShadow(@RequestParam("files") List<MultipartFile> files)
+            throws IOException, InterruptedException {
+        Map<String, String> drlFiles = readFiles(files);
+        log.info("Received shadow rule deployment with files {}", drlFiles.keySet());
+        RuleDeploymentResult result = await(() -> deploymentService.deployShadow(drlFiles, "upload"));
+        log.info("Shadow rule deployment finished: status={}, version={}", result.getStatus(), result.getVersion());
+        return ResponseEntity.status(result.isRejected() ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK)
+                .body(result);
+    }
+
+    @GetMapping("/shadow")
+    public ResponseEntity<ShadowReport> shadowReport() {
+        return ResponseEntity.ok(shadowEvaluator.report());
+    }
+
+    @PostMapping("/shadow/promote")
+    public ResponseEntity<RuleDeploymentResult> promoteShadow() {
+        try {
+            return ResponseEntity.ok(deploymentService.promoteShadow());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/shadow")
+    public ResponseEntity<Void> stopShadow() {
+        try {
+            deploymentService.stopShadow();
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @PostMapping("/rollback")
+    public ResponseEntity<RuleDeploymentResult> rollback() {
+        try {
+            return ResponseEntity.ok(deploymentService.rollback());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Uploads are compiled one at a time and only a few may wait (rulesDeployExecutor);
+     * once that queue is full the caller is told to back off instead of getting a 500.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> deployQueueFull(RejectedExecutionException e) {
+        log.warn("Rule deployment rejected, deploy queue is full: {}", e.getMessage());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Too many rule deployments waiting, retry later");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
+
+    private static Map<String, String> readFiles(List<MultipartFile> files) throws IOException {
+        Map<String, String> drlFiles = new LinkedHashMap<>();
+        for (MultipartFile file : files) {
+            drlFiles.put(file.getOriginalFilename(), new String(file.getBytes(), StandardCharsets.UTF_8));
+        }
+        return drlFiles;
+    }
+
+    private RuleDeploymentResult await(Supplier<CompletableFuture<RuleDeploymentResult>> deployment)
+            throws InterruptedException {
+        try {
+            return deployment.get().get(deployTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Deployment still running after " + deployTimeoutMs + " ms; check GET for its outcome");
+        }
+    }
+}
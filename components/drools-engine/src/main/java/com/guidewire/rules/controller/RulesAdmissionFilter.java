@@ -0,0 +1,65 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.service.AdaptiveConcurrencyLimiter;
+import com.guidewire.rules.service.AdaptiveConcurrencyLimiter.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admission control for the rule endpoints. A request is only handed to the controller
+ * when {@link AdaptiveConcurrencyLimiter} has room for it; otherwise it is answered at
+ * once with a Retry-After header instead of queueing for a thread and a KieSession:
+ * 503 for an interactive evaluation, 429 for a batch, whose caller is expected to
+ * slow down its bulk submissions. Admin endpoints are never limited.
+ */
+public class RulesAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String ADMIN_PATH = "/api/v1/rules/admin/";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long retryAfterSeconds;
+
+    public RulesAdmissionFilter(AdaptiveConcurrencyLimiter limiter, long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(ADMIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = request.getRequestURI().endsWith("/batch") ? Priority.BATCH : Priority.INTERACTIVE;
+        if (!limiter.tryAcquire(priority)) {
+            reject(response, priority == Priority.BATCH ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(priority, completed ? System.nanoTime() - start : -1);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"Rules engine at its concurrency limit, retry later\"}");
+    }
+}
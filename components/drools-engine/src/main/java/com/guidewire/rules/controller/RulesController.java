@@ -1,17 +1,27 @@
 package com.guidewire.rules.controller;
 
+import com.guidewire.rules.model.BatchResult;
 import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ClaimIntake;
 import com.guidewire.rules.model.CommissionFact;
 import com.guidewire.rules.model.IncidentRoutingFact;
 import com.guidewire.rules.model.PolicyFact;
+import com.guidewire.rules.service.BatchEvaluationService;
+import com.guidewire.rules.service.ClaimVelocityStore;
+import com.guidewire.rules.service.DecisionCache;
 import com.guidewire.rules.service.RulesService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/rules")
@@ -20,15 +30,27 @@ public class RulesController {
     private static final Logger log = LoggerFactory.getLogger(RulesController.class);
 
     private final RulesService rulesService;
+    private final BatchEvaluationService batchEvaluationService;
+    private final DecisionCache decisionCache;
+    private final ClaimVelocityStore claimVelocityStore;
+    private final int maxBatchSize;
 
-    public RulesController(RulesService rulesService) {
+    public RulesController(RulesService rulesService,
+                           BatchEvaluationService batchEvaluationService,
+                           DecisionCache decisionCache,
+                           ClaimVelocityStore claimVelocityStore,
+                           @Value("${drools.batch.max-size:10000}") int maxBatchSize) {
         this.rulesService = rulesService;
+        this.batchEvaluationService = batchEvaluationService;
+        this.decisionCache = decisionCache;
+        this.claimVelocityStore = claimVelocityStore;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @PostMapping("/fraud-check")
     public ResponseEntity<ClaimFact> fraudCheck(@RequestBody ClaimFact claimFact) {
         log.info("Received fraud check request for claim: {}", claimFact.getClaimId());
-        ClaimFact result = rulesService.evaluateFraudRules(claimFact);
+        ClaimFact result = rulesService.evaluateFraudRules(claimVelocityStore.track(claimFact));
         log.info("Fraud check result for claim {}: riskLevel={}, fraudScore={}, flaggedReasons={}",
                 result.getClaimId(), result.getRiskLevel(), result.getFraudScore(),
                 result.getFlaggedReasons());
@@ -48,7 +70,7 @@ public class RulesController {
     @PostMapping("/commission")
     public ResponseEntity<CommissionFact> commissionCalculation(@RequestBody CommissionFact commissionFact) {
         log.info("Received commission calculation request for product: {}", commissionFact.getProductType());
-        CommissionFact result = rulesService.evaluateCommissionRules(commissionFact);
+        CommissionFact result = decisionCache.evaluateCommissionRules(commissionFact);
         log.info("Commission result for product {}: {}% (tier={}, amount={})",
                 result.getProductType(), result.getCommissionPercentage(),
                 result.getCommissionTier(), result.getCommissionAmount());
@@ -59,9 +81,63 @@ public class RulesController {
     public ResponseEntity<IncidentRoutingFact> incidentRouting(@RequestBody IncidentRoutingFact routingFact) {
         log.info("Received incident routing request: priority={}, severity={}, customerTier={}",
                 routingFact.getPriority(), routingFact.getSeverity(), routingFact.getCustomerTier());
-        IncidentRoutingFact result = rulesService.evaluateRoutingRules(routingFact);
+        IncidentRoutingFact result = decisionCache.evaluateRoutingRules(routingFact);
         log.info("Routing result: assignedTeam={}, slaHours={}, escalated={}",
                 result.getAssignedTeam(), result.getSlaHours(), result.isEscalated());
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping("/claim-intake")
+    public ResponseEntity<ClaimIntake> claimIntake(@RequestBody ClaimIntake intake) {
+        if (intake.getClaim() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "claim is required");
+        }
+        log.info("Received claim intake request for claim: {} (routing={}, policy={})",
+                intake.getClaim().getClaimId(), intake.getRouting() != null, intake.getPolicy() != null);
+        claimVelocityStore.track(intake.getClaim());
+        ClaimIntake result = rulesService.evaluateClaimIntake(intake);
+        log.info("Claim intake result for claim {}: riskLevel={}, assignedTeam={}, eligible={}",
+                result.getClaim().getClaimId(), result.getClaim().getRiskLevel(),
+                result.getRouting() != null ? result.getRouting().getAssignedTeam() : null,
+                result.getPolicy() != null ? result.getPolicy().isEligible() : null);
+        return ResponseEntity.ok(result);
+    }
+
+    // =====================================================================
+    // Batch endpoints: POST /api/v1/rules/{ruleset}/batch with an array of facts
+    // =====================================================================
+
+    @PostMapping("/fraud-check/batch")
+    public ResponseEntity<BatchResult<ClaimFact>> fraudCheckBatch(@RequestBody List<ClaimFact> claimFacts) {
+        return ResponseEntity.ok(evaluateBatch("fraud-check", claimFacts));
+    }
+
+    @PostMapping("/policy-validation/batch")
+    public ResponseEntity<BatchResult<PolicyFact>> policyValidationBatch(@RequestBody List<PolicyFact> policyFacts) {
+        return ResponseEntity.ok(evaluateBatch("policy-validation", policyFacts));
+    }
+
+    @PostMapping("/commission/batch")
+    public ResponseEntity<BatchResult<CommissionFact>> commissionCalculationBatch(
+            @RequestBody List<CommissionFact> commissionFacts) {
+        return ResponseEntity.ok(evaluateBatch("commission", commissionFacts));
+    }
+
+    @PostMapping("/incident-routing/batch")
+    public ResponseEntity<BatchResult<IncidentRoutingFact>> incidentRoutingBatch(
+            @RequestBody List<IncidentRoutingFact> routingFacts) {
+        return ResponseEntity.ok(evaluateBatch("incident-routing", routingFacts));
+    }
+
+    private <T> BatchResult<T> evaluateBatch(String ruleSet, List<T> facts) {
+        log.info("Received {} batch request with {} facts", ruleSet, facts.size());
+        if (facts.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch of " + facts.size() + " facts exceeds the maximum of " + maxBatchSize);
+        }
+        BatchResult<T> result = batchEvaluationService.evaluate(ruleSet, facts);
+        log.info("Batch {} result: total={}, succeeded={}, failed={}, durationMs={}",
+                ruleSet, result.getTotal(), result.getSucceeded(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
 }
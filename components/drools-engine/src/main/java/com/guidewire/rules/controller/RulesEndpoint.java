@@ -0,0 +1,31 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.RuleStats;
+import com.guidewire.rules.service.RuleMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/rules?top=10&sort=fired|time}: hottest rules since startup.
+ */
+@Component
+@Endpoint(id = "rules")
+public class RulesEndpoint {
+
+    private static final int DEFAULT_TOP = 10;
+
+    private final RuleMetrics ruleMetrics;
+
+    public RulesEndpoint(RuleMetrics ruleMetrics) {
+        this.ruleMetrics = ruleMetrics;
+    }
+
+    @ReadOperation
+    public List<RuleStats> hotRules(@Nullable Integer top, @Nullable String sort) {
+        return ruleMetrics.topRules(top != null && top > 0 ? top : DEFAULT_TOP, sort);
+    }
+}
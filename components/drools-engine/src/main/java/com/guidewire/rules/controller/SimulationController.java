@@ -0,0 +1,72 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.SimulationReport;
+import com.guidewire.rules.model.SimulationRequest;
+import com.guidewire.rules.service.SimulationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Admin endpoints for what-if simulations over fact files in
+ * {@code drools.simulation.data-dir}. Enabled together with the deployment admin
+ * endpoints ({@code drools.deployment.admin.enabled=true}); expose only on an internal network.
+ */
+@RestController
+@RequestMapping("/api/v1/rules/admin/simulations")
+@ConditionalOnProperty(name = "drools.deployment.admin.enabled", havingValue = "true")
+public class SimulationController {
+
+    private final SimulationService simulationService;
+
+    public SimulationController(SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    /**
+     * Starts a simulation and returns right away with its id; poll GET /{id} for progress.
+     */
+    @PostMapping
+    public ResponseEntity<SimulationReport> start(@RequestBody SimulationRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(simulationService.start(request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SimulationReport>> list() {
+        return ResponseEntity.ok(simulationService.list());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SimulationReport> get(@PathVariable String id) {
+        return simulationService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown simulation " + id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<SimulationReport> cancel(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(simulationService.cancel(id));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.guidewire.rules.kafka;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Maps IncidentCreated Avro records to rule facts and the evaluated facts to a
+ * FraudCheckResult record. Works on GenericRecords as delivered by the Apicurio
+ * deserializer, where decimals arrive as bytes and dates as epoch days.
+ */
+final class IncidentEventMapper {
+
+    private static final Conversions.DecimalConversion DECIMAL_CONVERSION = new Conversions.DecimalConversion();
+
+    private IncidentEventMapper() {
+    }
+
+    static ClaimFact toClaimFact(GenericRecord event) {
+        return ClaimFact.builder()
+                .claimId(requiredString(event, "claimId"))
+                .customerId(requiredString(event, "customerId"))
+                .priority(string(event, "priority"))
+                .claimedAmount(decimal(event, "claimedAmount"))
+                .incidentDate(date(event, "incidentDate"))
+                .build();
+    }
+
+    static IncidentRoutingFact toRoutingFact(GenericRecord event) {
+        return IncidentRoutingFact.builder()
+                .priority(string(event, "priority"))
+                .claimedAmount(decimal(event, "claimedAmount"))
+                .build();
+    }
+
+    static GenericRecord toResult(Schema schema, GenericRecord event, ClaimFact claim,
+                                  IncidentRoutingFact routing, long ruleSetVersion) {
+        GenericRecord result = new GenericData.Record(schema);
+        result.put("eventId", UUID.randomUUID().toString());
+        result.put("eventTimestamp", Instant.now().toEpochMilli());
+        result.put("sourceEventId", requiredString(event, "eventId"));
+        result.put("incidentId", requiredString(event, "incidentId"));
+        result.put("claimId", claim.getClaimId());
+        result.put("customerId", claim.getCustomerId());
+        result.put("riskLevel", claim.getRiskLevel());
+        result.put("fraudScore", claim.getFraudScore());
+        result.put("flaggedReasons", claim.getFlaggedReasons());
+        result.put("assignedTeam", routing.getAssignedTeam());
+        result.put("slaHours", routing.getSlaHours());
+        result.put("escalated", routing.isEscalated());
+        result.put("routingNotes", routing.getRoutingNotes());
+        result.put("ruleSetVersion", ruleSetVersion);
+        return result;
+    }
+
+    private static String requiredString(GenericRecord event, String field) {
+        String value = string(event, field);
+        if (value == null) {
+            throw new IllegalArgumentException("IncidentCreated event without " + field);
+        }
+        return value;
+    }
+
+    private static String string(GenericRecord event, String field) {
+        Object value = event.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static BigDecimal decimal(GenericRecord event, String field) {
+        Object value = event.get(field);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof ByteBuffer bytes) {
+            Schema fieldSchema = event.getSchema().getField(field).schema();
+            return DECIMAL_CONVERSION.fromBytes(bytes.duplicate(), fieldSchema, fieldSchema.getLogicalType());
+        }
+        throw new IllegalArgumentException("Unsupported " + field + " value type: " + value.getClass().getName());
+    }
+
+    private static LocalDate date(GenericRecord event, String field) {
+        Object value = event.get(field);
+        if (value == null || value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof Integer epochDay) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        throw new IllegalArgumentException("Unsupported " + field + " value type: " + value.getClass().getName());
+    }
+}
@@ -0,0 +1,175 @@
+package com.guidewire.rules.kafka;
+
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.service.ClaimVelocityStore;
+import com.guidewire.rules.service.RuleBaseRegistry;
+import com.guidewire.rules.service.RulesService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumes incidents.incident-created directly, without the camel-gateway HTTP hop.
+ * Each poll is evaluated as one micro-batch: fraud and routing facts are run through
+ * {@link RulesService#evaluateChunk} on a single session each, and one FraudCheckResult
+ * per incident is published to rules.fraud-results. Claims are recorded in the
+ * {@link ClaimVelocityStore} before evaluation; a redelivered poll is not counted twice.
+ *
+ * Offsets are committed only after every result of the poll has been acknowledged by
+ * the broker; if publishing fails the listener throws and the whole poll is redelivered
+ * (at-least-once, consumers de-duplicate by sourceEventId). Events that cannot be
+ * deserialized or mapped, or whose evaluation fails, are logged and skipped.
+ *
+ * Enabled with drools.kafka.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "drools.kafka.enabled", havingValue = "true")
+public class IncidentRulesConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentRulesConsumer.class);
+
+    private static final String RESULT_SCHEMA_PATH = "/avro/FraudCheckResult.avsc";
+
+    private final RulesService rulesService;
+    private final ClaimVelocityStore claimVelocityStore;
+    private final RuleBaseRegistry ruleBaseRegistry;
+    private final KafkaTemplate<String, GenericRecord> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String resultsTopic;
+    private final long sendTimeoutMs;
+    private final Schema resultSchema;
+
+    public IncidentRulesConsumer(RulesService rulesService,
+                                 ClaimVelocityStore claimVelocityStore,
+                                 RuleBaseRegistry ruleBaseRegistry,
+                                 KafkaTemplate<String, GenericRecord> kafkaTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${drools.kafka.results-topic:rules.fraud-results}") String resultsTopic,
+                                 @Value("${drools.kafka.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.rulesService = rulesService;
+        this.claimVelocityStore = claimVelocityStore;
+        this.ruleBaseRegistry = ruleBaseRegistry;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.resultsTopic = resultsTopic;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.resultSchema = loadSchema();
+    }
+
+    @KafkaListener(
+            id = "rules-incident-consumer",
+            topics = "${drools.kafka.incident-topic:incidents.incident-created}",
+            groupId = "${drools.kafka.group-id:drools-engine-group}",
+            containerFactory = "rulesBatchListenerContainerFactory"
+    )
+    public void onIncidentsCreated(List<ConsumerRecord<String, GenericRecord>> records) {
+        long start = System.nanoTime();
+
+        List<GenericRecord> events = new ArrayList<>(records.size());
+        List<ClaimFact> claims = new ArrayList<>(records.size());
+        List<IncidentRoutingFact> routings = new ArrayList<>(records.size());
+        int invalid = 0;
+        for (ConsumerRecord<String, GenericRecord> record : records) {
+            try {
+                GenericRecord event = record.value();
+                if (event == null) {
+                    throw new IllegalArgumentException("value is empty or could not be deserialized");
+                }
+                ClaimFact claim = claimVelocityStore.track(IncidentEventMapper.toClaimFact(event));
+                IncidentRoutingFact routing = IncidentEventMapper.toRoutingFact(event);
+                events.add(event);
+                claims.add(claim);
+                routings.add(routing);
+            } catch (RuntimeException e) {
+                invalid++;
+                log.error("Skipping incident-created event [key={}, partition={}, offset={}]: {}",
+                        record.key(), record.partition(), record.offset(), e.getMessage());
+            }
+        }
+
+        long ruleSetVersion = ruleBaseRegistry.getActive().version();
+        List<BatchItemResult<ClaimFact>> fraudResults = rulesService.evaluateChunk(claims, 0);
+        List<BatchItemResult<IncidentRoutingFact>> routingResults = rulesService.evaluateChunk(routings, 0);
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        int failed = 0;
+        for (int i = 0; i < events.size(); i++) {
+            BatchItemResult<ClaimFact> fraud = fraudResults.get(i);
+            BatchItemResult<IncidentRoutingFact> routing = routingResults.get(i);
+            if (!fraud.isSucceeded() || !routing.isSucceeded()) {
+                failed++;
+                log.error("Rule evaluation failed for claim {}: {}", claims.get(i).getClaimId(),
+                        fraud.isSucceeded() ? routing.getError() : fraud.getError());
+                continue;
+            }
+            GenericRecord result = IncidentEventMapper.toResult(resultSchema, events.get(i),
+                    fraud.getResult(), routing.getResult(), ruleSetVersion);
+            sends.add(kafkaTemplate.send(resultsTopic, fraud.getResult().getClaimId(), result));
+        }
+        awaitSends(sends);
+
+        Timer.builder("drools_kafka_batch_duration")
+                .description("Duration of evaluating and publishing one poll of incident events")
+                .tag("component", "drools-engine")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        countEvents("evaluated", sends.size());
+        countEvents("invalid", invalid);
+        countEvents("failed", failed);
+
+        log.info("Evaluated incident batch: records={}, published={}, invalid={}, failed={}",
+                records.size(), sends.size(), invalid, failed);
+    }
+
+    private void awaitSends(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing fraud results", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Publishing fraud results to " + resultsTopic + " failed", e);
+        }
+    }
+
+    private void countEvents(String outcome, int count) {
+        Counter.builder("drools_kafka_incidents")
+                .description("Incident events consumed from Kafka by outcome")
+                .tag("component", "drools-engine")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    private static Schema loadSchema() {
+        try (InputStream is = IncidentRulesConsumer.class.getResourceAsStream(RESULT_SCHEMA_PATH)) {
+            if (is == null) {
+                throw new IllegalStateException("Avro schema not found at " + RESULT_SCHEMA_PATH);
+            }
+            return new Schema.Parser().parse(is);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load Avro schema from " + RESULT_SCHEMA_PATH, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single fact inside a batch evaluation. Exactly one of
+ * {@code result} or {@code error} is set; {@code index} is the position
+ * of the fact in the request array, or the row of a simulation input file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult<T> {
+
+    private long index;
+    private T result;
+    private String error;
+
+    public static <T> BatchItemResult<T> success(long index, T result) {
+        return new BatchItemResult<>(index, result, null);
+    }
+
+    public static <T> BatchItemResult<T> failure(long index, String error) {
+        return new BatchItemResult<>(index, null, error);
+    }
+
+    @JsonIgnore
+    public boolean isSucceeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.guidewire.rules.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of a batch rule evaluation. Results are returned in the same
+ * order as the facts in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult<T> {
+
+    private String ruleSet;
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long durationMs;
+
+    @Builder.Default
+    private List<BatchItemResult<T>> results = new ArrayList<>();
+}
@@ -1,8 +1,10 @@
 package com.guidewire.rules.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
@@ -11,17 +13,25 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ClaimFact {
 
     private String claimId;
     private String customerId;
+    // As given in JSON or the builder, echoed back unchanged; null if only the centavos were set.
+    // Equality goes by the centavos the rules see.
+    @EqualsAndHashCode.Exclude
     private BigDecimal claimedAmount;
+    // Centavos, rounded up from claimedAmount; what the rules compare
+    @JsonIgnore
+    @Builder.Default
+    private long claimedAmountCents = Money.ABSENT;
     private LocalDate incidentDate;
     private LocalDate customerRegistrationDate;
     private int claimCount;
+    private int recentClaimCount;      // claims in the velocity window, set by ClaimVelocityStore
     private String priority;
     private String claimType;          // COLLISION, THEFT, FIRE, FLOOD, LIABILITY
     private boolean hasPoliceReport;
@@ -41,10 +51,32 @@ public class ClaimFact {
         this.flaggedReasons.add(reason);
     }
 
+    public BigDecimal getClaimedAmount() {
+        return claimedAmount != null ? claimedAmount : Money.toDecimal(claimedAmountCents);
+    }
+
+    public void setClaimedAmount(BigDecimal claimedAmount) {
+        this.claimedAmountCents = Money.toCents(claimedAmount);
+        this.claimedAmount = claimedAmount;
+    }
+
+    public void setClaimedAmountCents(long claimedAmountCents) {
+        this.claimedAmountCents = claimedAmountCents;
+        this.claimedAmount = null;
+    }
+
     public long daysSinceRegistration() {
         if (incidentDate == null || customerRegistrationDate == null) {
             return Long.MAX_VALUE;
         }
         return java.time.temporal.ChronoUnit.DAYS.between(customerRegistrationDate, incidentDate);
     }
+
+    public static class ClaimFactBuilder {
+
+        public ClaimFactBuilder claimedAmount(BigDecimal claimedAmount) {
+            this.claimedAmount = claimedAmount;
+            return claimedAmountCents(Money.toCents(claimedAmount));
+        }
+    }
 }
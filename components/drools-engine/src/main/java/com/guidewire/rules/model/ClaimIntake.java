@@ -0,0 +1,22 @@
+package com.guidewire.rules.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Facts of a new claim evaluated together by /api/v1/rules/claim-intake. The claim
+ * is required; routing and policy are evaluated when present. The response carries
+ * the same three facts with their output fields set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimIntake {
+
+    private ClaimFact claim;
+    private IncidentRoutingFact routing;
+    private PolicyFact policy;
+}
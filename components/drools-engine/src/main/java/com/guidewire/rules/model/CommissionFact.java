@@ -1,8 +1,10 @@
 package com.guidewire.rules.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
@@ -16,7 +18,14 @@ import java.util.List;
 public class CommissionFact {
 
     private String productType;
+    // As given in JSON or the builder, echoed back unchanged; null if only the centavos were set.
+    // Equality goes by the centavos the rules see.
+    @EqualsAndHashCode.Exclude
     private BigDecimal premiumAmount;
+    // Centavos, rounded up from premiumAmount; what the rules compare
+    @JsonIgnore
+    @Builder.Default
+    private long premiumAmountCents = Money.ABSENT;
     private String salesChannel;
     private String agentTier;          // JUNIOR, SENIOR, EXECUTIVE
     private int yearsOfExperience;
@@ -36,10 +45,37 @@ public class CommissionFact {
         this.appliedRules.add(rule);
     }
 
+    public BigDecimal getPremiumAmount() {
+        return premiumAmount != null ? premiumAmount : Money.toDecimal(premiumAmountCents);
+    }
+
+    public void setPremiumAmount(BigDecimal premiumAmount) {
+        this.premiumAmountCents = Money.toCents(premiumAmount);
+        this.premiumAmount = premiumAmount;
+    }
+
+    public void setPremiumAmountCents(long premiumAmountCents) {
+        this.premiumAmountCents = premiumAmountCents;
+        this.premiumAmount = null;
+    }
+
+    /**
+     * Premium as given times the percentage, unrounded: commissionAmount keeps the scale
+     * the JSON contract has always returned.
+     */
     public void calculateCommissionAmount() {
-        if (premiumAmount != null && commissionPercentage > 0) {
-            this.commissionAmount = premiumAmount.multiply(
+        BigDecimal premium = getPremiumAmount();
+        if (premium != null && commissionPercentage > 0) {
+            this.commissionAmount = premium.multiply(
                 BigDecimal.valueOf(commissionPercentage / 100.0));
         }
     }
+
+    public static class CommissionFactBuilder {
+
+        public CommissionFactBuilder premiumAmount(BigDecimal premiumAmount) {
+            this.premiumAmount = premiumAmount;
+            return premiumAmountCents(Money.toCents(premiumAmount));
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.guidewire.rules.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * MXN amounts as {@code long} centavos. Facts keep money in this form as well so DRL
+ * constraints run on primitives, without the BigDecimal {@code compareTo} against a
+ * literal. BigDecimal only appears at the JSON and builder edges.
+ *
+ * A missing amount is {@link #ABSENT}; it compares below every real amount, so a
+ * {@code > threshold} constraint does not match it, as with a null BigDecimal.
+ */
+public final class Money {
+
+    /** Stands for a null amount. */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int SCALE = 2;
+    // Long.MAX_VALUE centavos is 92,233,720,368,547,758.07
+    private static final int MAX_INTEGER_DIGITS = 17;
+
+    private Money() {
+    }
+
+    /**
+     * Any scale is accepted and rounded up ({@link RoundingMode#CEILING}) to centavos. The
+     * rules only compare amounts with {@code >} and {@code <=} against whole centavos, which
+     * decide the same on the rounded amount as on the exact one. The facts keep the amount as
+     * given for the JSON response; only the rules see the centavos.
+     * Jackson reports the IllegalArgumentException as an unreadable request body (400).
+     *
+     * @throws IllegalArgumentException if the amount does not fit in a long of centavos
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return ABSENT;
+        }
+        // Checked first so that setScale never expands an exponent such as 1E+1000000 or 1E-1000000
+        int integerDigits = amount.precision() - amount.scale();
+        if (integerDigits > MAX_INTEGER_DIGITS) {
+            throw outOfRange(amount);
+        }
+        if (integerDigits <= -SCALE) {
+            // below one centavo in magnitude
+            return amount.signum() > 0 ? 1 : 0;
+        }
+        long cents;
+        try {
+            // scaleByPowerOfTen keeps a compact BigDecimal, where unscaledValue() would build a BigInteger
+            cents = amount.setScale(SCALE, RoundingMode.CEILING).scaleByPowerOfTen(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw outOfRange(amount);
+        }
+        if (cents == ABSENT) {
+            throw outOfRange(amount);
+        }
+        return cents;
+    }
+
+    /**
+     * @return the amount with scale 2, or null for {@link #ABSENT}
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return cents == ABSENT ? null : BigDecimal.valueOf(cents, SCALE);
+    }
+
+    private static IllegalArgumentException outOfRange(BigDecimal amount) {
+        return new IllegalArgumentException("Amount " + amount + " is out of range");
+    }
+}
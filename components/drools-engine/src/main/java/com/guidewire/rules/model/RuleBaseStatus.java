@@ -0,0 +1,37 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Active rule set, the version kept for rollback and the one evaluated in shadow, as
+ * returned by the deployment admin endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RuleBaseStatus {
+
+    private Version active;
+    private Version previous;
+    private Version shadow;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Version {
+        private long version;
+        private String source;
+        private String releaseId;
+        private Instant activatedAt;
+        private long compileMs;
+    }
+}
@@ -0,0 +1,49 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a rule deployment or rollback. {@code errors} holds compiler
+ * messages or failed smoke checks when the new rule set was not activated.
+ * A shadow deployment ends as {@code SHADOWED}: the rule set is evaluated next to
+ * the active one but serves no responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RuleDeploymentResult {
+
+    public enum Status {
+        ACTIVATED, SHADOWED, COMPILE_FAILED, VALIDATION_FAILED, ROLLED_BACK
+    }
+
+    private Status status;
+    private long version;
+    private String source;
+    private long compileMs;
+    private Instant activatedAt;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+
+    @JsonIgnore
+    public boolean isActivated() {
+        return status == Status.ACTIVATED || status == Status.ROLLED_BACK;
+    }
+
+    @JsonIgnore
+    public boolean isRejected() {
+        return status == Status.COMPILE_FAILED || status == Status.VALIDATION_FAILED;
+    }
+}
@@ -0,0 +1,27 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Firing statistics of one rule since startup. {@code fired} is estimated from the
+ * sampled evaluations; {@code sampled} and the durations cover those evaluations only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleStats {
+
+    private String rule;
+    @JsonProperty("package")
+    private String packageName;
+    private long fired;
+    private long sampled;
+    private double sampledMeanMs;
+    private double sampledMaxMs;
+    private double sampledTotalMs;
+}
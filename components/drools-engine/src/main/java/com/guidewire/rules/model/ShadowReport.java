@@ -0,0 +1,31 @@
+package com.guidewire.rules.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Comparison of the shadow rule set against the active one, as returned by the
+ * deployment admin endpoint. Counts cover the current shadow version only; latency
+ * percentiles cover the recent evaluations of both rule sets.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShadowReport {
+
+    private long shadowVersion;
+    private long activeVersion;
+    private long evaluated;
+    private long matched;
+    private long diverged;
+    private long failed;
+    private long dropped;
+    private double divergenceRate;
+    private double primaryP50Ms;
+    private double primaryP99Ms;
+    private double shadowP50Ms;
+    private double shadowP99Ms;
+}
@@ -0,0 +1,55 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress and aggregated outcome of a what-if simulation. Counts grow while the
+ * simulation runs. Fraud simulations report the risk level distribution and average
+ * score; commission simulations the tier distribution and average commission.
+ * {@code ruleFires} counts the firings of every rule, most fired first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SimulationReport {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private String id;
+    private Status status;
+    private String ruleSet;
+    private String ruleBase;
+    private long ruleBaseVersion;
+    private String input;
+    private String output;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long durationMs;
+
+    private long rowsRead;
+    private long evaluated;
+    private long failed;               // evaluation failed
+    private long invalid;              // row could not be mapped to a fact, skipped
+    private double rowsPerSecond;
+
+    private Map<String, Long> riskLevels;
+    private Double averageFraudScore;
+    private Map<String, Long> commissionTiers;
+    private BigDecimal averageCommission;
+    private Double averageCommissionPercentage;
+    private Map<String, Long> ruleFires;
+
+    private String error;
+}
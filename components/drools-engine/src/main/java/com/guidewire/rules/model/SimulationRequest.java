@@ -0,0 +1,24 @@
+package com.guidewire.rules.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What-if simulation of a file of facts. {@code input} and {@code output} are file names
+ * inside {@code drools.simulation.data-dir}; the format follows the extension
+ * ({@code .csv} with a header row, or {@code .ndjson}/{@code .jsonl} with one fact per line).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+
+    private String ruleSet;            // fraud, commission
+    @Builder.Default
+    private String ruleBase = "active"; // active, shadow (the candidate deployed with .../deployments/shadow)
+    private String input;
+    private String output;             // optional: every evaluated fact, in the format of the input
+}
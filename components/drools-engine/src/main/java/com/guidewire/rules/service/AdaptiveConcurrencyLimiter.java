@@ -0,0 +1,167 @@
+package com.guidewire.rules.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of the gradient
+ * limit of Netflix concurrency-limits. A long-term average of the response time is
+ * compared with each new sample: while samples stay within {@code tolerance} times
+ * the average the limit grows by about its square root, and when they climb above it
+ * (requests are queueing on CPU or sessions) the limit shrinks in proportion. Changes
+ * are smoothed and kept within [minLimit, maxLimit].
+ *
+ * Requests of the {@link Priority#BATCH} class may only take {@code batchShare} of the
+ * limit, so bulk work is shed first and interactive requests keep headroom. Only
+ * interactive requests feed the latency signal; a batch takes much longer by nature.
+ *
+ * Publishes drools_admission_limit, drools_admission_in_flight,
+ * drools_admission_limit_changes{direction} and drools_admission_rejected{priority}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // Weight of one sample in the long-term response time average (~500 samples of memory)
+    private static final double LONG_RTT_WEIGHT = 0.002;
+
+    public enum Priority {
+        INTERACTIVE, BATCH
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double batchShare;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger batchInFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos;
+
+    private final Counter increases;
+    private final Counter decreases;
+    private final Counter interactiveRejected;
+    private final Counter batchRejected;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double batchShare,
+                                      double tolerance, double smoothing, MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min <= max, were "
+                    + minLimit + " and " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.batchShare = batchShare;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+
+        Gauge.builder("drools_admission_limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the rule endpoints")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        Gauge.builder("drools_admission_in_flight", inFlight, AtomicInteger::get)
+                .description("Rule endpoint requests currently admitted")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        this.increases = limitChangeCounter(meterRegistry, "up");
+        this.decreases = limitChangeCounter(meterRegistry, "down");
+        this.interactiveRejected = rejectedCounter(meterRegistry, Priority.INTERACTIVE);
+        this.batchRejected = rejectedCounter(meterRegistry, Priority.BATCH);
+    }
+
+    /**
+     * @return true if the request is admitted; it must then call {@link #release}
+     */
+    public boolean tryAcquire(Priority priority) {
+        int currentLimit = getLimit();
+        if (priority == Priority.BATCH) {
+            int batchLimit = Math.max(1, (int) (currentLimit * batchShare));
+            if (batchInFlight.incrementAndGet() > batchLimit) {
+                batchInFlight.decrementAndGet();
+                batchRejected.increment();
+                return false;
+            }
+        }
+        if (inFlight.incrementAndGet() > currentLimit) {
+            inFlight.decrementAndGet();
+            if (priority == Priority.BATCH) {
+                batchInFlight.decrementAndGet();
+                batchRejected.increment();
+            } else {
+                interactiveRejected.increment();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Frees the slot of an admitted request.
+     *
+     * @param rttNanos response time of the request, or a negative value when it failed and
+     *                 should not count as a latency sample
+     */
+    public void release(Priority priority, long rttNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        if (priority == Priority.BATCH) {
+            batchInFlight.decrementAndGet();
+        } else if (rttNanos >= 0) {
+            onSample(rttNanos, concurrency);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int concurrency) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_RTT_WEIGHT) + rttNanos * LONG_RTT_WEIGHT;
+
+        double current = limit;
+        // Below half the limit the application, not the server, bounds throughput; don't grow
+        if (concurrency < current / 2 && rttNanos <= longRttNanos * tolerance) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = Math.min(maxLimit, Math.max(minLimit, current * (1 - smoothing) + target * smoothing));
+        if ((int) next != (int) current) {
+            (next > current ? increases : decreases).increment();
+            log.debug("Admission limit {} -> {} (rtt={}us, longRtt={}us)", (int) current, (int) next,
+                    rttNanos / 1000, (long) longRttNanos / 1000);
+        }
+        limit = next;
+    }
+
+    private static Counter limitChangeCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("drools_admission_limit_changes")
+                .description("Changes of the adaptive concurrency limit, by direction")
+                .tag("component", "drools-engine")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Priority priority) {
+        return Counter.builder("drools_admission_rejected")
+                .description("Rule endpoint requests shed by the admission limiter, by priority class")
+                .tag("component", "drools-engine")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
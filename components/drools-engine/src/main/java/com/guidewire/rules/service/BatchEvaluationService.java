@@ -0,0 +1,126 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates arrays of facts by splitting them into chunks that run in parallel on
+ * the bounded {@code rulesBatchExecutor}. Each chunk is evaluated on its own session
+ * via {@link RulesService#evaluateChunk}, and per-item failures are reported in the
+ * result instead of failing the whole batch.
+ */
+@Service
+public class BatchEvaluationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchEvaluationService.class);
+
+    private final RulesService rulesService;
+    private final AsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final int parallelism;
+    private final int maxChunkSize;
+
+    public BatchEvaluationService(RulesService rulesService,
+                                  @Qualifier("rulesBatchExecutor") AsyncTaskExecutor executor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${drools.batch.parallelism:0}") int parallelism,
+                                  @Value("${drools.batch.max-chunk-size:250}") int maxChunkSize) {
+        this.rulesService = rulesService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxChunkSize = Math.max(1, maxChunkSize);
+    }
+
+    public <T> BatchResult<T> evaluate(String ruleSet, List<T> facts) {
+        long start = System.nanoTime();
+        int chunkSize = chunkSizeFor(facts.size());
+        log.info("Evaluating {} batch of {} facts in chunks of {}", ruleSet, facts.size(), chunkSize);
+
+        List<CompletableFuture<List<BatchItemResult<T>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < facts.size(); from += chunkSize) {
+            int firstIndex = from;
+            List<T> chunk = facts.subList(from, Math.min(from + chunkSize, facts.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> rulesService.evaluateChunk(chunk, firstIndex), executor)
+                    .exceptionally(e -> failChunk(chunk.size(), firstIndex, e)));
+        }
+
+        List<BatchItemResult<T>> results = new ArrayList<>(facts.size());
+        for (CompletableFuture<List<BatchItemResult<T>>> chunk : chunks) {
+            results.addAll(chunk.join());
+        }
+
+        int failed = (int) results.stream().filter(result -> !result.isSucceeded()).count();
+        long durationNanos = System.nanoTime() - start;
+
+        Timer.builder("drools_batch_duration")
+                .description("Duration of batch rule evaluations")
+                .tag("component", "drools-engine")
+                .tag("ruleset", ruleSet)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("drools_batch_items")
+                .description("Facts evaluated through batch endpoints")
+                .tag("component", "drools-engine")
+                .tag("ruleset", ruleSet)
+                .tag("outcome", "success")
+                .register(meterRegistry)
+                .increment(results.size() - failed);
+        Counter.builder("drools_batch_items")
+                .description("Facts evaluated through batch endpoints")
+                .tag("component", "drools-engine")
+                .tag("ruleset", ruleSet)
+                .tag("outcome", "failure")
+                .register(meterRegistry)
+                .increment(failed);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        log.info("Batch {} completed: total={}, failed={}, durationMs={}", ruleSet, results.size(), failed, durationMs);
+
+        return BatchResult.<T>builder()
+                .ruleSet(ruleSet)
+                .total(results.size())
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .durationMs(durationMs)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Spreads the batch over all workers, but caps the chunk size so very large
+     * batches still produce enough chunks to balance uneven fact costs.
+     */
+    int chunkSizeFor(int batchSize) {
+        int perWorker = (batchSize + parallelism - 1) / parallelism;
+        return Math.max(1, Math.min(maxChunkSize, perWorker));
+    }
+
+    /**
+     * A chunk that could not run at all (e.g. no session available) fails only its own items.
+     */
+    private static <T> List<BatchItemResult<T>> failChunk(int size, int firstIndex, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.error("Batch chunk starting at index {} failed: {}", firstIndex, cause.getMessage(), cause);
+        List<BatchItemResult<T>> failures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            failures.add(BatchItemResult.failure(firstIndex + i, "Chunk evaluation failed: " + cause.getMessage()));
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,125 @@
+package com.guidewire.rules.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.guidewire.rules.model.ClaimFact;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-memory history of recent claims per customer, so the fraud rules can
+ * see claim velocity (bursts such as three claims in 48 hours) instead of only the
+ * caller-supplied {@code claimCount}.
+ *
+ * {@link #track} records the claim at arrival time and sets
+ * {@link ClaimFact#getRecentClaimCount()} to the customer's claims within the last
+ * {@code drools.fraud.velocity.window-hours}, this one included. A claim id already in
+ * the window is counted once, so re-evaluations and redelivered events do not inflate
+ * the count.
+ *
+ * Memory is bounded three ways: claims older than the window are dropped whenever the
+ * customer is touched, a customer with no claim for a whole window is expired, and
+ * both the number of customers and the claims kept per customer are capped. The store
+ * is local to the instance; with several replicas each one sees only the claims it
+ * evaluated. Publishes drools_fraud_velocity_customers and
+ * drools_fraud_velocity_window_claims.
+ */
+@Service
+public class ClaimVelocityStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimVelocityStore.class);
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxClaimsPerCustomer;
+    private final Ticker ticker;
+    private final Cache<String, Deque<RecordedClaim>> windows;
+    private final AtomicLong trackedClaims = new AtomicLong();
+
+    @Autowired
+    public ClaimVelocityStore(MeterRegistry meterRegistry,
+                              @Value("${drools.fraud.velocity.enabled:false}") boolean enabled,
+                              @Value("${drools.fraud.velocity.window-hours:48}") long windowHours,
+                              @Value("${drools.fraud.velocity.max-customers:100000}") long maxCustomers,
+                              @Value("${drools.fraud.velocity.max-claims-per-customer:20}") int maxClaimsPerCustomer) {
+        this(meterRegistry, enabled, windowHours, maxCustomers, maxClaimsPerCustomer, Ticker.systemTicker());
+    }
+
+    ClaimVelocityStore(MeterRegistry meterRegistry, boolean enabled, long windowHours, long maxCustomers,
+                       int maxClaimsPerCustomer, Ticker ticker) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.HOURS.toNanos(windowHours);
+        this.maxClaimsPerCustomer = Math.max(1, maxClaimsPerCustomer);
+        this.ticker = ticker;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxCustomers)
+                .expireAfterWrite(windowHours, TimeUnit.HOURS)
+                .ticker(ticker)
+                .scheduler(Scheduler.systemScheduler())
+                .<String, Deque<RecordedClaim>>evictionListener((customerId, claims, cause) -> {
+                    if (claims != null) {
+                        trackedClaims.addAndGet(-claims.size());
+                    }
+                })
+                .build();
+
+        if (enabled) {
+            Gauge.builder("drools_fraud_velocity_customers", windows, Cache::estimatedSize)
+                    .description("Customers with claims in the fraud velocity window")
+                    .tag("component", "drools-engine")
+                    .register(meterRegistry);
+            Gauge.builder("drools_fraud_velocity_window_claims", trackedClaims, AtomicLong::get)
+                    .description("Claims held in the fraud velocity window across all customers")
+                    .tag("component", "drools-engine")
+                    .register(meterRegistry);
+            log.info("Claim velocity store enabled: window={}h, maxCustomers={}, maxClaimsPerCustomer={}",
+                    windowHours, maxCustomers, this.maxClaimsPerCustomer);
+        }
+    }
+
+    /**
+     * Records the claim and sets its recent claim count. Does nothing when the store is
+     * disabled or the claim has no customer id, leaving the caller-supplied value.
+     */
+    public ClaimFact track(ClaimFact claim) {
+        if (!enabled || claim.getCustomerId() == null) {
+            return claim;
+        }
+        long now = ticker.read();
+        int[] recentClaims = new int[1];
+        windows.asMap().compute(claim.getCustomerId(), (customerId, claims) -> {
+            Deque<RecordedClaim> window = claims != null ? claims : new ArrayDeque<>();
+            int sizeBefore = window.size();
+            while (!window.isEmpty() && now - window.peekFirst().recordedAt() > windowNanos) {
+                window.removeFirst();
+            }
+            if (claim.getClaimId() == null
+                    || window.stream().noneMatch(recorded -> claim.getClaimId().equals(recorded.claimId()))) {
+                window.addLast(new RecordedClaim(claim.getClaimId(), now));
+            }
+            while (window.size() > maxClaimsPerCustomer) {
+                window.removeFirst();
+            }
+            trackedClaims.addAndGet(window.size() - sizeBefore);
+            recentClaims[0] = window.size();
+            return window;
+        });
+        claim.setRecentClaimCount(recentClaims[0]);
+        return claim;
+    }
+
+    private record RecordedClaim(String claimId, long recordedAt) {
+    }
+}
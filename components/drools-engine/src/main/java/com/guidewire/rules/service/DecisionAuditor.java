@@ -0,0 +1,44 @@
+package com.guidewire.rules.service;
+
+import java.util.List;
+
+/**
+ * Receives every rule evaluation made by {@link RulesService}, and every decision
+ * served from {@link DecisionCache}. Implementations must return immediately:
+ * {@link #record} runs on the request thread.
+ */
+public interface DecisionAuditor {
+
+    DecisionAuditor NONE = new DecisionAuditor() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+        }
+    };
+
+    /**
+     * When false RulesService skips collecting fired rule names altogether.
+     */
+    boolean isEnabled();
+
+    /**
+     * @param fact          the evaluated fact, with inputs and outputs; not modified afterwards
+     * @param firedRules    names of the rules that fired, in firing order
+     * @param durationNanos time spent inserting the fact and firing the rules
+     */
+    void record(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos);
+
+    /**
+     * Receives a decision served by {@link DecisionCache} instead of the rules.
+     *
+     * @param firedRules    the rules fired by the evaluation the cached decision came from
+     * @param durationNanos time spent looking up and applying the cached decision
+     */
+    default void recordCached(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+        record(domain, fact, firedRules, durationNanos);
+    }
+}
@@ -0,0 +1,224 @@
+package com.guidewire.rules.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional result cache in front of {@link RulesService} for the rule sets whose
+ * outcome depends only on a handful of input fields: commission and incident routing.
+ * Keys hold every input field plus the active rule set version, so a hit always
+ * reproduces what the rules would have returned; the cache is also cleared on every
+ * {@link RuleBaseSwappedEvent}.
+ *
+ * Fraud checks are explicitly excluded. Their date inputs would only be keyable as
+ * {@code daysSinceRegistration()}, but each claim is scored once and the remaining
+ * inputs (claim count, amount, type, evidence flags) make repeats rare, so entries
+ * would only cost memory. Policy validation is excluded for the same reason: its
+ * inputs are customer specific.
+ *
+ * Facts that arrive with output fields already populated bypass the cache, since the
+ * rules accumulate onto those values. Hits are still audited when drools.audit.enabled
+ * is set: the {@link DecisionAuditor} receives the fact with the rules fired by the
+ * evaluation the entry came from, flagged as cached. Publishes cache_gets, cache_puts,
+ * cache_evictions and cache_size with {@code cache=decisions.routing|decisions.commission}.
+ */
+@Service
+public class DecisionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionCache.class);
+
+    private final RulesService rulesService;
+    private final RuleBaseRegistry ruleBaseRegistry;
+    private final boolean enabled;
+    private final Cache<RoutingKey, RoutingDecision> routing;
+    private final Cache<CommissionKey, CommissionDecision> commission;
+
+    public DecisionCache(RulesService rulesService,
+                         RuleBaseRegistry ruleBaseRegistry,
+                         MeterRegistry meterRegistry,
+                         @Value("${drools.cache.enabled:false}") boolean enabled,
+                         @Value("${drools.cache.max-size:10000}") long maxSize,
+                         @Value("${drools.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.rulesService = rulesService;
+        this.ruleBaseRegistry = ruleBaseRegistry;
+        this.enabled = enabled;
+        this.routing = newCache(maxSize, ttlSeconds);
+        this.commission = newCache(maxSize, ttlSeconds);
+
+        if (enabled) {
+            Tags tags = Tags.of("component", "drools-engine");
+            CaffeineCacheMetrics.monitor(meterRegistry, routing, "decisions.routing", tags);
+            CaffeineCacheMetrics.monitor(meterRegistry, commission, "decisions.commission", tags);
+            log.info("Decision cache enabled: maxSize={} per rule set, ttl={}s", maxSize, ttlSeconds);
+        }
+    }
+
+    public IncidentRoutingFact evaluateRoutingRules(IncidentRoutingFact fact) {
+        if (!enabled || !RoutingDecision.isUnevaluated(fact)) {
+            return rulesService.evaluateRoutingRules(fact);
+        }
+        long start = System.nanoTime();
+        RoutingKey key = RoutingKey.of(activeVersion(), fact);
+        RoutingDecision cached = routing.getIfPresent(key);
+        if (cached != null) {
+            cached.applyTo(fact);
+            auditHit(RuleDomain.ROUTING, fact, cached.firedRules(), start);
+            return fact;
+        }
+        List<String> firedRules = new ArrayList<>();
+        IncidentRoutingFact result = rulesService.evaluateRoutingRules(fact, firedRules);
+        routing.put(key, RoutingDecision.of(result, firedRules));
+        return result;
+    }
+
+    public CommissionFact evaluateCommissionRules(CommissionFact fact) {
+        if (!enabled || !CommissionDecision.isUnevaluated(fact)) {
+            return rulesService.evaluateCommissionRules(fact);
+        }
+        long start = System.nanoTime();
+        CommissionKey key = CommissionKey.of(activeVersion(), fact);
+        CommissionDecision cached = commission.getIfPresent(key);
+        if (cached != null) {
+            cached.applyTo(fact);
+            auditHit(RuleDomain.COMMISSION, fact, cached.firedRules(), start);
+            return fact;
+        }
+        List<String> firedRules = new ArrayList<>();
+        CommissionFact result = rulesService.evaluateCommissionRules(fact, firedRules);
+        commission.put(key, CommissionDecision.of(result, firedRules));
+        return result;
+    }
+
+    @EventListener
+    public void onRuleBaseSwapped(RuleBaseSwappedEvent event) {
+        invalidateAll();
+        log.info("Decision cache cleared after switching to rule set version {}", event.active().version());
+    }
+
+    public void invalidateAll() {
+        routing.invalidateAll();
+        commission.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void auditHit(RuleDomain domain, Object fact, List<String> firedRules, long start) {
+        if (rulesService.isAuditEnabled()) {
+            rulesService.auditCached(domain, fact, firedRules, System.nanoTime() - start);
+        }
+    }
+
+    private long activeVersion() {
+        return ruleBaseRegistry.getActive().version();
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static BigDecimal normalize(BigDecimal amount) {
+        return amount == null ? null : amount.stripTrailingZeros();
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? List.of() : List.copyOf(values);
+    }
+
+    /**
+     * Routing rules only compare the claimed amount, so 50000 and 50000.00 share an entry.
+     */
+    record RoutingKey(long ruleSetVersion, String priority, String severity, BigDecimal claimedAmount,
+                      String productType, String customerTier) {
+
+        static RoutingKey of(long ruleSetVersion, IncidentRoutingFact fact) {
+            return new RoutingKey(ruleSetVersion, fact.getPriority(), fact.getSeverity(),
+                    normalize(fact.getClaimedAmount()), fact.getProductType(), fact.getCustomerTier());
+        }
+    }
+
+    /**
+     * The premium keeps its scale: commissionAmount is premium x percentage and inherits it.
+     */
+    record CommissionKey(long ruleSetVersion, String productType, BigDecimal premiumAmount, String salesChannel,
+                         String agentTier, int yearsOfExperience) {
+
+        static CommissionKey of(long ruleSetVersion, CommissionFact fact) {
+            return new CommissionKey(ruleSetVersion, fact.getProductType(), fact.getPremiumAmount(),
+                    fact.getSalesChannel(), fact.getAgentTier(), fact.getYearsOfExperience());
+        }
+    }
+
+    /**
+     * Output fields of an evaluated routing fact; copied onto the request fact on a hit.
+     * firedRules is only filled in when auditing is enabled.
+     */
+    record RoutingDecision(String assignedTeam, int slaHours, boolean escalated, String escalationReason,
+                           List<String> routingNotes, List<String> firedRules) {
+
+        static boolean isUnevaluated(IncidentRoutingFact fact) {
+            return fact.getAssignedTeam() == null && fact.getSlaHours() == 0 && !fact.isEscalated()
+                    && fact.getEscalationReason() == null
+                    && (fact.getRoutingNotes() == null || fact.getRoutingNotes().isEmpty());
+        }
+
+        static RoutingDecision of(IncidentRoutingFact fact, List<String> firedRules) {
+            return new RoutingDecision(fact.getAssignedTeam(), fact.getSlaHours(), fact.isEscalated(),
+                    fact.getEscalationReason(), copyOf(fact.getRoutingNotes()), copyOf(firedRules));
+        }
+
+        void applyTo(IncidentRoutingFact fact) {
+            fact.setAssignedTeam(assignedTeam);
+            fact.setSlaHours(slaHours);
+            fact.setEscalated(escalated);
+            fact.setEscalationReason(escalationReason);
+            fact.setRoutingNotes(new ArrayList<>(routingNotes));
+        }
+    }
+
+    /**
+     * Output fields of an evaluated commission fact; copied onto the request fact on a hit.
+     * firedRules is only filled in when auditing is enabled.
+     */
+    record CommissionDecision(double commissionPercentage, BigDecimal commissionAmount, String commissionTier,
+                              List<String> appliedRules, List<String> firedRules) {
+
+        static boolean isUnevaluated(CommissionFact fact) {
+            return fact.getCommissionPercentage() == 0 && fact.getCommissionAmount() == null
+                    && fact.getCommissionTier() == null
+                    && (fact.getAppliedRules() == null || fact.getAppliedRules().isEmpty());
+        }
+
+        static CommissionDecision of(CommissionFact fact, List<String> firedRules) {
+            return new CommissionDecision(fact.getCommissionPercentage(), fact.getCommissionAmount(),
+                    fact.getCommissionTier(), copyOf(fact.getAppliedRules()), copyOf(firedRules));
+        }
+
+        void applyTo(CommissionFact fact) {
+            fact.setCommissionPercentage(commissionPercentage);
+            fact.setCommissionAmount(commissionAmount);
+            fact.setCommissionTier(commissionTier);
+            fact.setAppliedRules(new ArrayList<>(appliedRules));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.guidewire.rules.service;
+
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Creates a fresh KieSession for every evaluation and disposes it afterwards.
+ * Simplest strategy, kept for debugging and as a baseline for benchmarks.
+ */
+public class PerRequestSessionStrategy implements SessionStrategy {
+
+    private final Supplier<KieBase> kieBase;
+    private final Consumer<KieSession> sessionInitializer;
+
+    public PerRequestSessionStrategy(KieBase kieBase) {
+        this(() -> kieBase, kieSession -> { });
+    }
+
+    /**
+     * @param sessionInitializer applied to every new session before the work runs, e.g. to attach listeners
+     */
+    public PerRequestSessionStrategy(Supplier<KieBase> kieBase, Consumer<KieSession> sessionInitializer) {
+        this.kieBase = kieBase;
+        this.sessionInitializer = sessionInitializer;
+    }
+
+    @Override
+    public <T> T execute(Function<KieSession, T> work) {
+        KieSession kieSession = kieBase.get().newKieSession();
+        try {
+            sessionInitializer.accept(kieSession);
+            return work.apply(kieSession);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+}
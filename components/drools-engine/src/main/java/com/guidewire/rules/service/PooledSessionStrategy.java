@@ -0,0 +1,243 @@
+package com.guidewire.rules.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serves evaluations from a bounded pool of KieSessions built from a single
+ * pre-compiled KieBase. Sessions are created lazily up to {@code maxSize} and
+ * reset (facts, agenda and timers cleared) when they are returned, so the
+ * Rete memory allocated by one evaluation is reused by the next one.
+ *
+ * A session whose evaluation threw is disposed instead of being returned, so a
+ * half-fired agenda never leaks into another request. The KieBase is read from a
+ * supplier on every borrow; when it changes (hot rule deployment) idle sessions of
+ * the old KieBase are disposed as they are encountered and new ones are created
+ * from the active KieBase. A supplier may also return null, when there is nothing to
+ * evaluate on: every session is then stale and borrowing fails.
+ *
+ * Pool stats are published as:
+ * drools_session_pool_max, drools_session_pool_idle, drools_session_pool_in_use,
+ * drools_session_pool_created and drools_session_pool_borrow_wait, tagged with the
+ * name of the KieBase the pool serves.
+ */
+public class PooledSessionStrategy implements SessionStrategy, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledSessionStrategy.class);
+
+    // Waiters re-check periodically whether a disposed session freed up capacity
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Supplier<KieBase> kieBase;
+    private final Consumer<KieSession> sessionInitializer;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+
+    private final BlockingQueue<KieSession> idle;
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final Timer borrowTimer;
+
+    public PooledSessionStrategy(KieBase kieBase, int maxSize, Duration borrowTimeout, MeterRegistry meterRegistry) {
+        this(() -> kieBase, kieSession -> { }, maxSize, borrowTimeout, meterRegistry);
+    }
+
+    public PooledSessionStrategy(Supplier<KieBase> kieBase, Consumer<KieSession> sessionInitializer, int maxSize,
+                                 Duration borrowTimeout, MeterRegistry meterRegistry) {
+        this(kieBase, sessionInitializer, maxSize, borrowTimeout, meterRegistry, RuleDomain.ALL.kieBaseName());
+    }
+
+    /**
+     * @param sessionInitializer applied to every session the pool creates and again after each reset,
+     *                           because a reset also removes the session's event listeners
+     * @param kieBaseName        value of the {@code kbase} tag on the pool metrics
+     */
+    public PooledSessionStrategy(Supplier<KieBase> kieBase, Consumer<KieSession> sessionInitializer, int maxSize,
+                                 Duration borrowTimeout, MeterRegistry meterRegistry, String kieBaseName) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Session pool max size must be at least 1, was " + maxSize);
+        }
+        this.kieBase = kieBase;
+        this.sessionInitializer = sessionInitializer;
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = borrowTimeout.toNanos();
+        this.idle = new LinkedBlockingQueue<>(maxSize);
+
+        Gauge.builder("drools_session_pool_max", () -> this.maxSize)
+                .description("Maximum number of pooled KieSessions")
+                .tag("component", "drools-engine")
+                .tag("kbase", kieBaseName)
+                .register(meterRegistry);
+        Gauge.builder("drools_session_pool_idle", idle, BlockingQueue::size)
+                .description("KieSessions currently idle in the pool")
+                .tag("component", "drools-engine")
+                .tag("kbase", kieBaseName)
+                .register(meterRegistry);
+        Gauge.builder("drools_session_pool_in_use", inUse, AtomicInteger::get)
+                .description("KieSessions currently borrowed by an evaluation")
+                .tag("component", "drools-engine")
+                .tag("kbase", kieBaseName)
+                .register(meterRegistry);
+        FunctionCounter.builder("drools_session_pool_created", totalCreated, AtomicLong::get)
+                .description("Total number of KieSessions created by the pool")
+                .tag("component", "drools-engine")
+                .tag("kbase", kieBaseName)
+                .register(meterRegistry);
+        this.borrowTimer = Timer.builder("drools_session_pool_borrow_wait")
+                .description("Time spent waiting to borrow a KieSession from the pool")
+                .tag("component", "drools-engine")
+                .tag("kbase", kieBaseName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(Function<KieSession, T> work) {
+        KieSession kieSession = borrow();
+        boolean completed = false;
+        try {
+            T result = work.apply(kieSession);
+            completed = true;
+            return result;
+        } finally {
+            release(kieSession, completed);
+        }
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    int getInUseCount() {
+        return inUse.get();
+    }
+
+    long getTotalCreated() {
+        return totalCreated.get();
+    }
+
+    private KieSession borrow() {
+        long start = System.nanoTime();
+        try {
+            KieSession kieSession = discardIfStale(idle.poll());
+            long deadline = start + borrowTimeoutNanos;
+            while (kieSession == null) {
+                kieSession = createIfBelowLimit();
+                if (kieSession != null) {
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out after "
+                            + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos)
+                            + " ms waiting for a KieSession (pool max size " + maxSize + ")");
+                }
+                kieSession = discardIfStale(idle.poll(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS));
+            }
+            inUse.incrementAndGet();
+            return kieSession;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a KieSession", e);
+        } finally {
+            borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private KieSession createIfBelowLimit() {
+        int current;
+        do {
+            current = live.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!live.compareAndSet(current, current + 1));
+
+        try {
+            KieBase source = kieBase.get();
+            if (source == null) {
+                throw new IllegalStateException("No KieBase to create a KieSession from");
+            }
+            KieSession kieSession = source.newKieSession();
+            sessionInitializer.accept(kieSession);
+            totalCreated.incrementAndGet();
+            log.debug("Created pooled KieSession ({} of max {})", current + 1, maxSize);
+            return kieSession;
+        } catch (RuntimeException e) {
+            live.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(KieSession kieSession, boolean completed) {
+        inUse.decrementAndGet();
+        if (completed && !isStale(kieSession) && reset(kieSession) && idle.offer(kieSession)) {
+            return;
+        }
+        discard(kieSession);
+    }
+
+    private boolean isStale(KieSession kieSession) {
+        return kieSession.getKieBase() != kieBase.get();
+    }
+
+    private KieSession discardIfStale(KieSession kieSession) {
+        if (kieSession != null && isStale(kieSession)) {
+            discard(kieSession);
+            return null;
+        }
+        return kieSession;
+    }
+
+    private boolean reset(KieSession kieSession) {
+        if (!(kieSession instanceof StatefulKnowledgeSessionImpl statefulSession)) {
+            return false;
+        }
+        try {
+            statefulSession.reset();
+            sessionInitializer.accept(kieSession);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to reset pooled KieSession, discarding it: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(KieSession kieSession) {
+        live.decrementAndGet();
+        try {
+            kieSession.dispose();
+        } catch (RuntimeException e) {
+            log.warn("Failed to dispose KieSession: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Disposes the idle sessions. Sessions still in use are disposed when they are
+     * returned if their KieBase is stale by then; the pool stays usable.
+     */
+    @Override
+    public void close() {
+        KieSession kieSession;
+        while ((kieSession = idle.poll()) != null) {
+            discard(kieSession);
+        }
+    }
+}
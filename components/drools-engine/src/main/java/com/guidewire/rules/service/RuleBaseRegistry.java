@@ -0,0 +1,150 @@
+package com.guidewire.rules.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the KieBases that evaluations run against, plus the version they replaced so
+ * a bad deployment can be rolled back instantly. Swapping is a single reference
+ * update that replaces the KieBases of all domains together: evaluations already
+ * running keep the session (and KieBase) they started with, new evaluations see the
+ * new KieBases. No request is paused or dropped.
+ *
+ * It can also hold a shadow version: a candidate rule set that {@link ShadowEvaluator}
+ * runs next to the active one without serving any response, until it is promoted or
+ * stopped.
+ *
+ * Publishes drools_rules_active_version, drools_rules_shadow_version and
+ * drools_rules_last_swap_timestamp_seconds.
+ */
+@Service
+public class RuleBaseRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleBaseRegistry.class);
+
+    public static final long INITIAL_VERSION = 1;
+
+    private final AtomicReference<RuleBaseVersion> active;
+    private final AtomicLong versionSequence = new AtomicLong(INITIAL_VERSION);
+    private final AtomicLong lastSwapEpochMillis = new AtomicLong();
+    private volatile RuleBaseVersion previous;
+    private volatile RuleBaseVersion shadow;
+
+    public RuleBaseRegistry(KieContainer kieContainer, MeterRegistry meterRegistry) {
+        this.active = new AtomicReference<>(new RuleBaseVersion(INITIAL_VERSION, "classpath",
+                kieContainer.getReleaseId(), RuleKieModule.kieBases(kieContainer), Instant.now(), 0));
+
+        Gauge.builder("drools_rules_active_version", active, ref -> ref.get().version())
+                .description("Version of the rule set currently serving evaluations")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        Gauge.builder("drools_rules_shadow_version", this, registry -> registry.getShadow()
+                        .map(RuleBaseVersion::version).orElse(0L))
+                .description("Version of the rule set evaluated in shadow, 0 if none")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        Gauge.builder("drools_rules_last_swap_timestamp_seconds", lastSwapEpochMillis, millis -> millis.get() / 1000.0)
+                .description("Epoch seconds of the last KieBase swap, 0 if the packaged rules were never replaced")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+    }
+
+    public KieBase getActiveKieBase(RuleDomain domain) {
+        return active.get().kieBase(domain);
+    }
+
+    public RuleBaseVersion getActive() {
+        return active.get();
+    }
+
+    public Optional<RuleBaseVersion> getPrevious() {
+        return Optional.ofNullable(previous);
+    }
+
+    public Optional<RuleBaseVersion> getShadow() {
+        return Optional.ofNullable(shadow);
+    }
+
+    long nextVersion() {
+        return versionSequence.incrementAndGet();
+    }
+
+    /**
+     * Makes {@code next} the active version and keeps the current one for rollback.
+     *
+     * @return the version that was kept for rollback until now and is no longer reachable, if any
+     */
+    synchronized Optional<RuleBaseVersion> activate(RuleBaseVersion next) {
+        RuleBaseVersion evicted = previous;
+        previous = active.getAndSet(next);
+        lastSwapEpochMillis.set(System.currentTimeMillis());
+        log.info("Activated rule set version {} (source={}), previous version {} kept for rollback",
+                next.version(), next.source(), previous.version());
+        return Optional.ofNullable(evicted);
+    }
+
+    /**
+     * Swaps the active and previous versions, so a rollback can itself be undone.
+     *
+     * @return the version that is active after the rollback
+     */
+    synchronized RuleBaseVersion rollback() {
+        if (previous == null) {
+            throw new IllegalStateException("No previous rule set version to roll back to");
+        }
+        RuleBaseVersion current = active.getAndSet(previous);
+        previous = current;
+        lastSwapEpochMillis.set(System.currentTimeMillis());
+        log.warn("Rolled back rule set from version {} to version {}", current.version(), active.get().version());
+        return active.get();
+    }
+
+    /**
+     * Makes {@code next} the shadow version, replacing the current one if any.
+     *
+     * @return the shadow version replaced, which is no longer reachable
+     */
+    synchronized Optional<RuleBaseVersion> startShadow(RuleBaseVersion next) {
+        RuleBaseVersion replaced = shadow;
+        shadow = next;
+        log.info("Evaluating rule set version {} (source={}) in shadow", next.version(), next.source());
+        return Optional.ofNullable(replaced);
+    }
+
+    /**
+     * @return the shadow version stopped, if there was one
+     */
+    synchronized Optional<RuleBaseVersion> stopShadow() {
+        RuleBaseVersion stopped = shadow;
+        shadow = null;
+        if (stopped != null) {
+            log.info("Stopped shadow evaluation of rule set version {}", stopped.version());
+        }
+        return Optional.ofNullable(stopped);
+    }
+
+    /**
+     * Activates the shadow version, as {@link #activate} does for a new deployment.
+     *
+     * @return the version that was kept for rollback until now and is no longer reachable, if any
+     */
+    synchronized Optional<RuleBaseVersion> promoteShadow() {
+        if (shadow == null) {
+            throw new IllegalStateException("No shadow rule set version to promote");
+        }
+        RuleBaseVersion promoted = shadow;
+        shadow = null;
+        return activate(new RuleBaseVersion(promoted.version(), promoted.source(), promoted.releaseId(),
+                promoted.kieBases(), Instant.now(), promoted.compileMillis()));
+    }
+}
@@ -0,0 +1,8 @@
+package com.guidewire.rules.service;
+
+/**
+ * Published after the active KieBase has been replaced by a deployment or a rollback.
+ * Anything derived from rule results (e.g. caches) must be discarded on this event.
+ */
+public record RuleBaseSwappedEvent(RuleBaseVersion active, RuleBaseVersion replaced) {
+}
@@ -0,0 +1,28 @@
+package com.guidewire.rules.service;
+
+import org.kie.api.KieBase;
+import org.kie.api.builder.ReleaseId;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A compiled rule set that can be served by RulesService.
+ *
+ * @param version       monotonically increasing number, 1 is the rule set packaged with the application
+ * @param source        where the DRL came from: classpath, upload or directory
+ * @param releaseId     KieModule the KieBases were built from
+ * @param kieBases      KieBase of every rule domain
+ * @param compileMillis time spent compiling the DRL, 0 for the packaged rule set
+ */
+public record RuleBaseVersion(long version,
+                              String source,
+                              ReleaseId releaseId,
+                              Map<RuleDomain, KieBase> kieBases,
+                              Instant activatedAt,
+                              long compileMillis) {
+
+    public KieBase kieBase(RuleDomain domain) {
+        return kieBases.get(domain);
+    }
+}
@@ -0,0 +1,253 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.RuleBaseStatus;
+import com.guidewire.rules.model.RuleDeploymentResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Deploys a new DRL rule set without restarting the application: the DRL is compiled
+ * on the single-threaded {@code rulesDeployExecutor}, checked by {@link RuleSmokeValidator}
+ * and only then swapped in through {@link RuleBaseRegistry}. Traffic keeps running on the
+ * current KieBase the whole time. Deployments are serialized, so two uploads can never
+ * race each other into the registry.
+ *
+ * Hot-deployed rules are compiled with the classic DRL compiler; the executable model is
+ * only produced by the Maven build. Each DRL lands in the domain KieBase of its declared
+ * package (see {@link RuleDomain}); rules in any other package only reach the default
+ * KieBase.
+ *
+ * A rule set can also be deployed in shadow ({@link #deployShadow}): it goes through the
+ * same compilation and validation, but is only evaluated next to the active one by
+ * {@link ShadowEvaluator} until it is promoted or stopped.
+ */
+@Service
+public class RuleDeploymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleDeploymentService.class);
+
+    private static final Pattern DRL_FILE_NAME = Pattern.compile("[A-Za-z0-9._-]+\\.drl");
+
+    private final RuleBaseRegistry registry;
+    private final RuleSmokeValidator smokeValidator;
+    private final KieServices kieServices;
+    private final AsyncTaskExecutor executor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public RuleDeploymentService(RuleBaseRegistry registry,
+                                 RuleSmokeValidator smokeValidator,
+                                 KieServices kieServices,
+                                 @Qualifier("rulesDeployExecutor") AsyncTaskExecutor executor,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.smokeValidator = smokeValidator;
+        this.kieServices = kieServices;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Compiles, validates and activates a complete rule set in the background.
+     *
+     * @param drlFiles file name to DRL content; replaces all currently active rules
+     * @param source   label recorded with the version (upload, directory)
+     */
+    public CompletableFuture<RuleDeploymentResult> deploy(Map<String, String> drlFiles, String source) {
+        checkFiles(drlFiles);
+        return CompletableFuture.supplyAsync(() -> doDeploy(drlFiles, source, false), executor);
+    }
+
+    /**
+     * Compiles and validates a complete rule set in the background and evaluates it in
+     * shadow, replacing the current shadow rule set if any. The active rule set is untouched.
+     */
+    public CompletableFuture<RuleDeploymentResult> deployShadow(Map<String, String> drlFiles, String source) {
+        checkFiles(drlFiles);
+        return CompletableFuture.supplyAsync(() -> doDeploy(drlFiles, source, true), executor);
+    }
+
+    /**
+     * Activates the shadow rule set; the active one is kept for rollback.
+     *
+     * @throws IllegalStateException if no rule set is in shadow
+     */
+    public RuleDeploymentResult promoteShadow() {
+        RuleBaseVersion replaced = registry.getActive();
+        registry.promoteShadow().ifPresent(this::release);
+        RuleBaseVersion promoted = registry.getActive();
+        countDeployment(RuleDeploymentResult.Status.ACTIVATED);
+        eventPublisher.publishEvent(new RuleBaseSwappedEvent(promoted, replaced));
+        eventPublisher.publishEvent(new ShadowStoppedEvent(promoted, true));
+        return accepted(RuleDeploymentResult.Status.ACTIVATED, promoted);
+    }
+
+    /**
+     * @throws IllegalStateException if no rule set is in shadow
+     */
+    public void stopShadow() {
+        RuleBaseVersion stopped = registry.stopShadow()
+                .orElseThrow(() -> new IllegalStateException("No shadow rule set version to stop"));
+        release(stopped);
+        eventPublisher.publishEvent(new ShadowStoppedEvent(stopped, false));
+    }
+
+    private static void checkFiles(Map<String, String> drlFiles) {
+        if (drlFiles.isEmpty()) {
+            throw new IllegalArgumentException("A rule deployment needs at least one DRL file");
+        }
+        drlFiles.keySet().stream()
+                .filter(name -> !DRL_FILE_NAME.matcher(name).matches())
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalArgumentException("Invalid DRL file name '" + name + "'");
+                });
+    }
+
+    public RuleDeploymentResult rollback() {
+        RuleBaseVersion replaced = registry.getActive();
+        RuleBaseVersion restored = registry.rollback();
+        countDeployment(RuleDeploymentResult.Status.ROLLED_BACK);
+        eventPublisher.publishEvent(new RuleBaseSwappedEvent(restored, replaced));
+        return accepted(RuleDeploymentResult.Status.ROLLED_BACK, restored);
+    }
+
+    public RuleBaseStatus status() {
+        return RuleBaseStatus.builder()
+                .active(toStatusVersion(registry.getActive()))
+                .previous(registry.getPrevious().map(RuleDeploymentService::toStatusVersion).orElse(null))
+                .shadow(registry.getShadow().map(RuleDeploymentService::toStatusVersion).orElse(null))
+                .build();
+    }
+
+    private RuleDeploymentResult doDeploy(Map<String, String> drlFiles, String source, boolean shadow) {
+        long version = registry.nextVersion();
+        if (NativeDetector.inNativeImage()) {
+            return rejected(RuleDeploymentResult.Status.COMPILE_FAILED, version, source, 0,
+                    List.of("Hot rule deployment compiles DRL at runtime, which the native image does not support"));
+        }
+        ReleaseId releaseId = kieServices.newReleaseId("com.guidewire.rules", "drools-engine-rules-deployed",
+                "1.0." + version);
+        log.info("Compiling rule set version {} from {} ({} DRL files)", version, source, drlFiles.size());
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        kieFileSystem.writeKModuleXML(RuleKieModule.model(kieServices).toXML());
+        drlFiles.forEach((name, content) -> kieFileSystem.write(RuleKieModule.resourcePath(name, content), content));
+
+        long start = System.nanoTime();
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
+        long compileNanos = System.nanoTime() - start;
+        long compileMs = TimeUnit.NANOSECONDS.toMillis(compileNanos);
+        boolean compiled = !kieBuilder.getResults().hasMessages(Message.Level.ERROR);
+        Timer.builder("drools_rules_compile_duration")
+                .description("Time spent compiling a deployed DRL rule set")
+                .tag("component", "drools-engine")
+                .tag("outcome", compiled ? "success" : "failure")
+                .register(meterRegistry)
+                .record(compileNanos, TimeUnit.NANOSECONDS);
+
+        if (!compiled) {
+            List<String> errors = kieBuilder.getResults().getMessages(Message.Level.ERROR).stream()
+                    .map(Message::toString)
+                    .toList();
+            log.warn("Rule set version {} failed to compile: {}", version, errors);
+            return rejected(RuleDeploymentResult.Status.COMPILE_FAILED, version, source, compileMs, errors);
+        }
+
+        Map<RuleDomain, KieBase> candidate = RuleKieModule.kieBases(kieServices.newKieContainer(releaseId));
+        List<String> failures = smokeValidator.validate(candidate);
+        if (!failures.isEmpty()) {
+            log.warn("Rule set version {} failed smoke validation: {}", version, failures);
+            kieServices.getRepository().removeKieModule(releaseId);
+            return rejected(RuleDeploymentResult.Status.VALIDATION_FAILED, version, source, compileMs, failures);
+        }
+
+        RuleBaseVersion next = new RuleBaseVersion(version, source, releaseId, candidate, Instant.now(), compileMs);
+        if (shadow) {
+            registry.startShadow(next).ifPresent(this::release);
+            countDeployment(RuleDeploymentResult.Status.SHADOWED);
+            return accepted(RuleDeploymentResult.Status.SHADOWED, next);
+        }
+
+        RuleBaseVersion replaced = registry.getActive();
+        registry.activate(next).ifPresent(this::release);
+        countDeployment(RuleDeploymentResult.Status.ACTIVATED);
+        eventPublisher.publishEvent(new RuleBaseSwappedEvent(next, replaced));
+        return accepted(RuleDeploymentResult.Status.ACTIVATED, next);
+    }
+
+    private static RuleDeploymentResult accepted(RuleDeploymentResult.Status status, RuleBaseVersion version) {
+        return RuleDeploymentResult.builder()
+                .status(status)
+                .version(version.version())
+                .source(version.source())
+                .compileMs(version.compileMillis())
+                .activatedAt(version.activatedAt())
+                .build();
+    }
+
+    private RuleDeploymentResult rejected(RuleDeploymentResult.Status status, long version, String source,
+                                          long compileMs, List<String> errors) {
+        countDeployment(status);
+        return RuleDeploymentResult.builder()
+                .status(status)
+                .version(version)
+                .source(source)
+                .compileMs(compileMs)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * A version that fell out of the rollback slot is unreachable; drop its KieModule from the
+     * repository. Pooled sessions built from it are disposed by the pool on their next borrow.
+     */
+    private void release(RuleBaseVersion evicted) {
+        if (evicted.version() != RuleBaseRegistry.INITIAL_VERSION) {
+            kieServices.getRepository().removeKieModule(evicted.releaseId());
+        }
+    }
+
+    private void countDeployment(RuleDeploymentResult.Status status) {
+        Counter.builder("drools_rules_deployments")
+                .description("Rule set deployments and rollbacks by outcome")
+                .tag("component", "drools-engine")
+                .tag("outcome", status.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static RuleBaseStatus.Version toStatusVersion(RuleBaseVersion version) {
+        return RuleBaseStatus.Version.builder()
+                .version(version.version())
+                .source(version.source())
+                .releaseId(version.releaseId().toString())
+                .activatedAt(version.activatedAt())
+                .compileMs(version.compileMillis())
+                .build();
+    }
+}
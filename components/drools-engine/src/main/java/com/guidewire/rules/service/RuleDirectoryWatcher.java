@@ -0,0 +1,124 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.RuleDeploymentResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches {@code drools.deployment.watch-dir} and deploys its *.drl files as a complete
+ * rule set whenever they change. Bursts of file events (editors, ConfigMap symlink swaps)
+ * are collapsed into one deployment after a quiet period, and an unchanged rule set is
+ * not redeployed. Only created when the property is set.
+ */
+@Service
+@ConditionalOnExpression("!'${drools.deployment.watch-dir:}'.isBlank()")
+public class RuleDirectoryWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleDirectoryWatcher.class);
+
+    private final RuleDeploymentService deploymentService;
+    private final Path directory;
+    private final long debounceMs;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private Map<String, String> lastDeployed = Map.of();
+
+    public RuleDirectoryWatcher(RuleDeploymentService deploymentService,
+                                @Value("${drools.deployment.watch-dir}") String directory,
+                                @Value("${drools.deployment.watch-debounce-ms:1000}") long debounceMs) {
+        this.deploymentService = deploymentService;
+        this.directory = Path.of(directory);
+        this.debounceMs = debounceMs;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException("drools.deployment.watch-dir is not a directory: " + directory);
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        watcherThread = new Thread(this::watch, "rules-dir-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("Watching {} for rule changes", directory);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchService.close();
+        watcherThread.interrupt();
+    }
+
+    private void watch() {
+        deployIfChanged();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                awaitQuietChange(watchService.take());
+                deployIfChanged();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.info("Stopped watching {}", directory);
+        }
+    }
+
+    private void awaitQuietChange(WatchKey key) throws InterruptedException {
+        key.pollEvents();
+        key.reset();
+        WatchKey next;
+        while ((next = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+            next.pollEvents();
+            next.reset();
+        }
+    }
+
+    private void deployIfChanged() {
+        try {
+            Map<String, String> drlFiles = readDrlFiles();
+            if (drlFiles.isEmpty()) {
+                log.warn("No DRL files in {}, keeping the active rule set", directory);
+                return;
+            }
+            if (drlFiles.equals(lastDeployed)) {
+                return;
+            }
+            RuleDeploymentResult result = deploymentService.deploy(drlFiles, "directory").join();
+            lastDeployed = drlFiles;
+            log.info("Deployment of {} finished: status={}, version={}, errors={}",
+                    directory, result.getStatus(), result.getVersion(), result.getErrors());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to deploy rules from {}: {}", directory, e.getMessage(), e);
+        }
+    }
+
+    private Map<String, String> readDrlFiles() throws IOException {
+        Map<String, String> drlFiles = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.drl")) {
+            for (Path file : files) {
+                drlFiles.put(file.getFileName().toString(), Files.readString(file));
+            }
+        }
+        return drlFiles;
+    }
+}
@@ -0,0 +1,60 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+
+import java.util.List;
+
+/**
+ * The rule sets RulesService evaluates, each served by its own named KieBase (see
+ * {@link RuleKieModule}). A session of a domain KieBase only carries the Rete network
+ * of that domain's DRL package, so it is cheaper to create and smaller to keep.
+ *
+ * {@link #ALL} is the module's default KieBase. It has no package filter, so it holds
+ * every DRL of the module (and a DRL that does not compile fails the whole build, as
+ * before the split). Claim intake uses it because it evaluates fraud, routing and
+ * policy facts on one session.
+ */
+public enum RuleDomain {
+
+    FRAUD("fraud", ClaimFact.class, "com.guidewire.rules.fraud"),
+    POLICY("policy", PolicyFact.class, "com.guidewire.rules.policy"),
+    COMMISSION("commission", CommissionFact.class, "com.guidewire.rules.commission"),
+    ROUTING("routing", IncidentRoutingFact.class, "com.guidewire.rules.routing"),
+    ALL("rules", null);
+
+    private final String kieBaseName;
+    private final Class<?> factType;
+    private final List<String> packages;
+
+    RuleDomain(String kieBaseName, Class<?> factType, String... packages) {
+        this.kieBaseName = kieBaseName;
+        this.factType = factType;
+        this.packages = List.of(packages);
+    }
+
+    public String kieBaseName() {
+        return kieBaseName;
+    }
+
+    /**
+     * @return DRL packages of the KieBase, empty for no filter
+     */
+    public List<String> packages() {
+        return packages;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no single-domain KieBase has rules for the fact type
+     */
+    public static RuleDomain forFactType(Class<?> factType) {
+        for (RuleDomain domain : values()) {
+            if (domain.factType != null && domain.factType == factType) {
+                return domain;
+            }
+        }
+        throw new IllegalArgumentException("No rule domain for fact type " + factType.getName());
+    }
+}
@@ -0,0 +1,65 @@
+package com.guidewire.rules.service;
+
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieContainer;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * kmodule layout shared by the packaged rules (executable model and DRL fallback) and
+ * hot deployments: one KieBase per {@link RuleDomain}, with {@link RuleDomain#ALL} as
+ * the default KieBase and session.
+ *
+ * A kmodule KieBase selects its rules by resource folder, not by the package declared
+ * inside the DRL, so every DRL is written to the folder of its declared package.
+ */
+public final class RuleKieModule {
+
+    private static final String RESOURCES_ROOT = "src/main/resources/";
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)", Pattern.MULTILINE);
+
+    private RuleKieModule() {
+    }
+
+    public static KieModuleModel model(KieServices kieServices) {
+        KieModuleModel kieModule = kieServices.newKieModuleModel();
+        for (RuleDomain domain : RuleDomain.values()) {
+            KieBaseModel kieBase = kieModule.newKieBaseModel(domain.kieBaseName());
+            domain.packages().forEach(kieBase::addPackage);
+            if (domain == RuleDomain.ALL) {
+                kieBase.setDefault(true)
+                        .newKieSessionModel("rules-session")
+                        .setDefault(true);
+            }
+        }
+        return kieModule;
+    }
+
+    /**
+     * @return path inside a KieFileSystem for the DRL, under the folder of its package declaration
+     */
+    public static String resourcePath(String fileName, String drl) {
+        Matcher matcher = PACKAGE_DECLARATION.matcher(drl);
+        String folder = matcher.find() ? matcher.group(1).replace('.', '/') + "/" : "";
+        return RESOURCES_ROOT + folder + fileName;
+    }
+
+    /**
+     * Builds every domain KieBase of the container up front, so the first request of a
+     * domain does not pay for it.
+     */
+    public static Map<RuleDomain, KieBase> kieBases(KieContainer kieContainer) {
+        Map<RuleDomain, KieBase> kieBases = new EnumMap<>(RuleDomain.class);
+        for (RuleDomain domain : RuleDomain.values()) {
+            kieBases.put(domain, kieContainer.getKieBase(domain.kieBaseName()));
+        }
+        return Collections.unmodifiableMap(kieBases);
+    }
+}
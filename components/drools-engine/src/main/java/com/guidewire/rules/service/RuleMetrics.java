@@ -0,0 +1,155 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.RuleStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-rule instrumentation for the KieSessions used by RulesService.
+ *
+ * The session strategies call {@link #instrument} before every evaluation (on a new
+ * session, or on a pooled one after its reset removed the previous listeners). Only a
+ * {@code drools.metrics.rules.sample-rate} fraction of evaluations gets a listener; the
+ * others run with no listener at all, so Drools does not even allocate events for them.
+ * That keeps the overhead negligible with the instrumentation always on.
+ *
+ * On sampled evaluations every firing is counted in drools_rule_fired with a weight of
+ * 1/sample-rate (an unbiased estimate of all firings) and its consequence is timed in
+ * drools_rule_duration. Working memory changes made by consequences (modify, insert,
+ * delete) are counted the same way in drools_rule_working_memory_actions. All meters are
+ * tagged with the rule name and package.
+ */
+@Component
+public class RuleMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double sampleRate;
+    // Keyed by Rule: equality is package + name, so redeployed rule sets share meters without
+    // building a key string on every firing
+    private final Map<Rule, RuleMeters> meters = new ConcurrentHashMap<>();
+
+    public RuleMetrics(MeterRegistry meterRegistry,
+                       @Value("${drools.metrics.rules.enabled:true}") boolean enabled,
+                       @Value("${drools.metrics.rules.sample-rate:0.1}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("drools.metrics.rules.sample-rate must be between 0 and 1, was "
+                    + sampleRate);
+        }
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Attaches the rule listeners to a session that is about to run an evaluation, if the
+     * evaluation is sampled. The listener keeps per-firing state, which is safe because a
+     * session is only used by one evaluation at a time.
+     */
+    public void instrument(KieSession kieSession) {
+        if (!enabled || sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        RuleMetricsListener listener = new RuleMetricsListener(this, 1 / sampleRate);
+        kieSession.addEventListener((AgendaEventListener) listener);
+        kieSession.addEventListener((RuleRuntimeEventListener) listener);
+    }
+
+    /**
+     * @param sortBy {@code fired} (default) or {@code time} (total sampled consequence time)
+     */
+    public List<RuleStats> topRules(int limit, String sortBy) {
+        Comparator<RuleStats> order = "time".equals(sortBy)
+                ? Comparator.comparingDouble(RuleStats::getSampledTotalMs)
+                : Comparator.comparingLong(RuleStats::getFired);
+        return meters.values().stream()
+                .map(RuleMeters::toStats)
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    RuleMeters metersFor(Rule rule) {
+        RuleMeters ruleMeters = meters.get(rule);
+        if (ruleMeters == null) {
+            ruleMeters = meters.computeIfAbsent(rule,
+                    key -> new RuleMeters(key.getPackageName(), key.getName(), meterRegistry));
+        }
+        return ruleMeters;
+    }
+
+    /**
+     * Meters of a single rule, resolved once and cached so firings never go through registry lookups.
+     */
+    static final class RuleMeters {
+
+        private final String packageName;
+        private final String ruleName;
+        private final MeterRegistry meterRegistry;
+        private final Counter fired;
+        private final Timer duration;
+        private final Map<String, Counter> workingMemoryActions = new ConcurrentHashMap<>();
+
+        RuleMeters(String packageName, String ruleName, MeterRegistry meterRegistry) {
+            this.packageName = packageName;
+            this.ruleName = ruleName;
+            this.meterRegistry = meterRegistry;
+            this.fired = Counter.builder("drools_rule_fired")
+                    .description("Number of times a rule fired (estimated from sampled evaluations)")
+                    .tag("component", "drools-engine")
+                    .tag("rule", ruleName)
+                    .tag("package", packageName)
+                    .register(meterRegistry);
+            this.duration = Timer.builder("drools_rule_duration")
+                    .description("Duration of rule consequences in sampled evaluations")
+                    .tag("component", "drools-engine")
+                    .tag("rule", ruleName)
+                    .tag("package", packageName)
+                    .register(meterRegistry);
+        }
+
+        void fired(double weight) {
+            fired.increment(weight);
+        }
+
+        void recordDuration(long nanos) {
+            duration.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void workingMemoryAction(String action, double weight) {
+            workingMemoryActions.computeIfAbsent(action, key -> Counter.builder("drools_rule_working_memory_actions")
+                    .description("Facts inserted, updated or deleted by rule consequences")
+                    .tag("component", "drools-engine")
+                    .tag("rule", ruleName)
+                    .tag("package", packageName)
+                    .tag("action", key)
+                    .register(meterRegistry)).increment(weight);
+        }
+
+        RuleStats toStats() {
+            return RuleStats.builder()
+                    .rule(ruleName)
+                    .packageName(packageName)
+                    .fired((long) fired.count())
+                    .sampled(duration.count())
+                    .sampledMeanMs(duration.mean(TimeUnit.MILLISECONDS))
+                    .sampledMaxMs(duration.max(TimeUnit.MILLISECONDS))
+                    .sampledTotalMs(duration.totalTime(TimeUnit.MILLISECONDS))
+                    .build();
+        }
+    }
+}
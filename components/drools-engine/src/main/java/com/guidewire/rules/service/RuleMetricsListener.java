@@ -0,0 +1,64 @@
+package com.guidewire.rules.service;
+
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+
+
+/**
+ * Feeds {@link RuleMetrics} from one sampled evaluation. Not thread-safe by design: a
+ * session (and therefore its listener) is only ever used by one evaluation at a time,
+ * and consequences never nest, so a single start timestamp is enough.
+ */
+class RuleMetricsListener extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    private final RuleMetrics ruleMetrics;
+    // Each sampled firing stands for 1/sample-rate firings
+    private final double weight;
+
+    private long firingStartNanos;
+
+    RuleMetricsListener(RuleMetrics ruleMetrics, double weight) {
+        this.ruleMetrics = ruleMetrics;
+        this.weight = weight;
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        firingStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        RuleMetrics.RuleMeters meters = ruleMetrics.metersFor(event.getMatch().getRule());
+        meters.recordDuration(System.nanoTime() - firingStartNanos);
+        meters.fired(weight);
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        countAction(event.getRule(), "insert");
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        countAction(event.getRule(), "update");
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        countAction(event.getRule(), "delete");
+    }
+
+    // Only changes made by rule consequences; RulesService's own insert/delete have no rule
+    private void countAction(Rule rule, String action) {
+        if (rule != null) {
+            ruleMetrics.metersFor(rule).workingMemoryAction(action, weight);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+import org.kie.api.KieBase;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a fixed set of representative facts through the KieBases of a candidate before it is
+ * activated. The checks are deliberately threshold-agnostic: they verify that every
+ * rule domain is present and produces its mandatory outputs, not specific scores or
+ * percentages, so a legitimate threshold change still passes. Each domain is checked
+ * on its own KieBase, so a DRL written to the wrong package is caught as well.
+ */
+@Component
+public class RuleSmokeValidator {
+
+    /**
+     * @return human-readable failures, empty if the candidate may be activated
+     */
+    public List<String> validate(Map<RuleDomain, KieBase> candidate) {
+        RulesService rulesService = new RulesService(
+                new SessionStrategies(domain -> new PerRequestSessionStrategy(candidate.get(domain))));
+        List<String> failures = new ArrayList<>();
+
+        check(failures, "fraud: risk level is assigned",
+                RuleSmokeValidator::claim, rulesService::evaluateFraudRules,
+                claim -> claim.getRiskLevel() != null);
+        check(failures, "policy: missing policy id is rejected",
+                () -> policy(null), rulesService::evaluatePolicyValidation,
+                policy -> !policy.isEligible());
+        check(failures, "policy: complete policy is eligible",
+                () -> policy("POL-SMOKE"), rulesService::evaluatePolicyValidation,
+                PolicyFact::isEligible);
+        check(failures, "commission: amount is calculated",
+                RuleSmokeValidator::commission, rulesService::evaluateCommissionRules,
+                commission -> commission.getCommissionAmount() != null);
+        check(failures, "routing: a team is assigned",
+                RuleSmokeValidator::routing, rulesService::evaluateRoutingRules,
+                routing -> routing.getAssignedTeam() != null);
+
+        return failures;
+    }
+
+    private static <T> void check(List<String> failures, String name, Supplier<T> fact,
+                                  UnaryOperator<T> evaluation, Predicate<T> expectation) {
+        try {
+            if (!expectation.test(evaluation.apply(fact.get()))) {
+                failures.add(name);
+            }
+        } catch (RuntimeException e) {
+            failures.add(name + " (" + e.getClass().getSimpleName() + ": " + e.getMessage() + ")");
+        }
+    }
+
+    private static ClaimFact claim() {
+        return ClaimFact.builder()
+                .claimId("CLM-SMOKE")
+                .customerId("CUST-SMOKE")
+                .claimedAmount(new BigDecimal("5000"))
+                .incidentDate(LocalDate.now())
+                .customerRegistrationDate(LocalDate.now().minusYears(3))
+                .claimCount(1)
+                .claimType("COLLISION")
+                .hasPoliceReport(true)
+                .hasWitnesses(true)
+                .build();
+    }
+
+    private static PolicyFact policy(String policyId) {
+        return PolicyFact.builder()
+                .policyId(policyId)
+                .customerId("CUST-SMOKE")
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("1200"))
+                .coverageLimit(new BigDecimal("50000"))
+                .customerStatus("ACTIVE")
+                .customerAge(40)
+                .customerName("Smoke Test")
+                .customerEmail("smoke@example.com")
+                .build();
+    }
+
+    private static CommissionFact commission() {
+        return CommissionFact.builder()
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("10000"))
+                .salesChannel("AGENT")
+                .agentTier("JUNIOR")
+                .yearsOfExperience(1)
+                .build();
+    }
+
+    private static IncidentRoutingFact routing() {
+        return IncidentRoutingFact.builder()
+                .priority("LOW")
+                .severity("MINOR")
+                .claimedAmount(new BigDecimal("1000"))
+                .productType("AUTO")
+                .customerTier("STANDARD")
+                .build();
+    }
+}
@@ -0,0 +1,248 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the rule engine up before it takes traffic. Right after startup the Rete
+ * networks, session pools and JIT are cold, and the first few thousand evaluations are
+ * several times slower than steady state.
+ *
+ * Once the application is ready, a background thread replays a synthetic corpus (every
+ * rule domain plus the KieBase with all rule sets, across amount bands, products, tiers and priorities)
+ * in rounds of {@code drools.warmup.round-size} evaluations. It stops when the mean
+ * latency of {@code stable-rounds} consecutive rounds moves by less than
+ * {@code tolerance}, or after {@code max-rounds} / {@code max-duration-ms}. As a
+ * health indicator in the readiness group it reports OUT_OF_SERVICE until then, so the
+ * pod only becomes ready when warm.
+ *
+ * The warm-up evaluates on the production session pools but bypasses the decision
+ * cache, velocity store, audit trail and shadow evaluation. Publishes
+ * drools_warmup_duration_seconds, drools_warmup_rounds and the latency curve as
+ * drools_warmup_round_latency_seconds{round}.
+ */
+@Service
+public class RuleWarmup implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleWarmup.class);
+
+    private static final String[] CLAIM_TYPES = {"COLLISION", "THEFT", "FIRE", "FLOOD", "LIABILITY"};
+    private static final String[] CLAIM_AMOUNTS = {"15000", "120000", "350000", "750000", "1500000"};
+    private static final String[] PRODUCTS = {"AUTO", "HOME", "LIFE", "HEALTH", "COMMERCIAL"};
+    private static final String[] CHANNELS = {"AGENT", "BROKER", "DIGITAL", "DIRECT"};
+    private static final String[] AGENT_TIERS = {"JUNIOR", "SENIOR", "EXECUTIVE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final String[] SEVERITIES = {"MINOR", "MODERATE", "MAJOR", "CATASTROPHIC"};
+    private static final String[] CUSTOMER_TIERS = {"STANDARD", "PREMIUM", "VIP"};
+
+    private final RulesService rulesService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int roundSize;
+    private final int maxRounds;
+    private final int stableRounds;
+    private final double tolerance;
+    private final long maxDurationNanos;
+
+    // Appended by the warm-up thread, read by the rounds gauge and health(); at most max-rounds entries
+    private final List<Double> roundLatencies = new CopyOnWriteArrayList<>();
+    private volatile boolean finished;
+    private volatile boolean stopped;
+    private volatile double durationSeconds;
+    private Thread warmupThread;
+
+    public RuleWarmup(SessionStrategies sessionStrategies,
+                      MeterRegistry meterRegistry,
+                      @Value("${drools.warmup.enabled:false}") boolean enabled,
+                      @Value("${drools.warmup.round-size:500}") int roundSize,
+                      @Value("${drools.warmup.max-rounds:40}") int maxRounds,
+                      @Value("${drools.warmup.stable-rounds:3}") int stableRounds,
+                      @Value("${drools.warmup.tolerance:0.1}") double tolerance,
+                      @Value("${drools.warmup.max-duration-ms:60000}") long maxDurationMs) {
+        // Same session strategies as live traffic, without auditing or shadow evaluation
+        this.rulesService = new RulesService(sessionStrategies);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.roundSize = Math.max(1, roundSize);
+        this.maxRounds = Math.max(1, maxRounds);
+        this.stableRounds = Math.max(1, stableRounds);
+        this.tolerance = tolerance;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        this.finished = !enabled;
+
+        Gauge.builder("drools_warmup_duration_seconds", this, warmup -> warmup.durationSeconds)
+                .description("Time the startup warm-up took, 0 while it runs")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+        Gauge.builder("drools_warmup_rounds", roundLatencies, List::size)
+                .description("Warm-up rounds completed")
+                .tag("component", "drools-engine")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        warmupThread = new Thread(this::run, "rules-warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        if (warmupThread != null) {
+            warmupThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = finished ? Health.up() : Health.outOfService();
+        if (enabled) {
+            health.withDetail("rounds", roundLatencies.size());
+            if (finished) {
+                health.withDetail("durationMs", Math.round(durationSeconds * 1000));
+            }
+        }
+        return health.build();
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        log.info("Warming up rules engine: rounds of {} evaluations until latency is stable within {}%",
+                roundSize, Math.round(tolerance * 100));
+        int stable = 0;
+        int evaluation = 0;
+        double previous = Double.NaN;
+        try {
+            while (!stopped && roundLatencies.size() < maxRounds && stable < stableRounds
+                    && System.nanoTime() - start < maxDurationNanos) {
+                long roundStart = System.nanoTime();
+                for (int i = 0; i < roundSize; i++) {
+                    evaluate(evaluation++);
+                }
+                double latency = (System.nanoTime() - roundStart) / 1e9 / roundSize;
+                recordRound(latency);
+                stable = Math.abs(latency - previous) <= previous * tolerance ? stable + 1 : 0;
+                previous = latency;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rules engine warm-up aborted after {} rounds, accepting traffic anyway: {}",
+                    roundLatencies.size(), e.getMessage());
+        } finally {
+            durationSeconds = (System.nanoTime() - start) / 1e9;
+            finished = true;
+        }
+        log.info("Rules engine warm-up finished in {} ms after {} rounds ({} evaluations), stable={}; "
+                        + "mean latency per round (us): {}",
+                Math.round(durationSeconds * 1000), roundLatencies.size(), evaluation, stable >= stableRounds,
+                roundLatencies.stream().map(seconds -> Math.round(seconds * 1e6)).toList());
+    }
+
+    private void recordRound(double latencySeconds) {
+        int round = roundLatencies.size() + 1;
+        Gauge.builder("drools_warmup_round_latency_seconds", () -> latencySeconds)
+                .description("Mean evaluation latency of each warm-up round")
+                .tag("component", "drools-engine")
+                .tag("round", Integer.toString(round))
+                .register(meterRegistry);
+        roundLatencies.add(latencySeconds);
+    }
+
+    // One evaluation of the corpus; consecutive indexes rotate through the KieBases and their
+    // inputs. Fires through fireRules so the warm-up does not log every evaluation.
+    private void evaluate(int index) {
+        int variant = index / 5;
+        switch (index % 5) {
+            case 0 -> rulesService.fireRules(RuleDomain.FRAUD, claim(variant));
+            case 1 -> rulesService.fireRules(RuleDomain.POLICY, policy(variant));
+            case 2 -> rulesService.fireRules(RuleDomain.COMMISSION, commission(variant));
+            case 3 -> rulesService.fireRules(RuleDomain.ROUTING, routing(variant));
+            default -> rulesService.fireRules(RuleDomain.ALL, switch (variant % 3) {
+                case 0 -> claim(variant);
+                case 1 -> routing(variant);
+                default -> policy(variant);
+            });
+        }
+    }
+
+    private static ClaimFact claim(int variant) {
+        LocalDate today = LocalDate.now();
+        return ClaimFact.builder()
+                .claimId("CLM-WARMUP-" + variant)
+                .customerId("CUST-WARMUP-" + variant % 97)
+                .claimedAmount(new BigDecimal(pick(CLAIM_AMOUNTS, variant)))
+                .incidentDate(today.minusDays(variant % 30))
+                .customerRegistrationDate(today.minusDays(variant % 3 == 0 ? 20 : 400 + variant % 1000))
+                .claimCount(variant % 6)
+                .recentClaimCount(variant % 4)
+                .claimType(pick(CLAIM_TYPES, variant / 5))
+                .hasPoliceReport(variant % 2 == 0)
+                .hasWitnesses(variant % 3 == 1)
+                .build();
+    }
+
+    private static PolicyFact policy(int variant) {
+        return PolicyFact.builder()
+                .policyId(variant % 7 == 0 ? null : "POL-WARMUP-" + variant)
+                .customerId("CUST-WARMUP-" + variant % 97)
+                .productType(pick(PRODUCTS, variant))
+                .premiumAmount(BigDecimal.valueOf(500 + (variant % 40) * 1_000L))
+                .coverageLimit(BigDecimal.valueOf(50_000 + (variant % 20) * 100_000L))
+                .customerStatus(variant % 11 == 0 ? "SUSPENDED" : "ACTIVE")
+                .customerAge(16 + variant % 70)
+                .customerName("Warmup Customer")
+                .customerEmail(variant % 5 == 0 ? null : "warmup@example.com")
+                .build();
+    }
+
+    private static CommissionFact commission(int variant) {
+        return CommissionFact.builder()
+                .productType(pick(PRODUCTS, variant))
+                .premiumAmount(BigDecimal.valueOf(5_000 + (variant % 30) * 5_000L))
+                .salesChannel(pick(CHANNELS, variant / 5))
+                .agentTier(pick(AGENT_TIERS, variant / 3))
+                .yearsOfExperience(variant % 15)
+                .build();
+    }
+
+    private static IncidentRoutingFact routing(int variant) {
+        return IncidentRoutingFact.builder()
+                .priority(pick(PRIORITIES, variant))
+                .severity(pick(SEVERITIES, variant / 4))
+                .claimedAmount(new BigDecimal(pick(CLAIM_AMOUNTS, variant / 2)))
+                .productType(pick(PRODUCTS, variant / 3))
+                .customerTier(pick(CUSTOMER_TIERS, variant / 7))
+                .build();
+    }
+
+    private static String pick(String[] values, int variant) {
+        return values[variant % values.length];
+    }
+}
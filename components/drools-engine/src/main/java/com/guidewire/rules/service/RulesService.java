@@ -1,75 +1,254 @@
 package com.guidewire.rules.service;
 
+import com.guidewire.rules.model.BatchItemResult;
 import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ClaimIntake;
 import com.guidewire.rules.model.CommissionFact;
 import com.guidewire.rules.model.IncidentRoutingFact;
 import com.guidewire.rules.model.PolicyFact;
-import org.kie.api.runtime.KieContainer;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+
 @Service
 public class RulesService {
 
     private static final Logger log = LoggerFactory.getLogger(RulesService.class);
 
-    private final KieContainer kieContainer;
+    // Upper bound on rule firings per evaluation, guards against modify() loops
+    private static final int MAX_RULES_FIRED = 100;
+
+    private final SessionStrategies sessionStrategies;
+    private final DecisionAuditor decisionAuditor;
+    private final ShadowEvaluator shadowEvaluator;
+
+    /**
+     * Evaluates each rule set on sessions of its own domain KieBase, hands every
+     * evaluation to the auditor and fraud evaluations to the shadow evaluator.
+     */
+    @Autowired
+    public RulesService(SessionStrategies sessionStrategies, DecisionAuditor decisionAuditor,
+                        ShadowEvaluator shadowEvaluator) {
+        this.sessionStrategies = sessionStrategies;
+        this.decisionAuditor = decisionAuditor;
+        this.shadowEvaluator = shadowEvaluator;
+    }
 
-    public RulesService(KieContainer kieContainer) {
-        this.kieContainer = kieContainer;
+    /**
+     * Evaluates each rule set on sessions of its own domain KieBase and hands every
+     * evaluation to the auditor, without shadow evaluation.
+     */
+    public RulesService(SessionStrategies sessionStrategies, DecisionAuditor decisionAuditor) {
+        this(sessionStrategies, decisionAuditor, null);
+    }
+
+    /**
+     * Evaluates each rule set on sessions of its own domain KieBase, without auditing.
+     */
+    public RulesService(SessionStrategies sessionStrategies) {
+        this(sessionStrategies, DecisionAuditor.NONE);
+    }
+
+    /**
+     * Evaluates every rule set on the same strategy, whose KieBase must hold all rule sets.
+     */
+    public RulesService(SessionStrategy sessionStrategy) {
+        this(SessionStrategies.shared(sessionStrategy));
     }
 
     public ClaimFact evaluateFraudRules(ClaimFact claimFact) {
         log.info("Evaluating fraud rules for claim: {}", claimFact.getClaimId());
-        KieSession kieSession = kieContainer.newKieSession();
-        try {
-            kieSession.insert(claimFact);
-            int rulesFired = kieSession.fireAllRules(100);
-            log.info("Fraud rules fired: {} for claim: {}", rulesFired, claimFact.getClaimId());
-        } finally {
-            kieSession.dispose();
+        ClaimFact shadowInput = shadowEvaluator != null ? shadowEvaluator.prepare(claimFact) : null;
+        long start = System.nanoTime();
+        int rulesFired = fireRules(RuleDomain.FRAUD, claimFact);
+        if (shadowInput != null) {
+            shadowEvaluator.submit(shadowInput, claimFact, System.nanoTime() - start);
         }
+        log.info("Fraud rules fired: {} for claim: {}", rulesFired, claimFact.getClaimId());
         return claimFact;
     }
 
     public PolicyFact evaluatePolicyValidation(PolicyFact policyFact) {
         log.info("Evaluating policy validation rules for policy: {}", policyFact.getPolicyId());
-        KieSession kieSession = kieContainer.newKieSession();
-        try {
-            kieSession.insert(policyFact);
-            int rulesFired = kieSession.fireAllRules(100);
-            log.info("Policy validation rules fired: {} for policy: {}", rulesFired, policyFact.getPolicyId());
-        } finally {
-            kieSession.dispose();
-        }
+        int rulesFired = fireRules(RuleDomain.POLICY, policyFact);
+        log.info("Policy validation rules fired: {} for policy: {}", rulesFired, policyFact.getPolicyId());
         return policyFact;
     }
 
     public CommissionFact evaluateCommissionRules(CommissionFact commissionFact) {
+        return evaluateCommissionRules(commissionFact, null);
+    }
+
+    /**
+     * @param firedRules receives the names of the fired rules when auditing is enabled; may be null
+     */
+    CommissionFact evaluateCommissionRules(CommissionFact commissionFact, List<String> firedRules) {
         log.info("Evaluating commission rules for product: {}", commissionFact.getProductType());
-        KieSession kieSession = kieContainer.newKieSession();
-        try {
-            kieSession.insert(commissionFact);
-            int rulesFired = kieSession.fireAllRules(100);
-            log.info("Commission rules fired: {} for product: {}", rulesFired, commissionFact.getProductType());
-        } finally {
-            kieSession.dispose();
-        }
+        int rulesFired = fireRules(RuleDomain.COMMISSION, commissionFact, firedRules);
+        log.info("Commission rules fired: {} for product: {}", rulesFired, commissionFact.getProductType());
         return commissionFact;
     }
 
     public IncidentRoutingFact evaluateRoutingRules(IncidentRoutingFact routingFact) {
+        return evaluateRoutingRules(routingFact, null);
+    }
+
+    /**
+     * @param firedRules receives the names of the fired rules when auditing is enabled; may be null
+     */
+    IncidentRoutingFact evaluateRoutingRules(IncidentRoutingFact routingFact, List<String> firedRules) {
         log.info("Evaluating incident routing rules for priority: {}", routingFact.getPriority());
-        KieSession kieSession = kieContainer.newKieSession();
+        int rulesFired = fireRules(RuleDomain.ROUTING, routingFact, firedRules);
+        log.info("Routing rules fired: {} for priority: {}", rulesFired, routingFact.getPriority());
+        return routingFact;
+    }
+
+    /**
+     * Hands a decision served by {@link DecisionCache} to the auditor.
+     */
+    void auditCached(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+        decisionAuditor.recordCached(domain, fact, firedRules, durationNanos);
+    }
+
+    boolean isAuditEnabled() {
+        return decisionAuditor.isEnabled();
+    }
+
+    /**
+     * Evaluates the claim, routing and policy facts of a new claim on one session of the
+     * KieBase with all rule sets, with a single fireAllRules call. Every rule matches only
+     * its own fact type, so each fact ends up exactly as a separate evaluation would
+     * leave it.
+     */
+    public ClaimIntake evaluateClaimIntake(ClaimIntake intake) {
+        List<Object> facts = Stream.of(intake.getClaim(), intake.getRouting(), intake.getPolicy())
+                .filter(Objects::nonNull)
+                .toList();
+        String claimId = intake.getClaim() != null ? intake.getClaim().getClaimId() : null;
+        log.info("Evaluating claim intake for claim: {} ({} facts)", claimId, facts.size());
+        int rulesFired = sessionStrategies.forDomain(RuleDomain.ALL).execute(kieSession ->
+                fireAndAudit(kieSession, RuleDomain.ALL, intake, null, () -> {
+                    facts.forEach(kieSession::insert);
+                    return kieSession.fireAllRules(MAX_RULES_FIRED * facts.size());
+                }));
+        log.info("Claim intake rules fired: {} for claim: {}", rulesFired, claimId);
+        return intake;
+    }
+
+    /**
+     * Evaluates a chunk of facts one after another on a single session of the KieBase of
+     * their fact type. Each fact is retracted before the next one is inserted, so results
+     * match individual calls.
+     * A failing fact is reported in its own BatchItemResult; the remaining facts of
+     * the chunk continue on a clean session.
+     *
+     * @param firstIndex position of the first fact of the chunk in the whole batch
+     */
+    public <T> List<BatchItemResult<T>> evaluateChunk(List<T> facts, long firstIndex) {
+        List<BatchItemResult<T>> results = new ArrayList<>(facts.size());
+        RuleDomain domain = domainOf(facts);
+        SessionStrategy sessionStrategy = sessionStrategies.forDomain(domain);
+        while (results.size() < facts.size()) {
+            sessionStrategy.execute(kieSession ->
+                    evaluateUntilFailure(kieSession, domain, facts, firstIndex, results));
+        }
+        return results;
+    }
+
+    private <T> Void evaluateUntilFailure(KieSession kieSession, RuleDomain domain, List<T> facts, long firstIndex,
+                                          List<BatchItemResult<T>> results) {
+        for (int i = results.size(); i < facts.size(); i++) {
+            T fact = facts.get(i);
+            if (fact == null) {
+                results.add(BatchItemResult.failure(firstIndex + i, "Fact must not be null"));
+                continue;
+            }
+            try {
+                fireAndAudit(kieSession, domain, fact, null, () -> {
+                    FactHandle factHandle = kieSession.insert(fact);
+                    int rulesFired = kieSession.fireAllRules(MAX_RULES_FIRED);
+                    kieSession.delete(factHandle);
+                    return rulesFired;
+                });
+                results.add(BatchItemResult.success(firstIndex + i, fact));
+            } catch (RuntimeException e) {
+                log.warn("Batch item {} failed: {}", firstIndex + i, e.getMessage());
+                results.add(BatchItemResult.failure(firstIndex + i, String.valueOf(e.getMessage())));
+                // Session state is unknown after a failure; continue on a fresh/reset one
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // A chunk holds facts of one type; one with only nulls never reaches a rule
+    private static RuleDomain domainOf(List<?> facts) {
+        return facts.stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(fact -> RuleDomain.forFactType(fact.getClass()))
+                .orElse(RuleDomain.ALL);
+    }
+
+    int fireRules(RuleDomain domain, Object fact) {
+        return fireRules(domain, fact, null);
+    }
+
+    private int fireRules(RuleDomain domain, Object fact, List<String> firedRules) {
+        return sessionStrategies.forDomain(domain).execute(kieSession ->
+                fireAndAudit(kieSession, domain, fact, firedRules, () -> {
+                    kieSession.insert(fact);
+                    return kieSession.fireAllRules(MAX_RULES_FIRED);
+                }));
+    }
+
+    /**
+     * Runs one evaluation on the session. When auditing is on, the names of the fired
+     * rules are collected with a listener that lives only for this evaluation, and the
+     * evaluation is handed to the auditor afterwards.
+     *
+     * @param audited    what the audit record holds: the fact itself, or the intake wrapping the facts
+     * @param firedRules receives the collected rule names as well; may be null
+     */
+    private int fireAndAudit(KieSession kieSession, RuleDomain domain, Object audited, List<String> firedRules,
+                             IntSupplier evaluation) {
+        if (!decisionAuditor.isEnabled()) {
+            return evaluation.getAsInt();
+        }
+        long start = System.nanoTime();
+        FiredRulesCollector collector = new FiredRulesCollector();
+        kieSession.addEventListener(collector);
+        int rulesFired;
         try {
-            kieSession.insert(routingFact);
-            int rulesFired = kieSession.fireAllRules(100);
-            log.info("Routing rules fired: {} for priority: {}", rulesFired, routingFact.getPriority());
+            rulesFired = evaluation.getAsInt();
         } finally {
-            kieSession.dispose();
+            kieSession.removeEventListener(collector);
+        }
+        decisionAuditor.record(domain, audited, collector.names, System.nanoTime() - start);
+        if (firedRules != null) {
+            firedRules.addAll(collector.names);
+        }
+        return rulesFired;
+    }
+
+    private static final class FiredRulesCollector extends DefaultAgendaEventListener {
+
+        private final List<String> names = new ArrayList<>();
+
+        @Override
+        public void afterMatchFired(AfterMatchFiredEvent event) {
+            names.add(event.getMatch().getRule().getName());
         }
-        return routingFact;
     }
 }
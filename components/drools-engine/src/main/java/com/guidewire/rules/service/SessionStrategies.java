@@ -0,0 +1,54 @@
+package com.guidewire.rules.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The SessionStrategy of every {@link RuleDomain}. Each domain gets its own strategy,
+ * so a pooled session only ever holds one domain KieBase and is never handed to an
+ * evaluation of another domain.
+ */
+public class SessionStrategies implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStrategies.class);
+
+    private final Map<RuleDomain, SessionStrategy> strategies;
+
+    public SessionStrategies(Function<RuleDomain, SessionStrategy> strategyFactory) {
+        Map<RuleDomain, SessionStrategy> byDomain = new EnumMap<>(RuleDomain.class);
+        for (RuleDomain domain : RuleDomain.values()) {
+            byDomain.put(domain, strategyFactory.apply(domain));
+        }
+        this.strategies = Collections.unmodifiableMap(byDomain);
+    }
+
+    /**
+     * Serves every domain from one strategy, whose KieBase must then hold all rule sets
+     * (e.g. the default KieBase).
+     */
+    public static SessionStrategies shared(SessionStrategy sessionStrategy) {
+        return new SessionStrategies(domain -> sessionStrategy);
+    }
+
+    public SessionStrategy forDomain(RuleDomain domain) {
+        return strategies.get(domain);
+    }
+
+    @Override
+    public void close() {
+        strategies.values().stream().distinct().forEach(strategy -> {
+            if (strategy instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close session strategy: {}", e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.guidewire.rules.service;
+
+import org.kie.api.runtime.KieSession;
+
+import java.util.function.Function;
+
+/**
+ * Decides how RulesService obtains a KieSession for an evaluation.
+ * Implementations either create a session per call or hand out
+ * sessions from a pool that are reset between evaluations.
+ */
+public interface SessionStrategy {
+
+    /**
+     * Runs the given work against a session that is exclusively owned by the
+     * caller for the duration of the call. The session must not escape the callback.
+     */
+    <T> T execute(Function<KieSession, T> work);
+}
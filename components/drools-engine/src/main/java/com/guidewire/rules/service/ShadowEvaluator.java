@@ -0,0 +1,308 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ShadowReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.kie.api.KieBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates fraud claims on the shadow rule set, if one is deployed, next to the active
+ * one. The caller always gets the result of the active rule set: {@link #prepare} copies
+ * the claim before the primary evaluation, and {@link #submit} hands the copy to the
+ * low-priority {@code rulesShadowExecutor}, which evaluates it on its own session pool
+ * and compares risk level, fraud score and flagged reasons with the primary result.
+ * When the executor queue is full the comparison is dropped and counted, never waited for.
+ *
+ * Only {@code drools.shadow.sample-rate} of the claims are compared. Publishes
+ * drools_shadow_evaluations{outcome=match|diverged|failed|dropped},
+ * drools_shadow_divergences{field} and
+ * drools_shadow_evaluation_duration{rule_set=primary|shadow,shadow_version} with a
+ * percentile histogram of both rule sets. The duration timers only cover the current
+ * shadow version: they are replaced when another version is deployed in shadow and
+ * removed, together with the idle shadow sessions, once it is promoted or stopped.
+ */
+@Service
+public class ShadowEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowEvaluator.class);
+
+    private final RuleBaseRegistry registry;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final PooledSessionStrategy sessionStrategy;
+    private final RulesService shadowRules;
+
+    private final Counter matched;
+    private final Counter diverged;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter riskLevelDivergences;
+    private final Counter fraudScoreDivergences;
+    private final Counter flaggedReasonsDivergences;
+
+    // Counts and timers for the GET report, replaced whenever the shadow version changes
+    private volatile ShadowTally tally;
+
+    public ShadowEvaluator(RuleBaseRegistry registry,
+                           @Qualifier("rulesShadowExecutor") Executor executor,
+                           MeterRegistry meterRegistry,
+                           @Value("${drools.shadow.sample-rate:1.0}") double sampleRate,
+                           @Value("${drools.shadow.threads:1}") int threads) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("drools.shadow.sample-rate must be between 0 and 1, was "
+                    + sampleRate);
+        }
+        this.registry = registry;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.sessionStrategy = new PooledSessionStrategy(this::shadowKieBase, kieSession -> { },
+                Math.max(1, threads), Duration.ofSeconds(5), meterRegistry, "shadow-" + RuleDomain.FRAUD.kieBaseName());
+        this.shadowRules = new RulesService(sessionStrategy);
+
+        this.matched = evaluationCounter(meterRegistry, "match");
+        this.diverged = evaluationCounter(meterRegistry, "diverged");
+        this.failed = evaluationCounter(meterRegistry, "failed");
+        this.dropped = evaluationCounter(meterRegistry, "dropped");
+        this.riskLevelDivergences = divergenceCounter(meterRegistry, "risk_level");
+        this.fraudScoreDivergences = divergenceCounter(meterRegistry, "fraud_score");
+        this.flaggedReasonsDivergences = divergenceCounter(meterRegistry, "flagged_reasons");
+        this.tally = new ShadowTally(0, meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        sessionStrategy.close();
+    }
+
+    /**
+     * Disposes the idle shadow sessions and drops the duration timers of the shadow
+     * version that ended. Sessions still evaluating are disposed when they come back.
+     */
+    @EventListener
+    public void onShadowStopped(ShadowStoppedEvent event) {
+        sessionStrategy.close();
+        currentTally();
+        log.info("Released shadow evaluation resources of rule set version {}", event.shadow().version());
+    }
+
+    /**
+     * @return a copy of the claim as it is before evaluation, to be evaluated in shadow,
+     * or null when no shadow rule set is deployed or the claim is not sampled
+     */
+    public ClaimFact prepare(ClaimFact claim) {
+        if (registry.getShadow().isEmpty()
+                || sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        List<String> reasons = claim.getFlaggedReasons();
+        return claim.toBuilder()
+                .flaggedReasons(reasons != null ? new ArrayList<>(reasons) : new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * Queues the shadow evaluation of a prepared claim and its comparison with the
+     * primary result. Returns immediately.
+     *
+     * @param shadowInput  the copy returned by {@link #prepare}; nothing happens if null
+     * @param primary      the claim as evaluated by the active rule set
+     * @param primaryNanos duration of the primary evaluation
+     */
+    public void submit(ClaimFact shadowInput, ClaimFact primary, long primaryNanos) {
+        if (shadowInput == null) {
+            return;
+        }
+        ShadowTally current = currentTally();
+        if (current.version == 0) {
+            // Shadow stopped or promoted during the primary evaluation
+            dropped.increment();
+            return;
+        }
+        current.primaryTimer.record(primaryNanos, TimeUnit.NANOSECONDS);
+        // The primary claim goes back to the caller; compare against what it held right now
+        Outcome expected = Outcome.of(primary);
+        try {
+            executor.execute(() -> evaluate(shadowInput, expected));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            current.dropped.increment();
+        }
+    }
+
+    public ShadowReport report() {
+        ShadowTally current = currentTally();
+        long evaluated = current.matched.sum() + current.diverged.sum() + current.failed.sum();
+        return ShadowReport.builder()
+                .shadowVersion(current.version)
+                .activeVersion(registry.getActive().version())
+                .evaluated(evaluated)
+                .matched(current.matched.sum())
+                .diverged(current.diverged.sum())
+                .failed(current.failed.sum())
+                .dropped(current.dropped.sum())
+                .divergenceRate(evaluated == 0 ? 0 : (double) current.diverged.sum() / evaluated)
+                .primaryP50Ms(percentileMs(current.primaryTimer, 0.5))
+                .primaryP99Ms(percentileMs(current.primaryTimer, 0.99))
+                .shadowP50Ms(percentileMs(current.shadowTimer, 0.5))
+                .shadowP99Ms(percentileMs(current.shadowTimer, 0.99))
+                .build();
+    }
+
+    private void evaluate(ClaimFact claim, Outcome expected) {
+        ShadowTally current = currentTally();
+        if (current.version == 0) {
+            // Shadow stopped or promoted while the claim was queued
+            dropped.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            shadowRules.fireRules(RuleDomain.FRAUD, claim);
+        } catch (RuntimeException e) {
+            failed.increment();
+            current.failed.increment();
+            log.warn("Shadow evaluation of claim {} failed: {}", claim.getClaimId(), e.getMessage());
+            return;
+        } finally {
+            current.shadowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        Outcome actual = Outcome.of(claim);
+        boolean riskLevelDiffers = !Objects.equals(expected.riskLevel(), actual.riskLevel());
+        boolean fraudScoreDiffers = expected.fraudScore() != actual.fraudScore();
+        boolean reasonsDiffer = !expected.flaggedReasons().equals(actual.flaggedReasons());
+        if (!riskLevelDiffers && !fraudScoreDiffers && !reasonsDiffer) {
+            matched.increment();
+            current.matched.increment();
+            return;
+        }
+        diverged.increment();
+        current.diverged.increment();
+        if (riskLevelDiffers) {
+            riskLevelDivergences.increment();
+        }
+        if (fraudScoreDiffers) {
+            fraudScoreDivergences.increment();
+        }
+        if (reasonsDiffer) {
+            flaggedReasonsDivergences.increment();
+        }
+        log.debug("Shadow rule set version {} diverged on claim {}: primary={}, shadow={}",
+                current.version, claim.getClaimId(), expected, actual);
+    }
+
+    // Null once the shadow is stopped, so that the pool treats its sessions as stale
+    private KieBase shadowKieBase() {
+        return registry.getShadow().map(shadow -> shadow.kieBase(RuleDomain.FRAUD)).orElse(null);
+    }
+
+    private ShadowTally currentTally() {
+        long version = registry.getShadow().map(RuleBaseVersion::version).orElse(0L);
+        ShadowTally current = tally;
+        if (current.version != version) {
+            synchronized (this) {
+                current = tally;
+                if (current.version != version) {
+                    current.removeTimers(meterRegistry);
+                    current = new ShadowTally(version, meterRegistry);
+                    tally = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static double percentileMs(Timer timer, double percentile) {
+        if (timer == null) {
+            return 0;
+        }
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private static Counter evaluationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("drools_shadow_evaluations")
+                .description("Fraud claims compared against the shadow rule set, by outcome")
+                .tag("component", "drools-engine")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter divergenceCounter(MeterRegistry meterRegistry, String field) {
+        return Counter.builder("drools_shadow_divergences")
+                .description("Shadow evaluations whose result differs from the active rule set, by field")
+                .tag("component", "drools-engine")
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+
+    private static Timer durationTimer(MeterRegistry meterRegistry, String ruleSet, long shadowVersion) {
+        return Timer.builder("drools_shadow_evaluation_duration")
+                .description("Fraud evaluation time of the active (primary) and shadow rule sets")
+                .tag("component", "drools-engine")
+                .tag("rule_set", ruleSet)
+                .tag("shadow_version", Long.toString(shadowVersion))
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Outcome(String riskLevel, int fraudScore, List<String> flaggedReasons) {
+
+        static Outcome of(ClaimFact claim) {
+            return new Outcome(claim.getRiskLevel(), claim.getFraudScore(),
+                    claim.getFlaggedReasons() != null ? List.copyOf(claim.getFlaggedReasons()) : List.of());
+        }
+    }
+
+    private static final class ShadowTally {
+
+        private final long version;
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder diverged = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        // Null while no shadow version is deployed
+        private final Timer primaryTimer;
+        private final Timer shadowTimer;
+
+        private ShadowTally(long version, MeterRegistry meterRegistry) {
+            this.version = version;
+            this.primaryTimer = version == 0 ? null : durationTimer(meterRegistry, "primary", version);
+            this.shadowTimer = version == 0 ? null : durationTimer(meterRegistry, "shadow", version);
+        }
+
+        private void removeTimers(MeterRegistry meterRegistry) {
+            if (primaryTimer != null) {
+                meterRegistry.remove(primaryTimer);
+                meterRegistry.remove(shadowTimer);
+            }
+        }
+    }
+}
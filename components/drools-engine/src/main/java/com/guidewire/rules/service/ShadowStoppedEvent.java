@@ -0,0 +1,8 @@
+package com.guidewire.rules.service;
+
+/**
+ * Published after the shadow rule set has been promoted or stopped. Whatever was kept
+ * only to evaluate it (e.g. the shadow session pool) can be released on this event.
+ */
+public record ShadowStoppedEvent(RuleBaseVersion shadow, boolean promoted) {
+}
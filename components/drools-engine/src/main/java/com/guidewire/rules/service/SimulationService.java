@@ -0,0 +1,614 @@
+package com.guidewire.rules.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.SimulationReport;
+import com.guidewire.rules.model.SimulationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What-if simulation: replays a CSV or NDJSON file of fraud claims or commission facts
+ * through the active or the shadow (candidate) rule set and aggregates the outcome.
+ *
+ * The file is never held in memory. A coordinator task on {@code rulesSimulationExecutor}
+ * streams it row by row (NDJSON line by line, CSV with a Jackson {@link MappingIterator}),
+ * cuts it into chunks of {@code drools.simulation.chunk-size} facts and hands them to the
+ * other workers of the same pool (one per core by default), where each chunk is evaluated
+ * on its own session with {@link RulesService#evaluateChunk}. A row that cannot be parsed
+ * is counted as invalid and skipped; the run goes on with the next one. At most two chunks per worker are in flight; the
+ * coordinator folds finished chunks, in file order, into the statistics and the optional
+ * per-row output file before reading further. Memory therefore stays flat however many
+ * rows the file has.
+ *
+ * The rule set version is pinned when the simulation starts, so a deployment during a
+ * run does not mix rule sets. Simulations bypass the decision cache, velocity store,
+ * audit trail and shadow evaluation. Only one runs at a time, since it takes every core.
+ */
+@Service
+public class SimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationService.class);
+
+    private static final int MAX_RETAINED_SIMULATIONS = 20;
+    private static final String NO_OUTCOME = "NONE";
+
+    private final RuleBaseRegistry registry;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper jsonMapper;
+    private final CsvMapper csvMapper;
+    private final Path dataDir;
+    private final int maxInFlightChunks;
+    private final int chunkSize;
+
+    // Most recent simulations by id, oldest evicted first; guarded by this
+    private final Map<String, Simulation> simulations = new LinkedHashMap<>();
+
+    public SimulationService(RuleBaseRegistry registry,
+                             @Qualifier("rulesSimulationExecutor") Executor executor,
+                             MeterRegistry meterRegistry,
+                             ObjectMapper objectMapper,
+                             @Value("${drools.simulation.data-dir:${java.io.tmpdir}/drools-simulations}") String dataDir,
+                             @Value("${drools.simulation.parallelism:0}") int parallelism,
+                             @Value("${drools.simulation.chunk-size:1000}") int chunkSize) {
+        this.registry = registry;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.jsonMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        this.dataDir = Path.of(dataDir).toAbsolutePath().normalize();
+        this.maxInFlightChunks = 2 * (parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Starts a simulation in the background.
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException    if a simulation is already running, or the shadow rule
+     *                                  set is requested and none is deployed
+     */
+    public synchronized SimulationReport start(SimulationRequest request) {
+        RuleDomain domain = domainOf(request.getRuleSet());
+        Path input = resolve(request.getInput(), "input");
+        Format format = Format.of(input);
+        if (!Files.isRegularFile(input)) {
+            throw new IllegalArgumentException("Input file not found: " + request.getInput());
+        }
+        Path output = request.getOutput() == null || request.getOutput().isBlank()
+                ? null : resolve(request.getOutput(), "output");
+        if (input.equals(output)) {
+            throw new IllegalArgumentException("output must differ from input");
+        }
+        if (output != null && Format.of(output) != format) {
+            throw new IllegalArgumentException("output must have the format of the input (" + format.extensions + ")");
+        }
+        boolean shadow = "shadow".equalsIgnoreCase(request.getRuleBase());
+        if (!shadow && request.getRuleBase() != null && !"active".equalsIgnoreCase(request.getRuleBase())) {
+            throw new IllegalArgumentException("ruleBase must be 'active' or 'shadow', was '" + request.getRuleBase() + "'");
+        }
+        if (simulations.values().stream().anyMatch(Simulation::isRunning)) {
+            throw new IllegalStateException("A simulation is already running");
+        }
+        RuleBaseVersion ruleBase = shadow
+                ? registry.getShadow().orElseThrow(() -> new IllegalStateException("No shadow rule set version deployed"))
+                : registry.getActive();
+
+        Simulation simulation = new Simulation(UUID.randomUUID().toString(), domain, shadow ? "shadow" : "active",
+                ruleBase, input, output, format);
+        simulations.put(simulation.id, simulation);
+        while (simulations.size() > MAX_RETAINED_SIMULATIONS) {
+            simulations.remove(simulations.keySet().iterator().next());
+        }
+        log.info("Starting {} simulation {} of {} on rule set version {} ({})",
+                domain.kieBaseName(), simulation.id, input, ruleBase.version(), simulation.ruleBaseName);
+        try {
+            executor.execute(() -> run(simulation));
+        } catch (RejectedExecutionException e) {
+            simulation.finish(SimulationReport.Status.FAILED, "Simulation executor is shut down", 0);
+        }
+        return simulation.report();
+    }
+
+    public synchronized Optional<SimulationReport> get(String id) {
+        return Optional.ofNullable(simulations.get(id)).map(Simulation::report);
+    }
+
+    public synchronized List<SimulationReport> list() {
+        return simulations.values().stream().map(Simulation::report).toList();
+    }
+
+    /**
+     * Stops a running simulation after the chunks in flight; statistics cover the rows read so far.
+     *
+     * @throws IllegalArgumentException if there is no such simulation
+     * @throws IllegalStateException    if it has already finished
+     */
+    public synchronized SimulationReport cancel(String id) {
+        Simulation simulation = simulations.get(id);
+        if (simulation == null) {
+            throw new IllegalArgumentException("Unknown simulation " + id);
+        }
+        if (!simulation.isRunning()) {
+            throw new IllegalStateException("Simulation " + id + " already " + simulation.status);
+        }
+        simulation.cancelled = true;
+        return simulation.report();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        simulations.values().forEach(simulation -> simulation.cancelled = true);
+    }
+
+    /**
+     * Waits for a simulation to finish.
+     */
+    SimulationReport await(String id, Duration timeout) throws Exception {
+        Simulation simulation;
+        synchronized (this) {
+            simulation = simulations.get(id);
+        }
+        try {
+            simulation.finished.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Simulation " + id + " still running after " + timeout, e);
+        }
+        return simulation.report();
+    }
+
+    private void run(Simulation simulation) {
+        long start = System.nanoTime();
+        RulesService rules = new RulesService(SessionStrategies.shared(new PerRequestSessionStrategy(
+                simulation.ruleBase.kieBase(simulation.domain))), simulation.ruleFires);
+        Deque<CompletableFuture<List<BatchItemResult<Object>>>> inFlight = new ArrayDeque<>();
+        try (RowReader rows = openInput(simulation);
+             SequenceWriter output = simulation.output != null ? openOutput(simulation) : null) {
+            List<Object> chunk = new ArrayList<>(chunkSize);
+            long rowIndex = 0;
+            while (!simulation.cancelled && rows.hasNext()) {
+                Object fact;
+                try {
+                    fact = rows.next();
+                } catch (JsonProcessingException e) {
+                    simulation.invalid.increment();
+                    log.debug("Simulation {} skipped invalid row {}: {}", simulation.id, rowIndex, e.getOriginalMessage());
+                    continue;
+                } finally {
+                    rowIndex++;
+                    simulation.rowsRead.increment();
+                }
+                chunk.add(fact);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(rules, chunk, rowIndex - chunk.size()));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxInFlightChunks) {
+                        collect(simulation, inFlight.poll().join(), output);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(rules, chunk, rowIndex - chunk.size()));
+            }
+            while (!inFlight.isEmpty()) {
+                collect(simulation, inFlight.poll().join(), output);
+            }
+            simulation.finish(simulation.cancelled ? SimulationReport.Status.CANCELLED : SimulationReport.Status.COMPLETED,
+                    null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Simulation {} failed after {} rows: {}", simulation.id, simulation.rowsRead.sum(),
+                    cause.getMessage(), cause);
+            simulation.finish(SimulationReport.Status.FAILED, String.valueOf(cause.getMessage()),
+                    System.nanoTime() - start);
+        } finally {
+            inFlight.forEach(future -> future.cancel(false));
+        }
+
+        SimulationReport report = simulation.report();
+        Counter.builder("drools_simulation_runs")
+                .description("What-if simulations by outcome")
+                .tag("component", "drools-engine")
+                .tag("outcome", report.getStatus().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        Counter.builder("drools_simulation_rows")
+                .description("Rows evaluated by what-if simulations")
+                .tag("component", "drools-engine")
+                .tag("ruleset", simulation.domain.kieBaseName())
+                .register(meterRegistry)
+                .increment(report.getEvaluated());
+        log.info("Simulation {} {}: rows={}, evaluated={}, failed={}, invalid={}, durationMs={} ({} rows/s)",
+                simulation.id, report.getStatus(), report.getRowsRead(), report.getEvaluated(), report.getFailed(),
+                report.getInvalid(), report.getDurationMs(), Math.round(report.getRowsPerSecond()));
+    }
+
+    private CompletableFuture<List<BatchItemResult<Object>>> submit(RulesService rules, List<Object> chunk,
+                                                                    long firstIndex) {
+        return CompletableFuture.supplyAsync(() -> rules.evaluateChunk(chunk, firstIndex), executor);
+    }
+
+    // Runs on the coordinator task only, in file order
+    private static void collect(Simulation simulation, List<BatchItemResult<Object>> results,
+                                SequenceWriter output) throws IOException {
+        for (BatchItemResult<Object> result : results) {
+            if (!result.isSucceeded()) {
+                simulation.failed.increment();
+                continue;
+            }
+            simulation.tally(result.getResult());
+            if (output != null) {
+                output.write(result.getResult());
+            }
+        }
+    }
+
+    private RowReader openInput(Simulation simulation) throws IOException {
+        Class<?> factType = factType(simulation.domain);
+        if (simulation.format == Format.CSV) {
+            CsvSchema schema = CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";");
+            InputStream in = new BufferedInputStream(Files.newInputStream(simulation.input));
+            try {
+                return new CsvRowReader(csvMapper.readerFor(factType).with(schema).readValues(in));
+            } catch (IOException | RuntimeException e) {
+                in.close();
+                throw e;
+            }
+        }
+        return new NdjsonRowReader(Files.newBufferedReader(simulation.input, StandardCharsets.UTF_8),
+                jsonMapper.readerFor(factType));
+    }
+
+    private SequenceWriter openOutput(Simulation simulation) throws IOException {
+        Class<?> factType = factType(simulation.domain);
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(simulation.output));
+        if (simulation.format == Format.CSV) {
+            CsvSchema schema = csvMapper.schemaFor(factType).withHeader().withArrayElementSeparator(";");
+            return csvMapper.writerFor(factType).with(schema).writeValues(out);
+        }
+        return jsonMapper.writerFor(factType).withRootValueSeparator("\n").writeValues(out);
+    }
+
+    private Path resolve(String fileName, String field) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        Path path = dataDir.resolve(fileName).normalize();
+        if (!path.startsWith(dataDir)) {
+            throw new IllegalArgumentException(field + " must be a file inside drools.simulation.data-dir");
+        }
+        return path;
+    }
+
+    private static RuleDomain domainOf(String ruleSet) {
+        if ("fraud".equalsIgnoreCase(ruleSet)) {
+            return RuleDomain.FRAUD;
+        }
+        if ("commission".equalsIgnoreCase(ruleSet)) {
+            return RuleDomain.COMMISSION;
+        }
+        throw new IllegalArgumentException("ruleSet must be 'fraud' or 'commission', was '" + ruleSet + "'");
+    }
+
+    private static Class<?> factType(RuleDomain domain) {
+        return domain == RuleDomain.FRAUD ? ClaimFact.class : CommissionFact.class;
+    }
+
+    private enum Format {
+        CSV(".csv"), NDJSON(".ndjson, .jsonl");
+
+        private final String extensions;
+
+        Format(String extensions) {
+            this.extensions = extensions;
+        }
+
+        static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported file type " + file.getFileName()
+                    + ", expected .csv, .ndjson or .jsonl");
+        }
+    }
+
+    /**
+     * Reads the facts of the input file one row at a time. {@link #next} throws
+     * JsonProcessingException for a row that cannot be parsed; the following call resumes
+     * with the next row.
+     */
+    private interface RowReader extends Closeable {
+
+        boolean hasNext() throws IOException;
+
+        Object next() throws IOException;
+    }
+
+    /**
+     * One JSON document per line, parsed on its own, so a malformed line cannot affect
+     * the lines after it. Blank lines are skipped.
+     */
+    private static final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader factReader;
+        private String line;
+
+        NdjsonRowReader(BufferedReader reader, ObjectReader factReader) {
+            this.reader = reader;
+            this.factReader = factReader;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            while (line == null) {
+                line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (line.isBlank()) {
+                    line = null;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() throws IOException {
+            String current = line;
+            line = null;
+            return factReader.readValue(current);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * CSV rows through a MappingIterator, which skips to the end of a row that failed to
+     * bind. An error while reading the start of a row is handed out by {@link #next}.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private final MappingIterator<?> rows;
+        private JsonProcessingException pending;
+
+        CsvRowReader(MappingIterator<?> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            try {
+                return rows.hasNextValue();
+            } catch (JsonProcessingException e) {
+                pending = e;
+                return true;
+            }
+        }
+
+        @Override
+        public Object next() throws IOException {
+            if (pending != null) {
+                JsonProcessingException e = pending;
+                pending = null;
+                throw e;
+            }
+            return rows.nextValue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    /**
+     * Counts the firings of every rule; fed by RulesService for each evaluated fact.
+     */
+    private static final class RuleFireCounter implements DecisionAuditor {
+
+        private final Map<String, LongAdder> fires = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void record(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+            for (String rule : firedRules) {
+                fires.computeIfAbsent(rule, name -> new LongAdder()).increment();
+            }
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            fires.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> snapshot.put(entry.getKey(), entry.getValue()));
+            return snapshot;
+        }
+    }
+
+    /**
+     * State of one simulation. Counters are written by the coordinator task and read by
+     * {@link #report} from request threads.
+     */
+    private static final class Simulation {
+
+        private final String id;
+        private final RuleDomain domain;
+        private final String ruleBaseName;
+        private final RuleBaseVersion ruleBase;
+        private final Path input;
+        private final Path output;
+        private final Format format;
+        private final Instant startedAt = Instant.now();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        private final RuleFireCounter ruleFires = new RuleFireCounter();
+        private final LongAdder rowsRead = new LongAdder();
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder invalid = new LongAdder();
+        // Risk level or commission tier
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder fraudScoreSum = new LongAdder();
+        private final DoubleAdder commissionSum = new DoubleAdder();
+        private final LongAdder commissioned = new LongAdder();
+        private final DoubleAdder commissionPercentageSum = new DoubleAdder();
+
+        private volatile boolean cancelled;
+        private volatile SimulationReport.Status status = SimulationReport.Status.RUNNING;
+        private volatile String error;
+        private volatile Instant finishedAt;
+        private volatile long durationNanos;
+
+        Simulation(String id, RuleDomain domain, String ruleBaseName, RuleBaseVersion ruleBase,
+                   Path input, Path output, Format format) {
+            this.id = id;
+            this.domain = domain;
+            this.ruleBaseName = ruleBaseName;
+            this.ruleBase = ruleBase;
+            this.input = input;
+            this.output = output;
+            this.format = format;
+        }
+
+        boolean isRunning() {
+            return status == SimulationReport.Status.RUNNING;
+        }
+
+        void tally(Object fact) {
+            evaluated.increment();
+            if (fact instanceof ClaimFact claim) {
+                outcomes.computeIfAbsent(outcome(claim.getRiskLevel()), level -> new LongAdder()).increment();
+                fraudScoreSum.add(claim.getFraudScore());
+            } else if (fact instanceof CommissionFact commission) {
+                outcomes.computeIfAbsent(outcome(commission.getCommissionTier()), tier -> new LongAdder()).increment();
+                if (commission.getCommissionAmount() != null) {
+                    commissionSum.add(commission.getCommissionAmount().doubleValue());
+                    commissioned.increment();
+                }
+                commissionPercentageSum.add(commission.getCommissionPercentage());
+            }
+        }
+
+        void finish(SimulationReport.Status status, String error, long durationNanos) {
+            this.durationNanos = durationNanos;
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+            finished.complete(null);
+        }
+
+        SimulationReport report() {
+            long evaluatedCount = evaluated.sum();
+            long elapsedNanos = isRunning() ? Duration.between(startedAt, Instant.now()).toNanos() : durationNanos;
+            Map<String, Long> distribution = new LinkedHashMap<>();
+            outcomes.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> distribution.put(entry.getKey(), entry.getValue().sum()));
+            SimulationReport.SimulationReportBuilder report = SimulationReport.builder()
+                    .id(id)
+                    .status(status)
+                    .ruleSet(domain.kieBaseName())
+                    .ruleBase(ruleBaseName)
+                    .ruleBaseVersion(ruleBase.version())
+                    .input(input.getFileName().toString())
+                    .output(output != null ? output.getFileName().toString() : null)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .rowsRead(rowsRead.sum())
+                    .evaluated(evaluatedCount)
+                    .failed(failed.sum())
+                    .invalid(invalid.sum())
+                    .rowsPerSecond(elapsedNanos == 0 ? 0 : rowsRead.sum() * 1e9 / elapsedNanos)
+                    .ruleFires(ruleFires.snapshot())
+                    .error(error);
+            if (domain == RuleDomain.FRAUD) {
+                report.riskLevels(distribution)
+                        .averageFraudScore(evaluatedCount == 0 ? 0 : (double) fraudScoreSum.sum() / evaluatedCount);
+            } else {
+                long commissionedCount = commissioned.sum();
+                report.commissionTiers(distribution)
+                        .averageCommission(commissionedCount == 0
+                                ? null : BigDecimal.valueOf(commissionSum.sum() / commissionedCount)
+                                        .setScale(2, RoundingMode.HALF_UP))
+                        .averageCommissionPercentage(evaluatedCount == 0 ? 0 : commissionPercentageSum.sum() / evaluatedCount);
+            }
+            return report.build();
+        }
+
+        private static String outcome(String value) {
+            return value != null ? value : NO_OUTCOME;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE rule_decision_audit (
+    id                BIGINT       GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    evaluated_at      TIMESTAMP    NOT NULL,
+    rule_set          VARCHAR(32)  NOT NULL,
+    rule_set_version  BIGINT       NOT NULL,
+    fact_type         VARCHAR(64)  NOT NULL,
+    fact              TEXT         NOT NULL,
+    fired_rules       TEXT         NOT NULL,
+    duration_micros   BIGINT       NOT NULL
+);
+
+CREATE INDEX idx_rule_decision_audit_evaluated_at ON rule_decision_audit (evaluated_at);
+CREATE INDEX idx_rule_decision_audit_rule_set     ON rule_decision_audit (rule_set);
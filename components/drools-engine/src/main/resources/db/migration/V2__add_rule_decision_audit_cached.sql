@@ -0,0 +1,2 @@
+-- Decisions served from the decision cache instead of firing the rules
+ALTER TABLE rule_decision_audit ADD COLUMN cached BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,73 @@
+package com.guidewire.rules.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacity_isRoundedUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+        assertThat(new AuditRingBuffer<String>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void offer_returnsFalseWhenFull_andAcceptsAgainAfterDrain() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 2)).isEqualTo(2);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducers_everyAcceptedItemIsDrainedExactlyOnce() throws Exception {
+        int producers = 4;
+        int itemsPerProducer = 50_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * itemsPerProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drainTo(drained, 100);
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        Set<Integer> distinct = new HashSet<>(drained);
+        assertThat(drained).hasSize(producers * itemsPerProducer);
+        assertThat(distinct).hasSize(producers * itemsPerProducer);
+    }
+}
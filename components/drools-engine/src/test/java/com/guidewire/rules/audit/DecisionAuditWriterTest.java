@@ -0,0 +1,183 @@
+package com.guidewire.rules.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.service.PerRequestSessionStrategy;
+import com.guidewire.rules.service.RuleBaseRegistry;
+import com.guidewire.rules.service.RuleDomain;
+import com.guidewire.rules.service.RulesService;
+import com.guidewire.rules.service.SessionStrategies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs real evaluations through DecisionAuditWriter into an H2 database created with the
+ * service's Flyway migration.
+ */
+class DecisionAuditWriterTest {
+
+    private static KieContainer kieContainer;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private RuleBaseRegistry ruleBaseRegistry;
+
+    @BeforeAll
+    static void buildKieContainer() throws Exception {
+        kieContainer = new DroolsConfig().kieContainer(KieServices.Factory.get());
+    }
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/V1__create_rule_decision_audit_table.sql")
+                .addScript("db/migration/V2__add_rule_decision_audit_cached.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        meterRegistry = new SimpleMeterRegistry();
+        ruleBaseRegistry = new RuleBaseRegistry(kieContainer, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void evaluations_areWrittenWithFactAndFiredRules() throws Exception {
+        DecisionAuditWriter writer = newWriter(true, 64);
+        RulesService rulesService = newRulesService(writer);
+        writer.start();
+
+        rulesService.evaluateFraudRules(claim());
+        rulesService.evaluateCommissionRules(CommissionFact.builder()
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("1000"))
+                .build());
+        writer.stop();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT rule_set, rule_set_version, fact_type, fact, fired_rules, duration_micros, cached "
+                        + "FROM rule_decision_audit ORDER BY id");
+        assertThat(rows).hasSize(2);
+
+        Map<String, Object> fraud = rows.get(0);
+        assertThat(fraud.get("RULE_SET")).isEqualTo("fraud");
+        assertThat(fraud.get("RULE_SET_VERSION")).isEqualTo(ruleBaseRegistry.getActive().version());
+        assertThat(fraud.get("FACT_TYPE")).isEqualTo("ClaimFact");
+        ClaimFact audited = objectMapper.readValue((String) fraud.get("FACT"), ClaimFact.class);
+        assertThat(audited.getClaimId()).isEqualTo("CLM-AUDIT");
+        assertThat(audited.getFraudScore()).isPositive();
+        List<?> firedRules = objectMapper.readValue((String) fraud.get("FIRED_RULES"), List.class);
+        assertThat(firedRules).isNotEmpty();
+        assertThat((Long) fraud.get("DURATION_MICROS")).isPositive();
+        assertThat(fraud.get("CACHED")).isEqualTo(false);
+
+        assertThat(rows.get(1).get("RULE_SET")).isEqualTo("commission");
+        assertThat(meterRegistry.get("drools_audit_records").tag("outcome", "written").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void cachedDecisions_areWrittenFlaggedAsCached() throws Exception {
+        DecisionAuditWriter writer = newWriter(true, 64);
+        writer.start();
+
+        writer.recordCached(RuleDomain.FRAUD, claim(), List.of("HighAmount"), 2_000);
+        writer.stop();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rule_set, fired_rules, duration_micros, cached FROM rule_decision_audit");
+        assertThat(row.get("RULE_SET")).isEqualTo("fraud");
+        assertThat(objectMapper.readValue((String) row.get("FIRED_RULES"), List.class)).containsExactly("HighAmount");
+        assertThat(row.get("DURATION_MICROS")).isEqualTo(2L);
+        assertThat(row.get("CACHED")).isEqualTo(true);
+    }
+
+    @Test
+    void fullBuffer_dropsAndCountsInsteadOfBlocking() {
+        DecisionAuditWriter writer = newWriter(true, 2);
+        RulesService rulesService = newRulesService(writer);
+
+        for (int i = 0; i < 5; i++) {
+            rulesService.evaluateFraudRules(claim());
+        }
+
+        assertThat(meterRegistry.get("drools_audit_records").tag("outcome", "dropped").counter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("drools_audit_buffer_size").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void failedBatch_isCountedAndDiscarded() {
+        DecisionAuditWriter writer = newWriter(true, 64);
+        jdbcTemplate.execute("DROP TABLE rule_decision_audit");
+
+        writer.write(List.of(new DecisionAuditWriter.AuditedDecision(Instant.now(), RuleDomain.FRAUD, 1,
+                claim(), List.of("HighAmount"), 1_000, false)));
+
+        assertThat(meterRegistry.get("drools_audit_records").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void disabledWriter_recordsNothing() throws Exception {
+        DecisionAuditWriter writer = newWriter(false, 64);
+        writer.start();
+
+        newRulesService(writer).evaluateFraudRules(claim());
+        writer.stop();
+
+        assertThat(writer.isEnabled()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rule_decision_audit", Long.class)).isZero();
+        assertThat(meterRegistry.get("drools_audit_buffer_size").gauge().value()).isZero();
+    }
+
+    private DecisionAuditWriter newWriter(boolean enabled, int bufferSize) {
+        return new DecisionAuditWriter(jdbcTemplate, objectMapper, ruleBaseRegistry, meterRegistry,
+                enabled, bufferSize, 500, 10);
+    }
+
+    private RulesService newRulesService(DecisionAuditWriter writer) {
+        return new RulesService(new SessionStrategies(domain ->
+                new PerRequestSessionStrategy(ruleBaseRegistry.getActiveKieBase(domain))), writer);
+    }
+
+    private static ClaimFact claim() {
+        return ClaimFact.builder()
+                .claimId("CLM-AUDIT")
+                .customerId("CUST-AUDIT")
+                .claimedAmount(new BigDecimal("60000"))
+                .incidentDate(LocalDate.of(2026, 3, 14))
+                .customerRegistrationDate(LocalDate.of(2026, 1, 1))
+                .claimCount(4)
+                .claimType("THEFT")
+                .hasPoliceReport(false)
+                .hasWitnesses(false)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.guidewire.rules.config;
+
+import com.guidewire.rules.model.ClaimFact;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the native image hints against the build output: the executable model kjar
+ * produced in process-classes and the Drools jars on the test classpath.
+ */
+class DroolsRuntimeHintsTest {
+
+    private static final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeAll
+    static void registerHints() {
+        new DroolsRuntimeHints().registerHints(hints, DroolsRuntimeHintsTest.class.getClassLoader());
+    }
+
+    @Test
+    void registersExecutableModelAndDroolsConfigurationResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource(DroolsConfig.EXECUTABLE_MODEL_RESOURCE))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/kie.default.properties.conf"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("avro/ClaimFact.avsc")).accepts(hints);
+    }
+
+    @Test
+    void registersEveryRuleModelOfTheKjar() throws IOException {
+        String ruleModelListing = null;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(DroolsConfig.EXECUTABLE_MODEL_RESOURCE);
+             ZipInputStream zip = new ZipInputStream(is)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.getName().endsWith("/drools-model")) {
+                    ruleModelListing = new String(zip.readAllBytes());
+                }
+            }
+        }
+
+        assertThat(ruleModelListing).isNotNull();
+        assertThat(ruleModelListing.lines().filter(line -> line.startsWith("com.guidewire.rules.")))
+                .hasSize(4)
+                .allSatisfy(className -> assertThat(RuntimeHintsPredicates.reflection()
+                        .onType(TypeReference.of(className))
+                        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                        .accepts(hints));
+    }
+
+    @Test
+    void registersClassesNamedInDroolsConfiguration() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.drools.core.runtime.rule.impl.DefaultConsequenceExceptionHandler"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersFactsForPropertyReflection() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(ClaimFact.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,116 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.ClaimFact;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hand-written codec is wire compatible with the ClaimFact.avsc contract,
+ * in both directions, using Avro's generic reader and writer as the reference.
+ */
+class ClaimFactAvroMessageConverterTest {
+
+    private static Schema schema;
+
+    private final ClaimFactAvroMessageConverter converter = new ClaimFactAvroMessageConverter();
+
+    @BeforeAll
+    static void loadSchema() throws IOException {
+        try (InputStream is = ClaimFactAvroMessageConverterTest.class.getResourceAsStream("/avro/ClaimFact.avsc")) {
+            schema = new Schema.Parser().parse(is);
+        }
+    }
+
+    @Test
+    void write_isReadableWithTheContractSchema() throws IOException {
+        ClaimFact claim = ClaimFact.builder()
+                .claimId("CLM-001")
+                .claimedAmount(new BigDecimal("1234.56"))
+                .incidentDate(LocalDate.of(2026, 3, 14))
+                .claimCount(3)
+                .hasWitnesses(true)
+                .riskLevel("HIGH")
+                .fraudScore(60)
+                .flaggedReasons(List.of("first", "second"))
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(claim, out);
+        GenericRecord record = new GenericDatumReader<GenericRecord>(schema)
+                .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+
+        assertThat(record.get("claimId")).hasToString("CLM-001");
+        assertThat(record.get("customerId")).isNull();
+        assertThat(record.get("claimedAmountCents")).isEqualTo(123456L);
+        assertThat(record.get("incidentDate")).isEqualTo((int) LocalDate.of(2026, 3, 14).toEpochDay());
+        assertThat(record.get("customerRegistrationDate")).isNull();
+        assertThat(record.get("claimCount")).isEqualTo(3);
+        assertThat(record.get("hasPoliceReport")).isEqualTo(false);
+        assertThat(record.get("hasWitnesses")).isEqualTo(true);
+        assertThat(record.get("fraudScore")).isEqualTo(60);
+        assertThat((List<?>) record.get("flaggedReasons")).map(Object::toString).containsExactly("first", "second");
+    }
+
+    @Test
+    void read_acceptsRecordsWrittenWithTheContractSchema() throws IOException {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("claimId", "CLM-002");
+        record.put("customerId", "CUST-002");
+        record.put("claimedAmountCents", 50000000L);
+        record.put("incidentDate", (int) LocalDate.of(2026, 1, 2).toEpochDay());
+        record.put("customerRegistrationDate", null);
+        record.put("claimCount", 1);
+        record.put("recentClaimCount", 2);
+        record.put("priority", null);
+        record.put("claimType", "FIRE");
+        record.put("hasPoliceReport", true);
+        record.put("hasWitnesses", false);
+        record.put("riskLevel", null);
+        record.put("fraudScore", 0);
+        record.put("flaggedReasons", List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+
+        ClaimFact claim = converter.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(claim.getClaimId()).isEqualTo("CLM-002");
+        assertThat(claim.getClaimedAmount()).isEqualByComparingTo("500000");
+        assertThat(claim.getIncidentDate()).isEqualTo(LocalDate.of(2026, 1, 2));
+        assertThat(claim.getCustomerRegistrationDate()).isNull();
+        assertThat(claim.getRecentClaimCount()).isEqualTo(2);
+        assertThat(claim.getClaimType()).isEqualTo("FIRE");
+        assertThat(claim.isHasPoliceReport()).isTrue();
+        assertThat(claim.getRiskLevel()).isNull();
+        assertThat(claim.getFlaggedReasons()).isEmpty();
+    }
+
+    @Test
+    void absentAmount_roundTripsAsNull() throws IOException {
+        ClaimFact claim = ClaimFact.builder().claimId("CLM-003").build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(claim, out);
+
+        assertThat(converter.read(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(claim);
+    }
+}
@@ -0,0 +1,74 @@
+package com.guidewire.rules.controller;
+
+import com.guidewire.rules.model.RuleDeploymentResult;
+import com.guidewire.rules.service.RuleDeploymentService;
+import com.guidewire.rules.service.ShadowEvaluator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RuleDeploymentController.class)
+@TestPropertySource(properties = {
+        "drools.deployment.admin.enabled=true",
+        "drools.deployment.retry-after-seconds=15"
+})
+class RuleDeploymentControllerTest {
+
+    private static final MockMultipartFile DRL = new MockMultipartFile(
+            "files", "fraud-detection.drl", "text/plain", "package rules.fraud;".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RuleDeploymentService deploymentService;
+
+    @MockBean
+    private ShadowEvaluator shadowEvaluator;
+
+    @Test
+    void deploy_returnsTheActivatedRuleSet() throws Exception {
+        RuleDeploymentResult result = RuleDeploymentResult.builder()
+                .status(RuleDeploymentResult.Status.ACTIVATED)
+                .version(2)
+                .build();
+        when(deploymentService.deploy(anyMap(), eq("upload"))).thenReturn(CompletableFuture.completedFuture(result));
+
+        mockMvc.perform(multipart("/api/v1/rules/admin/deployments").file(DRL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void deploy_whenTheDeployQueueIsFull_asksTheClientToBackOff() throws Exception {
+        when(deploymentService.deploy(anyMap(), eq("upload"))).thenThrow(new TaskRejectedException("queue full"));
+
+        mockMvc.perform(multipart("/api/v1/rules/admin/deployments").file(DRL))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "15"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void deployShadow_whenTheDeployQueueIsFull_asksTheClientToBackOff() throws Exception {
+        when(deploymentService.deployShadow(anyMap(), eq("upload"))).thenThrow(new TaskRejectedException("queue full"));
+
+        mockMvc.perform(multipart("/api/v1/rules/admin/deployments/shadow").file(DRL))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "15"));
+    }
+}
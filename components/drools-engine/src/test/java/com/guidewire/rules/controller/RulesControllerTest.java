@@ -2,29 +2,49 @@ package com.guidewire.rules.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.BatchResult;
 import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ClaimIntake;
 import com.guidewire.rules.model.CommissionFact;
 import com.guidewire.rules.model.IncidentRoutingFact;
 import com.guidewire.rules.model.PolicyFact;
+import com.guidewire.rules.service.BatchEvaluationService;
+import com.guidewire.rules.service.ClaimVelocityStore;
+import com.guidewire.rules.service.DecisionCache;
+import com.guidewire.rules.service.RuleBaseRegistry;
 import com.guidewire.rules.service.RulesService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RulesController.class)
+@Import({DecisionCache.class, ClaimVelocityStore.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "drools.batch.max-size=3")
 class RulesControllerTest {
 
     @Autowired
@@ -33,6 +53,12 @@ class RulesControllerTest {
     @MockBean
     private RulesService rulesService;
 
+    @MockBean
+    private BatchEvaluationService batchEvaluationService;
+
+    @MockBean
+    private RuleBaseRegistry ruleBaseRegistry;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -76,6 +102,42 @@ class RulesControllerTest {
                 .andExpect(jsonPath("$.flaggedReasons[0]").value("Claimed amount exceeds 500,000 MXN - HIGH risk threshold"));
     }
 
+    @Test
+    void fraudCheck_acceptsAndReturnsAvro() throws Exception {
+        ClaimFactAvroMessageConverter avro = new ClaimFactAvroMessageConverter();
+        ClaimFact input = ClaimFact.builder()
+                .claimId("CLM-002")
+                .claimedAmount(new BigDecimal("600000"))
+                .claimType("THEFT")
+                .build();
+        ClaimFact evaluated = input.toBuilder()
+                .fraudScore(25)
+                .riskLevel("MEDIUM")
+                .flaggedReasons(List.of("Claimed amount exceeds 500,000 MXN - HIGH risk threshold"))
+                .build();
+        when(rulesService.evaluateFraudRules(eq(input))).thenReturn(evaluated);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        avro.write(input, body);
+
+        byte[] response = mockMvc.perform(post("/api/v1/rules/fraud-check")
+                        .contentType(ClaimFactAvroMessageConverter.APPLICATION_AVRO)
+                        .accept(ClaimFactAvroMessageConverter.APPLICATION_AVRO)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ClaimFactAvroMessageConverter.APPLICATION_AVRO))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(avro.read(new ByteArrayInputStream(response))).isEqualTo(evaluated);
+    }
+
+    @Test
+    void fraudCheck_rejectsTruncatedAvro() throws Exception {
+        mockMvc.perform(post("/api/v1/rules/fraud-check")
+                        .contentType(ClaimFactAvroMessageConverter.APPLICATION_AVRO)
+                        .content(new byte[]{2, 10}))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void policyValidation_returnsEvaluatedPolicyFact() throws Exception {
         PolicyFact input = PolicyFact.builder()
@@ -145,6 +207,33 @@ class RulesControllerTest {
                 .andExpect(jsonPath("$.commissionAmount").value(9600.0));
     }
 
+    @Test
+    void commissionCalculation_echoesAmountsWithTheirScale() throws Exception {
+        when(rulesService.evaluateCommissionRules(any(CommissionFact.class))).thenAnswer(invocation -> {
+            CommissionFact fact = invocation.getArgument(0);
+            fact.setCommissionPercentage(12.0);
+            fact.calculateCommissionAmount();
+            return fact;
+        });
+
+        mockMvc.perform(post("/api/v1/rules/commission")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productType\":\"AUTO\",\"premiumAmount\":80000.005}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"premiumAmount\":80000.005,")))
+                .andExpect(content().string(containsString("\"commissionAmount\":9600.00060,")));
+    }
+
+    @Test
+    void fraudCheck_rejectsAmountsOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/v1/rules/fraud-check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"claimId\":\"CLM-001\",\"claimedAmount\":1E+30}"))
+                .andExpect(status().isBadRequest());
+
+        verify(rulesService, never()).evaluateFraudRules(any());
+    }
+
     @Test
     void incidentRouting_returnsEvaluatedIncidentRoutingFact() throws Exception {
         IncidentRoutingFact input = IncidentRoutingFact.builder()
@@ -179,4 +268,84 @@ class RulesControllerTest {
                 .andExpect(jsonPath("$.escalated").value(true))
                 .andExpect(jsonPath("$.escalationReason").value("VIP customer with HIGH priority"));
     }
+
+    @Test
+    void claimIntake_returnsAllThreeEvaluatedFacts() throws Exception {
+        ClaimIntake evaluated = ClaimIntake.builder()
+                .claim(ClaimFact.builder().claimId("CLM-001").fraudScore(45).riskLevel("HIGH").build())
+                .routing(IncidentRoutingFact.builder().priority("HIGH").assignedTeam("senior-adjusters")
+                        .slaHours(12).build())
+                .policy(PolicyFact.builder().policyId("POL-001").eligible(true).build())
+                .build();
+
+        when(rulesService.evaluateClaimIntake(any(ClaimIntake.class))).thenReturn(evaluated);
+
+        mockMvc.perform(post("/api/v1/rules/claim-intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"claim\":{\"claimId\":\"CLM-001\"},\"routing\":{\"priority\":\"HIGH\"},"
+                                + "\"policy\":{\"policyId\":\"POL-001\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.claim.riskLevel").value("HIGH"))
+                .andExpect(jsonPath("$.claim.fraudScore").value(45))
+                .andExpect(jsonPath("$.routing.assignedTeam").value("senior-adjusters"))
+                .andExpect(jsonPath("$.routing.slaHours").value(12))
+                .andExpect(jsonPath("$.policy.eligible").value(true));
+    }
+
+    @Test
+    void claimIntake_rejectsRequestWithoutClaim() throws Exception {
+        mockMvc.perform(post("/api/v1/rules/claim-intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"routing\":{\"priority\":\"HIGH\"}}"))
+                .andExpect(status().isBadRequest());
+
+        verify(rulesService, never()).evaluateClaimIntake(any());
+    }
+
+    @Test
+    void fraudCheckBatch_returnsResultsInInputOrderWithPerItemErrors() throws Exception {
+        ClaimFact evaluated = ClaimFact.builder()
+                .claimId("CLM-001")
+                .fraudScore(25)
+                .riskLevel("MEDIUM")
+                .build();
+        BatchResult<ClaimFact> batchResult = BatchResult.<ClaimFact>builder()
+                .ruleSet("fraud-check")
+                .total(2)
+                .succeeded(1)
+                .failed(1)
+                .durationMs(4)
+                .results(List.of(
+                        BatchItemResult.success(0, evaluated),
+                        BatchItemResult.failure(1, "Fact must not be null")))
+                .build();
+
+        when(batchEvaluationService.<ClaimFact>evaluate(eq("fraud-check"), anyList())).thenReturn(batchResult);
+
+        mockMvc.perform(post("/api/v1/rules/fraud-check/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"claimId\":\"CLM-001\",\"claimedAmount\":600000}, null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ruleSet").value("fraud-check"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.durationMs").value(4))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].result.riskLevel").value("MEDIUM"))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].error").value("Fact must not be null"))
+                .andExpect(jsonPath("$.results[1].result").doesNotExist());
+    }
+
+    @Test
+    void incidentRoutingBatch_rejectsBatchesAboveMaxSize() throws Exception {
+        mockMvc.perform(post("/api/v1/rules/incident-routing/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"priority\":\"LOW\"},{\"priority\":\"LOW\"},"
+                                + "{\"priority\":\"LOW\"},{\"priority\":\"LOW\"}]"))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(batchEvaluationService, never()).evaluate(any(), anyList());
+    }
 }
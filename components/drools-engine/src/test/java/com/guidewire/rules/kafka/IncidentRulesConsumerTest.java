@@ -0,0 +1,135 @@
+package com.guidewire.rules.kafka;
+
+import com.guidewire.rules.model.ClaimFact;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the incidents consumer against an in-JVM Kafka broker: IncidentCreated events
+ * go in on incidents.incident-created, FraudCheckResult records come out on
+ * rules.fraud-results. The Apicurio serdes are replaced by plain Avro binary, still
+ * behind the ErrorHandlingDeserializer of application.yml.
+ */
+@SpringBootTest(properties = {
+        "drools.kafka.enabled=true",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.properties[spring.deserializer.value.delegate.class]=com.guidewire.rules.kafka.SchemaFileAvroSerde",
+        "spring.kafka.producer.value-serializer=com.guidewire.rules.kafka.SchemaFileAvroSerde"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = {"incidents.incident-created", "rules.fraud-results"})
+class IncidentRulesConsumerTest {
+
+    private static final Schema INCIDENT_SCHEMA = SchemaFileAvroSerde.schemaFor("incidents.incident-created");
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Test
+    void incidentEvents_arePublishedAsFraudResults() {
+        GenericRecord highValue = incident("CLM-HIGH", "HIGH", new BigDecimal("1500000.00"));
+        GenericRecord lowValue = incident("CLM-LOW", "LOW", new BigDecimal("1000.00"));
+
+        // A record the deserializer rejects is skipped instead of failing every redelivery of the poll
+        try (Producer<String, byte[]> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer())
+                .createProducer()) {
+            producer.send(new ProducerRecord<>("incidents.incident-created", "CLM-POISON", new byte[0]));
+        }
+        try (Producer<String, GenericRecord> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new SchemaFileAvroSerde())
+                .createProducer()) {
+            producer.send(new ProducerRecord<>("incidents.incident-created", "CLM-HIGH", highValue));
+            producer.send(new ProducerRecord<>("incidents.incident-created", "CLM-LOW", lowValue));
+        }
+
+        Map<String, GenericRecord> results = readResults(2);
+
+        GenericRecord high = results.get("CLM-HIGH");
+        assertThat(high.get("riskLevel").toString()).isEqualTo("CRITICAL");
+        assertThat((Integer) high.get("fraudScore")).isGreaterThanOrEqualTo(70);
+        assertThat(high.get("sourceEventId").toString()).isEqualTo(highValue.get("eventId").toString());
+        assertThat(high.get("assignedTeam")).isNotNull();
+        assertThat((Long) high.get("ruleSetVersion")).isEqualTo(1L);
+
+        GenericRecord low = results.get("CLM-LOW");
+        assertThat(low.get("riskLevel").toString()).isEqualTo("LOW");
+        assertThat(low.get("assignedTeam").toString()).isEqualTo("standard-adjusters");
+        assertThat((Integer) low.get("slaHours")).isEqualTo(48);
+    }
+
+    @Test
+    void mapper_decodesAvroDecimalBytesAndEpochDays() {
+        GenericRecord event = incident("CLM-1", "MEDIUM", new BigDecimal("250000.50"));
+
+        ClaimFact claim = IncidentEventMapper.toClaimFact(event);
+
+        assertThat(claim.getClaimedAmount()).isEqualByComparingTo("250000.50");
+        assertThat(claim.getIncidentDate()).isEqualTo(LocalDate.of(2026, 3, 14));
+        assertThat(claim.getPriority()).isEqualTo("MEDIUM");
+    }
+
+    private Map<String, GenericRecord> readResults(int expected) {
+        Map<String, Object> props = new HashMap<>(KafkaTestUtils.consumerProps("results-reader", "false", broker));
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, GenericRecord> consumer = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new SchemaFileAvroSerde()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "rules.fraud-results");
+            return StreamSupport.stream(KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), expected)
+                            .records("rules.fraud-results").spliterator(), false)
+                    .collect(toMap(ConsumerRecord::key, ConsumerRecord::value));
+        }
+    }
+
+    private static GenericRecord incident(String claimId, String priority, BigDecimal claimedAmount) {
+        Schema amountSchema = INCIDENT_SCHEMA.getField("claimedAmount").schema();
+        ByteBuffer amount = new Conversions.DecimalConversion()
+                .toBytes(claimedAmount, amountSchema, amountSchema.getLogicalType());
+
+        GenericRecord event = new GenericData.Record(INCIDENT_SCHEMA);
+        event.put("eventId", UUID.randomUUID().toString());
+        event.put("eventTimestamp", System.currentTimeMillis());
+        event.put("incidentId", UUID.randomUUID().toString());
+        event.put("claimId", claimId);
+        event.put("claimNumber", "CLM-2026-000001");
+        event.put("policyId", UUID.randomUUID().toString());
+        event.put("customerId", "CUST-001");
+        event.put("priority", new GenericData.EnumSymbol(INCIDENT_SCHEMA.getField("priority").schema(), priority));
+        event.put("description", "Test incident");
+        event.put("claimedAmount", amount);
+        event.put("incidentDate", (int) LocalDate.of(2026, 3, 14).toEpochDay());
+        event.put("source", "ClaimCenter");
+        return event;
+    }
+}
@@ -0,0 +1,82 @@
+package com.guidewire.rules.kafka;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Registry-free stand-in for the Apicurio Avro serdes: plain Avro binary, with the
+ * reader schema picked by topic from the .avsc files on the test classpath.
+ */
+public class SchemaFileAvroSerde implements Serializer<GenericRecord>, Deserializer<GenericRecord> {
+
+    private static final Map<String, Schema> SCHEMAS_BY_TOPIC = Map.of(
+            "incidents.incident-created", load("/avro/IncidentCreated.avsc"),
+            "rules.fraud-results", load("/avro/FraudCheckResult.avsc"));
+
+    @Override
+    public byte[] serialize(String topic, GenericRecord record) {
+        if (record == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize record for " + topic, e);
+        }
+    }
+
+    @Override
+    public GenericRecord deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Schema schema = SCHEMAS_BY_TOPIC.get(topic);
+        if (schema == null) {
+            throw new SerializationException("No test schema for topic " + topic);
+        }
+        try {
+            return new GenericDatumReader<GenericRecord>(schema)
+                    .read(null, DecoderFactory.get().binaryDecoder(data, null));
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize record from " + topic, e);
+        }
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    static Schema schemaFor(String topic) {
+        return SCHEMAS_BY_TOPIC.get(topic);
+    }
+
+    private static Schema load(String path) {
+        try (InputStream is = SchemaFileAvroSerde.class.getResourceAsStream(path)) {
+            return new Schema.Parser().parse(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
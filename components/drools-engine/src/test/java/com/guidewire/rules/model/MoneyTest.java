@@ -0,0 +1,99 @@
+package com.guidewire.rules.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void toCents_roundsUpToCentavos() {
+        assertThat(Money.toCents(new BigDecimal("500000"))).isEqualTo(50_000_000L);
+        assertThat(Money.toCents(new BigDecimal("12.50"))).isEqualTo(1_250L);
+        assertThat(Money.toCents(new BigDecimal("12.340"))).isEqualTo(1_234L);
+        assertThat(Money.toCents(new BigDecimal("12.341"))).isEqualTo(1_235L);
+        assertThat(Money.toCents(new BigDecimal("-12.345"))).isEqualTo(-1_234L);
+        assertThat(Money.toCents(new BigDecimal("1E+3"))).isEqualTo(100_000L);
+        assertThat(Money.toCents(new BigDecimal("1E-1000000000"))).isEqualTo(1L);
+        assertThat(Money.toCents(new BigDecimal("-1E-1000000000"))).isEqualTo(0L);
+        assertThat(Money.toCents(null)).isEqualTo(Money.ABSENT);
+    }
+
+    @Test
+    void toCents_keepsTheThresholdDecisionsOfTheExactAmount() {
+        long threshold = 100_000_000L; // claimedAmountCents > 100000000, i.e. claimedAmount > 1000000
+        assertThat(Money.toCents(new BigDecimal("1000000.001"))).isGreaterThan(threshold);
+        assertThat(Money.toCents(new BigDecimal("1000000.000"))).isLessThanOrEqualTo(threshold);
+        assertThat(Money.toCents(new BigDecimal("999999.999"))).isLessThanOrEqualTo(threshold);
+    }
+
+    @Test
+    void toCents_rejectsAmountsThatDoNotFitALong() {
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1E+30")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1E+1000000000")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("92233720368547758.08")))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Long.MIN_VALUE centavos is reserved for ABSENT
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("-92233720368547758.08")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Money.toCents(new BigDecimal("92233720368547758.07"))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void toDecimal_hasScaleTwo_andAbsentIsNull() {
+        assertThat(Money.toDecimal(960_000L)).isEqualTo(new BigDecimal("9600.00"));
+        assertThat(Money.toDecimal(Money.ABSENT)).isNull();
+    }
+
+    @Test
+    void commissionFact_roundTripsTheJsonContract() throws Exception {
+        CommissionFact fact = objectMapper.readValue(
+                "{\"productType\":\"AUTO\",\"premiumAmount\":80000,\"yearsOfExperience\":3}", CommissionFact.class);
+        fact.setCommissionPercentage(12.0);
+        fact.calculateCommissionAmount();
+
+        String json = objectMapper.writeValueAsString(fact);
+
+        assertThat(fact.getPremiumAmountCents()).isEqualTo(8_000_000L);
+        assertThat(fact.getCommissionAmount()).isEqualTo(new BigDecimal("9600.00"));
+        assertThat(json).contains("\"premiumAmount\":80000,", "\"commissionAmount\":9600.00,");
+        assertThat(objectMapper.readTree(json).has("premiumAmountCents")).isFalse();
+    }
+
+    @Test
+    void amountsWithFractionsOfACentavo_areEchoedAsGiven() throws Exception {
+        CommissionFact commission = objectMapper.readValue("{\"premiumAmount\":100.001}", CommissionFact.class);
+        ClaimFact claim = ClaimFact.builder().claimedAmount(new BigDecimal("250000.505")).build();
+
+        assertThat(commission.getPremiumAmountCents()).isEqualTo(10_001L);
+        assertThat(objectMapper.writeValueAsString(commission)).contains("\"premiumAmount\":100.001,");
+        assertThat(claim.getClaimedAmountCents()).isEqualTo(25_000_051L);
+        assertThat(claim.getClaimedAmount()).isEqualTo(new BigDecimal("250000.505"));
+        assertThat(claim.toBuilder().build().getClaimedAmount()).isEqualTo(new BigDecimal("250000.505"));
+
+        claim.setClaimedAmountCents(100L);
+        assertThat(claim.getClaimedAmount()).isEqualTo(new BigDecimal("1.00"));
+    }
+
+    @Test
+    void missingAmounts_stayNullThroughConstructorsAndJson() throws Exception {
+        assertThat(new CommissionFact().getPremiumAmount()).isNull();
+        assertThat(CommissionFact.builder().build().getCommissionAmount()).isNull();
+        assertThat(ClaimFact.builder().claimId("CLM-001").build().getClaimedAmount()).isNull();
+
+        ClaimFact claim = objectMapper.readValue("{\"claimId\":\"CLM-001\"}", ClaimFact.class);
+
+        assertThat(claim.getClaimedAmountCents()).isEqualTo(Money.ABSENT);
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(claim)).get("claimedAmount").isNull())
+                .isTrue();
+    }
+}
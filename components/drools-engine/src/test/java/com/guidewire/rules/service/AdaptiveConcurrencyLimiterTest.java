@@ -0,0 +1,106 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.service.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests admission and the latency-driven limit of AdaptiveConcurrencyLimiter with
+ * synthetic response times.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 50, 0.5, 2.0, 0.2, meterRegistry);
+    }
+
+    @Test
+    void requestsAboveTheLimit_areRejected() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+        assertThat(rejected("interactive")).isEqualTo(1.0);
+
+        limiter.release(Priority.INTERACTIVE, FAST);
+        assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isTrue();
+    }
+
+    @Test
+    void batchRequests_onlyGetTheirShareOfTheLimit() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Priority.BATCH)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(Priority.BATCH)).isFalse();
+        assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isTrue();
+        assertThat(rejected("batch")).isEqualTo(1.0);
+    }
+
+    @Test
+    void steadyLatencyUnderLoad_raisesTheLimit() {
+        saturateAndRelease(FAST, 20);
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+        assertThat(meterRegistry.get("drools_admission_limit_changes").tag("direction", "up").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void risingLatency_lowersTheLimit() {
+        saturateAndRelease(FAST, 1);
+        int before = limiter.getLimit();
+
+        saturateAndRelease(FAST * 10, 10);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(meterRegistry.get("drools_admission_limit").gauge().value()).isEqualTo(limiter.getLimit());
+    }
+
+    @Test
+    void failedRequestsAndBatches_doNotMoveTheLimit() {
+        saturateAndRelease(FAST, 1);
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(Priority.INTERACTIVE);
+            limiter.release(Priority.INTERACTIVE, -1);
+            limiter.tryAcquire(Priority.BATCH);
+            limiter.release(Priority.BATCH, FAST * 100);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(before);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    // Fills the current limit, then releases every request with the given response time
+    private void saturateAndRelease(long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(Priority.INTERACTIVE)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(Priority.INTERACTIVE, rttNanos);
+            }
+        }
+    }
+
+    private double rejected(String priority) {
+        return meterRegistry.get("drools_admission_rejected").tag("priority", priority).counter().count();
+    }
+}
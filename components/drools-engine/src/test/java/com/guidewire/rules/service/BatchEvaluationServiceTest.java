@@ -0,0 +1,133 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.BatchConfig;
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.BatchResult;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests BatchEvaluationService against the real incident-routing rules:
+ * ordering across parallel chunks, per-item error isolation and chunk sizing.
+ */
+class BatchEvaluationServiceTest {
+
+    private static KieBase kieBase;
+
+    private PooledSessionStrategy sessionStrategy;
+    private ThreadPoolTaskExecutor executor;
+    private BatchEvaluationService batchEvaluationService;
+
+    @BeforeAll
+    static void buildKieBase() throws Exception {
+        kieBase = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        sessionStrategy = new PooledSessionStrategy(kieBase, 4, Duration.ofSeconds(5), meterRegistry);
+        executor = new BatchConfig().rulesBatchExecutor(4, 100);
+        batchEvaluationService = new BatchEvaluationService(
+                new RulesService(sessionStrategy), executor, meterRegistry, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        sessionStrategy.close();
+    }
+
+    @Test
+    void evaluate_returnsResultsInInputOrderAcrossChunks() {
+        List<IncidentRoutingFact> facts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            facts.add(routingFact(i % 2 == 0 ? "HIGH" : "LOW", "MINOR"));
+        }
+
+        BatchResult<IncidentRoutingFact> result = batchEvaluationService.evaluate("incident-routing", facts);
+
+        assertThat(result.getTotal()).isEqualTo(50);
+        assertThat(result.getSucceeded()).isEqualTo(50);
+        assertThat(result.getFailed()).isZero();
+        for (int i = 0; i < 50; i++) {
+            BatchItemResult<IncidentRoutingFact> item = result.getResults().get(i);
+            assertThat(item.getIndex()).isEqualTo(i);
+            assertThat(item.getResult()).isSameAs(facts.get(i));
+            assertThat(item.getResult().getAssignedTeam())
+                    .isEqualTo(i % 2 == 0 ? "senior-adjusters" : "standard-adjusters");
+        }
+    }
+
+    @Test
+    void evaluate_matchesSingleFactEvaluationWhenFactsShareASession() {
+        IncidentRoutingFact batched = routingFact("HIGH", "MAJOR");
+        IncidentRoutingFact single = routingFact("HIGH", "MAJOR");
+
+        batchEvaluationService.evaluate("incident-routing",
+                List.of(routingFact("CRITICAL", "CATASTROPHIC"), batched));
+        new RulesService(sessionStrategy).evaluateRoutingRules(single);
+
+        assertThat(batched.getAssignedTeam()).isEqualTo(single.getAssignedTeam());
+        assertThat(batched.getSlaHours()).isEqualTo(single.getSlaHours());
+        assertThat(batched.getRoutingNotes()).isEqualTo(single.getRoutingNotes());
+    }
+
+    @Test
+    void evaluate_isolatesFailingItems() {
+        List<IncidentRoutingFact> facts = Arrays.asList(
+                routingFact("HIGH", "MAJOR"),
+                null,
+                routingFact("LOW", "MINOR"));
+
+        BatchResult<IncidentRoutingFact> result = batchEvaluationService.evaluate("incident-routing", facts);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getResult().getAssignedTeam()).isEqualTo("senior-adjusters");
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Fact must not be null");
+        assertThat(result.getResults().get(2).getResult().getSlaHours()).isEqualTo(48);
+    }
+
+    @Test
+    void evaluate_emptyBatchReturnsEmptyResult() {
+        BatchResult<IncidentRoutingFact> result = batchEvaluationService.evaluate("incident-routing", List.of());
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getResults()).isEmpty();
+    }
+
+    @Test
+    void chunkSizeFor_spreadsAcrossWorkersAndIsCapped() {
+        assertThat(batchEvaluationService.chunkSizeFor(2)).isEqualTo(1);
+        assertThat(batchEvaluationService.chunkSizeFor(20)).isEqualTo(5);
+        assertThat(batchEvaluationService.chunkSizeFor(1000)).isEqualTo(8);
+    }
+
+    private static IncidentRoutingFact routingFact(String priority, String severity) {
+        return IncidentRoutingFact.builder()
+                .priority(priority)
+                .severity(severity)
+                .claimedAmount(new BigDecimal("50000"))
+                .productType("AUTO")
+                .customerTier("STANDARD")
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ClaimIntake;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.PolicyFact;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks against the real rules that evaluating the three facts of a claim intake on
+ * one session gives the same results as the separate fraud, routing and policy calls.
+ */
+class ClaimIntakeRulesTest {
+
+    private static RulesService rulesService;
+
+    @BeforeAll
+    static void buildRulesService() throws Exception {
+        KieBase kieBase = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+        rulesService = new RulesService(new PerRequestSessionStrategy(kieBase));
+    }
+
+    @Test
+    void combinedEvaluation_matchesSeparateEvaluations() {
+        ClaimIntake intake = ClaimIntake.builder()
+                .claim(claimFact())
+                .routing(routingFact())
+                .policy(policyFact(45))
+                .build();
+
+        rulesService.evaluateClaimIntake(intake);
+        ClaimFact claim = rulesService.evaluateFraudRules(claimFact());
+        IncidentRoutingFact routing = rulesService.evaluateRoutingRules(routingFact());
+        PolicyFact policy = rulesService.evaluatePolicyValidation(policyFact(45));
+
+        assertThat(intake.getClaim().getFraudScore()).isEqualTo(claim.getFraudScore()).isPositive();
+        assertThat(intake.getClaim().getRiskLevel()).isEqualTo(claim.getRiskLevel());
+        assertThat(intake.getClaim().getFlaggedReasons()).isEqualTo(claim.getFlaggedReasons());
+        assertThat(intake.getRouting().getAssignedTeam()).isEqualTo(routing.getAssignedTeam());
+        assertThat(intake.getRouting().getSlaHours()).isEqualTo(routing.getSlaHours());
+        assertThat(intake.getRouting().getRoutingNotes()).isEqualTo(routing.getRoutingNotes());
+        assertThat(intake.getPolicy().isEligible()).isEqualTo(policy.isEligible()).isTrue();
+        assertThat(intake.getPolicy().getValidationErrors()).isEqualTo(policy.getValidationErrors());
+    }
+
+    @Test
+    void combinedEvaluation_reportsRejectedPolicyAlongsideFraudAndRouting() {
+        ClaimIntake intake = ClaimIntake.builder()
+                .claim(claimFact())
+                .routing(routingFact())
+                .policy(policyFact(16))
+                .build();
+
+        rulesService.evaluateClaimIntake(intake);
+
+        assertThat(intake.getPolicy().isEligible()).isFalse();
+        assertThat(intake.getClaim().getRiskLevel()).isNotNull();
+        assertThat(intake.getRouting().getAssignedTeam()).isEqualTo("senior-adjusters");
+    }
+
+    private static ClaimFact claimFact() {
+        return ClaimFact.builder()
+                .claimId("CLM-INTAKE-001")
+                .customerId("CUST-001")
+                .claimedAmount(new BigDecimal("650000"))
+                .incidentDate(LocalDate.of(2026, 3, 14))
+                .customerRegistrationDate(LocalDate.of(2026, 2, 1))
+                .claimCount(2)
+                .claimType("THEFT")
+                .hasPoliceReport(false)
+                .build();
+    }
+
+    private static IncidentRoutingFact routingFact() {
+        return IncidentRoutingFact.builder()
+                .priority("HIGH")
+                .severity("MAJOR")
+                .claimedAmount(new BigDecimal("650000"))
+                .productType("AUTO")
+                .customerTier("STANDARD")
+                .build();
+    }
+
+    private static PolicyFact policyFact(int customerAge) {
+        return PolicyFact.builder()
+                .policyId("POL-001")
+                .customerId("CUST-001")
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("15000"))
+                .coverageLimit(new BigDecimal("500000"))
+                .customerStatus("ACTIVE")
+                .customerAge(customerAge)
+                .customerName("Maria Lopez")
+                .build();
+    }
+}
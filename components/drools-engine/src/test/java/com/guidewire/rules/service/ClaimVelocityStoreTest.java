@@ -0,0 +1,139 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.ClaimFact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests ClaimVelocityStore with a controllable clock, and the velocity rules it feeds
+ * against the real fraud KieBase.
+ */
+class ClaimVelocityStoreTest {
+
+    private static RulesService rulesService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void buildRulesService() throws Exception {
+        Map<RuleDomain, KieBase> kieBases =
+                RuleKieModule.kieBases(new DroolsConfig().kieContainer(KieServices.Factory.get()));
+        rulesService = new RulesService(
+                new SessionStrategies(domain -> new PerRequestSessionStrategy(kieBases.get(domain))));
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void thirdClaimWithinWindow_isFlaggedAsBurst() {
+        ClaimVelocityStore store = newStore(true, 20);
+
+        ClaimFact first = rulesService.evaluateFraudRules(store.track(claim("CLM-1")));
+        advanceHours(20);
+        ClaimFact second = rulesService.evaluateFraudRules(store.track(claim("CLM-2")));
+        advanceHours(20);
+        ClaimFact third = rulesService.evaluateFraudRules(store.track(claim("CLM-3")));
+
+        assertThat(first.getRecentClaimCount()).isEqualTo(1);
+        assertThat(second.getRecentClaimCount()).isEqualTo(2);
+        assertThat(second.getFlaggedReasons()).noneMatch(reason -> reason.contains("velocity window"));
+        assertThat(third.getRecentClaimCount()).isEqualTo(3);
+        assertThat(third.getFraudScore()).isEqualTo(second.getFraudScore() + 30);
+        assertThat(third.getFlaggedReasons())
+                .contains("Customer filed 3 or more claims within the velocity window");
+    }
+
+    @Test
+    void claimsOlderThanTheWindow_areNoLongerCounted() {
+        ClaimVelocityStore store = newStore(true, 20);
+        store.track(claim("CLM-1"));
+        store.track(claim("CLM-2"));
+        assertThat(windowClaims()).isEqualTo(2.0);
+
+        advanceHours(49);
+        ClaimFact later = store.track(claim("CLM-3"));
+
+        assertThat(later.getRecentClaimCount()).isEqualTo(1);
+        assertThat(windowClaims()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("drools_fraud_velocity_customers").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sameClaimEvaluatedTwice_isCountedOnce() {
+        ClaimVelocityStore store = newStore(true, 20);
+
+        store.track(claim("CLM-1"));
+        ClaimFact again = store.track(claim("CLM-1"));
+
+        assertThat(again.getRecentClaimCount()).isEqualTo(1);
+        assertThat(windowClaims()).isEqualTo(1.0);
+    }
+
+    @Test
+    void claimsPerCustomer_areCapped() {
+        ClaimVelocityStore store = newStore(true, 3);
+
+        ClaimFact last = null;
+        for (int i = 1; i <= 5; i++) {
+            last = store.track(claim("CLM-" + i));
+        }
+
+        assertThat(last.getRecentClaimCount()).isEqualTo(3);
+        assertThat(windowClaims()).isEqualTo(3.0);
+    }
+
+    @Test
+    void disabledStore_keepsCallerSuppliedCount() {
+        ClaimVelocityStore store = newStore(false, 20);
+        ClaimFact claim = claim("CLM-1");
+        claim.setRecentClaimCount(4);
+
+        store.track(claim);
+
+        assertThat(claim.getRecentClaimCount()).isEqualTo(4);
+        assertThat(meterRegistry.find("drools_fraud_velocity_window_claims").gauge()).isNull();
+    }
+
+    private ClaimVelocityStore newStore(boolean enabled, int maxClaimsPerCustomer) {
+        return new ClaimVelocityStore(meterRegistry, enabled, 48, 1000, maxClaimsPerCustomer, nanos::get);
+    }
+
+    private void advanceHours(long hours) {
+        nanos.addAndGet(TimeUnit.HOURS.toNanos(hours));
+    }
+
+    private double windowClaims() {
+        return meterRegistry.get("drools_fraud_velocity_window_claims").gauge().value();
+    }
+
+    private static ClaimFact claim(String claimId) {
+        return ClaimFact.builder()
+                .claimId(claimId)
+                .customerId("CUST-VELOCITY")
+                .claimedAmount(new BigDecimal("15000"))
+                .incidentDate(LocalDate.of(2026, 3, 14))
+                .customerRegistrationDate(LocalDate.of(2020, 1, 1))
+                .claimCount(1)
+                .claimType("COLLISION")
+                .hasPoliceReport(true)
+                .hasWitnesses(true)
+                .build();
+    }
+}
@@ -124,4 +124,20 @@ class CommissionCalculationRulesTest {
         // AUTO (5) + Silver tier (1) = 6% of 100000 = 6000
         assertEquals(0, new BigDecimal("6000.0").compareTo(result.getCommissionAmount()));
     }
+
+    @Test
+    void commissionAmount_keepsThePremiumScale_evenForTheLargestPremiums() {
+        CommissionFact commission = CommissionFact.builder()
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("90000000000000000.005"))
+                .salesChannel("AGENT")
+                .build();
+
+        CommissionFact result = rulesService.evaluateCommissionRules(commission);
+
+        // AUTO (5) + Platinum tier (3) = 8%
+        assertEquals(new BigDecimal("90000000000000000.005").multiply(BigDecimal.valueOf(0.08)),
+                result.getCommissionAmount());
+        assertEquals(new BigDecimal("90000000000000000.005"), result.getPremiumAmount());
+    }
 }
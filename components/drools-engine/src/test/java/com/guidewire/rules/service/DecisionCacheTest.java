@@ -0,0 +1,200 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.CommissionFact;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests DecisionCache against the real commission and incident-routing rules:
+ * hits reproduce the evaluated outputs and are audited, and a rule set swap
+ * invalidates entries.
+ */
+class DecisionCacheTest {
+
+    private static KieContainer kieContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RuleBaseRegistry registry;
+    private RulesService rulesService;
+
+    @BeforeAll
+    static void buildKieContainer() throws Exception {
+        kieContainer = new DroolsConfig().kieContainer(KieServices.Factory.get());
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new RuleBaseRegistry(kieContainer, meterRegistry);
+        rulesService = spy(new RulesService(sessionStrategies()));
+    }
+
+    @Test
+    void routing_identicalInputsAreServedFromTheCache() {
+        DecisionCache cache = newCache(true);
+
+        IncidentRoutingFact first = cache.evaluateRoutingRules(routingFact(new BigDecimal("50000")));
+        IncidentRoutingFact second = cache.evaluateRoutingRules(routingFact(new BigDecimal("50000.00")));
+
+        verify(rulesService, times(1)).evaluateRoutingRules(any(), any());
+        assertThat(second.getAssignedTeam()).isEqualTo(first.getAssignedTeam()).isEqualTo("senior-adjusters");
+        assertThat(second.getSlaHours()).isEqualTo(first.getSlaHours());
+        assertThat(second.getRoutingNotes()).isEqualTo(first.getRoutingNotes()).isNotSameAs(first.getRoutingNotes());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "decisions.routing").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void commission_hitReturnsIndependentCopyOfTheOutputs() {
+        DecisionCache cache = newCache(true);
+
+        CommissionFact first = cache.evaluateCommissionRules(commissionFact("AUTO"));
+        first.getAppliedRules().add("mutated by caller");
+        CommissionFact second = cache.evaluateCommissionRules(commissionFact("AUTO"));
+
+        verify(rulesService, times(1)).evaluateCommissionRules(any(), any());
+        assertThat(second.getCommissionPercentage()).isEqualTo(first.getCommissionPercentage());
+        assertThat(second.getCommissionAmount()).isEqualByComparingTo(first.getCommissionAmount());
+        assertThat(second.getCommissionTier()).isEqualTo(first.getCommissionTier());
+        assertThat(second.getAppliedRules()).doesNotContain("mutated by caller").isNotEmpty();
+    }
+
+    @Test
+    void commission_differentInputsAreEvaluatedSeparately() {
+        DecisionCache cache = newCache(true);
+
+        CommissionFact auto = cache.evaluateCommissionRules(commissionFact("AUTO"));
+        CommissionFact life = cache.evaluateCommissionRules(commissionFact("LIFE"));
+
+        verify(rulesService, times(2)).evaluateCommissionRules(any(), any());
+        assertThat(life.getCommissionPercentage()).isNotEqualTo(auto.getCommissionPercentage());
+    }
+
+    @Test
+    void ruleSetSwap_invalidatesCachedDecisions() {
+        DecisionCache cache = newCache(true);
+        cache.evaluateRoutingRules(routingFact(new BigDecimal("50000")));
+
+        RuleBaseVersion replaced = registry.getActive();
+        RuleBaseVersion next = new RuleBaseVersion(registry.nextVersion(), "test", kieContainer.getReleaseId(),
+                RuleKieModule.kieBases(kieContainer), Instant.now(), 0);
+        registry.activate(next);
+        cache.onRuleBaseSwapped(new RuleBaseSwappedEvent(next, replaced));
+        cache.evaluateRoutingRules(routingFact(new BigDecimal("50000")));
+
+        verify(rulesService, times(2)).evaluateRoutingRules(any(), any());
+    }
+
+    @Test
+    void prepopulatedOutputsBypassTheCache() {
+        DecisionCache cache = newCache(true);
+
+        for (int i = 0; i < 2; i++) {
+            IncidentRoutingFact fact = routingFact(new BigDecimal("50000"));
+            fact.setSlaHours(72);
+            cache.evaluateRoutingRules(fact);
+        }
+
+        verify(rulesService, times(2)).evaluateRoutingRules(any(), any());
+    }
+
+    @Test
+    void disabledCacheAlwaysEvaluates() {
+        DecisionCache cache = newCache(false);
+
+        cache.evaluateCommissionRules(commissionFact("AUTO"));
+        cache.evaluateCommissionRules(commissionFact("AUTO"));
+
+        verify(rulesService, times(2)).evaluateCommissionRules(any(), any());
+        assertThat(meterRegistry.find("cache.gets").meters()).isEmpty();
+    }
+
+    @Test
+    void hitsAreAuditedWithTheRulesFiredByTheCachedEvaluation() {
+        RecordingAuditor auditor = new RecordingAuditor();
+        rulesService = spy(new RulesService(sessionStrategies(), auditor));
+        DecisionCache cache = newCache(true);
+
+        cache.evaluateRoutingRules(routingFact(new BigDecimal("50000")));
+        IncidentRoutingFact hit = cache.evaluateRoutingRules(routingFact(new BigDecimal("50000")));
+
+        verify(rulesService, times(1)).evaluateRoutingRules(any(), any());
+        assertThat(auditor.cached).containsExactly(false, true);
+        assertThat(auditor.facts.get(1)).isSameAs(hit);
+        assertThat(auditor.firedRules.get(1)).isEqualTo(auditor.firedRules.get(0)).isNotEmpty();
+    }
+
+    private SessionStrategies sessionStrategies() {
+        return new SessionStrategies(domain -> new PerRequestSessionStrategy(
+                () -> registry.getActiveKieBase(domain), kieSession -> { }));
+    }
+
+    private DecisionCache newCache(boolean enabled) {
+        return new DecisionCache(rulesService, registry, meterRegistry, enabled, 100, 60);
+    }
+
+    private static IncidentRoutingFact routingFact(BigDecimal claimedAmount) {
+        return IncidentRoutingFact.builder()
+                .priority("HIGH")
+                .severity("MAJOR")
+                .claimedAmount(claimedAmount)
+                .productType("AUTO")
+                .customerTier("STANDARD")
+                .build();
+    }
+
+    private static CommissionFact commissionFact(String productType) {
+        return CommissionFact.builder()
+                .productType(productType)
+                .premiumAmount(new BigDecimal("12000.00"))
+                .salesChannel("DIRECT")
+                .agentTier("SENIOR")
+                .yearsOfExperience(6)
+                .build();
+    }
+
+    private static final class RecordingAuditor implements DecisionAuditor {
+
+        private final List<Object> facts = new ArrayList<>();
+        private final List<List<String>> firedRules = new ArrayList<>();
+        private final List<Boolean> cached = new ArrayList<>();
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void record(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+            add(fact, firedRules, false);
+        }
+
+        @Override
+        public void recordCached(RuleDomain domain, Object fact, List<String> firedRules, long durationNanos) {
+            add(fact, firedRules, true);
+        }
+
+        private void add(Object fact, List<String> rules, boolean fromCache) {
+            facts.add(fact);
+            firedRules.add(List.copyOf(rules));
+            cached.add(fromCache);
+        }
+    }
+}
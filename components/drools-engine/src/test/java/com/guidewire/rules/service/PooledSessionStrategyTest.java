@@ -0,0 +1,174 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.ClaimFact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PooledSessionStrategy against the real DRL KieBase
+ * (no Spring context needed).
+ */
+class PooledSessionStrategyTest {
+
+    private static KieBase kieBase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PooledSessionStrategy strategy;
+
+    @BeforeAll
+    static void buildKieBase() throws Exception {
+        kieBase = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new PooledSessionStrategy(kieBase, 2, Duration.ofMillis(200), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        strategy.close();
+    }
+
+    @Test
+    void sequentialEvaluations_reuseSingleSession() {
+        RulesService rulesService = new RulesService(strategy);
+
+        rulesService.evaluateFraudRules(highAmountClaim("CLM-1"));
+        rulesService.evaluateFraudRules(highAmountClaim("CLM-2"));
+        rulesService.evaluateFraudRules(highAmountClaim("CLM-3"));
+
+        assertThat(strategy.getTotalCreated()).isEqualTo(1);
+        assertThat(strategy.getIdleCount()).isEqualTo(1);
+        assertThat(strategy.getInUseCount()).isZero();
+    }
+
+    @Test
+    void reusedSession_doesNotLeakFactsFromPreviousEvaluation() {
+        RulesService rulesService = new RulesService(strategy);
+
+        ClaimFact first = rulesService.evaluateFraudRules(highAmountClaim("CLM-1"));
+        ClaimFact second = rulesService.evaluateFraudRules(highAmountClaim("CLM-2"));
+
+        assertThat(second.getFraudScore()).isEqualTo(first.getFraudScore());
+        assertThat(second.getRiskLevel()).isEqualTo(first.getRiskLevel());
+        assertThat(second.getFlaggedReasons()).isEqualTo(first.getFlaggedReasons());
+        long factCount = strategy.execute(kieSession -> kieSession.getFactCount());
+        assertThat(factCount).isZero();
+    }
+
+    @Test
+    void failedEvaluation_discardsSessionInsteadOfReturningIt() {
+        assertThatThrownBy(() -> strategy.execute(kieSession -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(strategy.getIdleCount()).isZero();
+        assertThat(strategy.getInUseCount()).isZero();
+
+        strategy.execute(kieSession -> kieSession.fireAllRules());
+        assertThat(strategy.getTotalCreated()).isEqualTo(2);
+    }
+
+    @Test
+    void exhaustedPool_timesOutWhenNoSessionIsReturned() throws Exception {
+        CountDownLatch borrowed = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> strategy.execute(kieSession -> {
+                    borrowed.countDown();
+                    await(release);
+                    return null;
+                }));
+            }
+            assertThat(borrowed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> strategy.execute(kieSession -> null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Timed out");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(strategy.getTotalCreated()).isEqualTo(2);
+        assertThat(strategy.getIdleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void swappedKieBase_discardsIdleSessionsOfThePreviousOne() throws Exception {
+        KieBase replacement = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+        AtomicReference<KieBase> active = new AtomicReference<>(kieBase);
+        PooledSessionStrategy swappable = new PooledSessionStrategy(active::get, kieSession -> { }, 2, Duration.ofMillis(200),
+                new SimpleMeterRegistry());
+        try {
+            swappable.execute(kieSession -> kieSession.fireAllRules());
+            assertThat(swappable.getIdleCount()).isEqualTo(1);
+
+            active.set(replacement);
+            KieBase used = swappable.execute(KieSession::getKieBase);
+
+            assertThat(used).isSameAs(replacement);
+            assertThat(swappable.getTotalCreated()).isEqualTo(2);
+            assertThat(swappable.getIdleCount()).isEqualTo(1);
+        } finally {
+            swappable.close();
+        }
+    }
+
+    @Test
+    void poolStats_arePublishedAsMetrics() {
+        strategy.execute(kieSession -> kieSession.fireAllRules());
+
+        assertThat(meterRegistry.get("drools_session_pool_max").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("drools_session_pool_idle").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("drools_session_pool_in_use").gauge().value()).isZero();
+        assertThat(meterRegistry.get("drools_session_pool_created").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("drools_session_pool_borrow_wait").timer().count()).isEqualTo(1);
+    }
+
+    private static ClaimFact highAmountClaim(String claimId) {
+        return ClaimFact.builder()
+                .claimId(claimId)
+                .customerId("CUST-001")
+                .claimedAmount(new BigDecimal("600000"))
+                .incidentDate(LocalDate.now())
+                .customerRegistrationDate(LocalDate.now().minusYears(2))
+                .claimCount(1)
+                .claimType("COLLISION")
+                .hasPoliceReport(true)
+                .hasWitnesses(true)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
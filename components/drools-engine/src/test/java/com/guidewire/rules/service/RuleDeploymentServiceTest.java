@@ -0,0 +1,265 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.config.RuleDeploymentConfig;
+import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.Money;
+import com.guidewire.rules.model.RuleDeploymentResult;
+import com.guidewire.rules.model.ShadowReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieServices;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests hot deployment against the real DRL files: a changed fraud threshold is
+ * activated, broken or incomplete rule sets are rejected, and rollback restores
+ * the previous KieBase. A rule set deployed in shadow is compared on live claims
+ * without changing the responses, and can be promoted or stopped.
+ */
+class RuleDeploymentServiceTest {
+
+    private static final String[] RULE_FILES = {
+            "fraud-detection.drl", "policy-validation.drl", "commission-calculation.drl", "incident-routing.drl"
+    };
+
+    private final List<RuleBaseSwappedEvent> events = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private RuleBaseRegistry registry;
+    private RuleDeploymentService deploymentService;
+    private RulesService rulesService;
+    private ShadowEvaluator shadowEvaluator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KieServices kieServices = KieServices.Factory.get();
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new RuleDeploymentConfig().rulesDeployExecutor();
+        registry = new RuleBaseRegistry(new DroolsConfig().kieContainer(kieServices), meterRegistry);
+        deploymentService = new RuleDeploymentService(registry, new RuleSmokeValidator(), kieServices, executor,
+                this::publish, meterRegistry);
+        // Shadow comparisons run on the calling thread so their outcome can be asserted right away
+        shadowEvaluator = new ShadowEvaluator(registry, Runnable::run, meterRegistry, 1.0, 1);
+        rulesService = new RulesService(new SessionStrategies(domain -> new PerRequestSessionStrategy(
+                () -> registry.getActiveKieBase(domain), kieSession -> { })), DecisionAuditor.NONE, shadowEvaluator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        shadowEvaluator.close();
+    }
+
+    private void publish(Object event) {
+        if (event instanceof ShadowStoppedEvent stopped) {
+            shadowEvaluator.onShadowStopped(stopped);
+        } else {
+            events.add((RuleBaseSwappedEvent) event);
+        }
+    }
+
+    @Test
+    void deploy_activatesChangedThresholdAndKeepsPreviousForRollback() throws Exception {
+        assertThat(rulesService.evaluateFraudRules(claim("800000")).getFraudScore()).isEqualTo(25);
+
+        RuleDeploymentResult result = deploymentService.deploy(rulesWithCriticalThreshold("700000"), "upload").join();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.ACTIVATED);
+        assertThat(result.getVersion()).isEqualTo(2);
+        assertThat(registry.getActive().version()).isEqualTo(2);
+        assertThat(registry.getPrevious()).map(RuleBaseVersion::version).contains(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(rulesService.evaluateFraudRules(claim("800000")).getFraudScore()).isEqualTo(95);
+        assertThat(events).hasSize(1);
+        assertThat(meterRegistry.get("drools_rules_compile_duration").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("drools_rules_active_version").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("drools_rules_last_swap_timestamp_seconds").gauge().value()).isPositive();
+    }
+
+    @Test
+    void rollback_restoresPreviousVersion() throws Exception {
+        deploymentService.deploy(rulesWithCriticalThreshold("700000"), "upload").join();
+
+        RuleDeploymentResult result = deploymentService.rollback();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.ROLLED_BACK);
+        assertThat(result.getVersion()).isEqualTo(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(rulesService.evaluateFraudRules(claim("800000")).getFraudScore()).isEqualTo(25);
+        assertThat(registry.getPrevious()).map(RuleBaseVersion::version).contains(2L);
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void rollback_withoutPreviousVersionFails() {
+        assertThatThrownBy(() -> deploymentService.rollback())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No previous rule set version");
+    }
+
+    @Test
+    void deploy_rejectsRulesThatDoNotCompile() throws Exception {
+        Map<String, String> drlFiles = packagedRules();
+        drlFiles.put("broken.drl", "package com.guidewire.rules.broken\nrule \"Broken\" when then x end");
+
+        RuleDeploymentResult result = deploymentService.deploy(drlFiles, "upload").join();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.COMPILE_FAILED);
+        assertThat(result.getErrors()).isNotEmpty();
+        assertThat(registry.getActive().version()).isEqualTo(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void deploy_rejectsRuleSetThatFailsSmokeValidation() throws Exception {
+        Map<String, String> drlFiles = packagedRules();
+        drlFiles.remove("incident-routing.drl");
+
+        RuleDeploymentResult result = deploymentService.deploy(drlFiles, "upload").join();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.VALIDATION_FAILED);
+        assertThat(result.getErrors()).containsExactly("routing: a team is assigned");
+        assertThat(registry.getActive().version()).isEqualTo(RuleBaseRegistry.INITIAL_VERSION);
+    }
+
+    @Test
+    void deployShadow_comparesOnLiveClaimsWithoutChangingResponses() {
+        RuleDeploymentResult result = deploymentService.deployShadow(rulesWithCriticalThreshold("700000"), "upload")
+                .join();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.SHADOWED);
+        assertThat(registry.getActive().version()).isEqualTo(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(registry.getShadow()).map(RuleBaseVersion::version).contains(2L);
+        assertThat(events).isEmpty();
+
+        assertThat(rulesService.evaluateFraudRules(claim("800000")).getFraudScore()).isEqualTo(25);
+        assertThat(rulesService.evaluateFraudRules(claim("15000")).getFraudScore()).isZero();
+
+        ShadowReport report = shadowEvaluator.report();
+        assertThat(report.getShadowVersion()).isEqualTo(2);
+        assertThat(report.getEvaluated()).isEqualTo(2);
+        assertThat(report.getDiverged()).isEqualTo(1);
+        assertThat(report.getDivergenceRate()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("drools_shadow_divergences").tag("field", "fraud_score").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("drools_shadow_evaluation_duration").tag("rule_set", "shadow").timer().count())
+                .isEqualTo(2);
+        assertThat(deploymentService.status().getShadow().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void promoteShadow_activatesShadowVersion() {
+        deploymentService.deployShadow(rulesWithCriticalThreshold("700000"), "upload").join();
+
+        RuleDeploymentResult result = deploymentService.promoteShadow();
+
+        assertThat(result.getStatus()).isEqualTo(RuleDeploymentResult.Status.ACTIVATED);
+        assertThat(registry.getActive().version()).isEqualTo(2);
+        assertThat(registry.getShadow()).isEmpty();
+        assertThat(registry.getPrevious()).map(RuleBaseVersion::version).contains(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(rulesService.evaluateFraudRules(claim("800000")).getFraudScore()).isEqualTo(95);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void endingTheShadow_releasesItsSessionsAndTimers() {
+        deploymentService.deployShadow(rulesWithCriticalThreshold("700000"), "upload").join();
+        rulesService.evaluateFraudRules(claim("800000"));
+        assertThat(shadowPoolIdle()).isEqualTo(1.0);
+
+        deploymentService.promoteShadow();
+
+        assertThat(shadowPoolIdle()).isZero();
+        assertThat(meterRegistry.find("drools_shadow_evaluation_duration").timers()).isEmpty();
+        assertThat(shadowEvaluator.report().getShadowP99Ms()).isZero();
+    }
+
+    @Test
+    void newShadowVersion_startsItsOwnLatencyTimers() {
+        deploymentService.deployShadow(rulesWithCriticalThreshold("700000"), "upload").join();
+        rulesService.evaluateFraudRules(claim("800000"));
+
+        deploymentService.deployShadow(rulesWithCriticalThreshold("600000"), "upload").join();
+        rulesService.evaluateFraudRules(claim("800000"));
+
+        assertThat(meterRegistry.find("drools_shadow_evaluation_duration").tag("shadow_version", "2").timers())
+                .isEmpty();
+        assertThat(meterRegistry.get("drools_shadow_evaluation_duration").tag("rule_set", "shadow")
+                .tag("shadow_version", "3").timer().count()).isEqualTo(1);
+        assertThat(shadowEvaluator.report().getEvaluated()).isEqualTo(1);
+    }
+
+    @Test
+    void stopShadow_endsComparisons() {
+        deploymentService.deployShadow(rulesWithCriticalThreshold("700000"), "upload").join();
+
+        deploymentService.stopShadow();
+        rulesService.evaluateFraudRules(claim("800000"));
+
+        assertThat(registry.getShadow()).isEmpty();
+        assertThat(shadowEvaluator.report().getEvaluated()).isZero();
+        assertThatThrownBy(() -> deploymentService.stopShadow()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> deploymentService.promoteShadow()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void deploy_rejectsInvalidFileNames() {
+        assertThatThrownBy(() -> deploymentService.deploy(Map.of("../escape.drl", "package x"), "upload"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, String> rulesWithCriticalThreshold(String threshold) {
+        Map<String, String> drlFiles = packagedRules();
+        drlFiles.computeIfPresent("fraud-detection.drl",
+                (name, drl) -> drl.replace("ClaimFact(claimedAmountCents > 100000000)",
+                        "ClaimFact(claimedAmountCents > " + Money.toCents(new BigDecimal(threshold)) + ")"));
+        return drlFiles;
+    }
+
+    private static Map<String, String> packagedRules() {
+        Map<String, String> drlFiles = new HashMap<>();
+        for (String file : RULE_FILES) {
+            try {
+                drlFiles.put(file, new ClassPathResource("rules/" + file).getContentAsString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return drlFiles;
+    }
+
+    private double shadowPoolIdle() {
+        return meterRegistry.get("drools_session_pool_idle").tag("kbase", "shadow-fraud").gauge().value();
+    }
+
+    private static ClaimFact claim(String amount) {
+        return ClaimFact.builder()
+                .claimId("CLM-HOT")
+                .customerId("CUST-001")
+                .claimedAmount(new BigDecimal(amount))
+                .incidentDate(LocalDate.now())
+                .customerRegistrationDate(LocalDate.now().minusYears(2))
+                .claimCount(1)
+                .claimType("COLLISION")
+                .hasPoliceReport(true)
+                .hasWitnesses(true)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.BatchItemResult;
+import com.guidewire.rules.model.CommissionFact;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.runtime.KieSession;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the per-domain KieBases built from the packaged rules: each one only holds
+ * the rules of its own package, and RulesService evaluates on the matching KieBase.
+ */
+class RuleKieModuleTest {
+
+    private static Map<RuleDomain, KieBase> kieBases;
+
+    @BeforeAll
+    static void buildKieBases() throws Exception {
+        kieBases = RuleKieModule.kieBases(new DroolsConfig().kieContainer(KieServices.Factory.get()));
+    }
+
+    @Test
+    void domainKieBase_holdsOnlyItsOwnPackage() {
+        assertThat(rulePackages(RuleDomain.FRAUD)).containsExactly("com.guidewire.rules.fraud");
+        assertThat(rulePackages(RuleDomain.POLICY)).containsExactly("com.guidewire.rules.policy");
+        assertThat(rulePackages(RuleDomain.COMMISSION)).containsExactly("com.guidewire.rules.commission");
+        assertThat(rulePackages(RuleDomain.ROUTING)).containsExactly("com.guidewire.rules.routing");
+    }
+
+    @Test
+    void defaultKieBase_holdsAllPackages() {
+        assertThat(rulePackages(RuleDomain.ALL)).containsExactlyInAnyOrder(
+                "com.guidewire.rules.fraud", "com.guidewire.rules.policy",
+                "com.guidewire.rules.commission", "com.guidewire.rules.routing");
+    }
+
+    @Test
+    void rulesService_evaluatesOnTheKieBaseOfTheFactDomain() {
+        RulesService rulesService = new RulesService(new SessionStrategies(domain -> new SessionStrategy() {
+            @Override
+            public <T> T execute(Function<KieSession, T> work) {
+                if (domain != RuleDomain.COMMISSION) {
+                    throw new IllegalStateException("Commission evaluated on the " + domain + " KieBase");
+                }
+                return new PerRequestSessionStrategy(kieBases.get(domain)).execute(work);
+            }
+        }));
+
+        CommissionFact fact = rulesService.evaluateCommissionRules(CommissionFact.builder()
+                .productType("AUTO")
+                .premiumAmount(new BigDecimal("10000"))
+                .salesChannel("AGENT")
+                .agentTier("JUNIOR")
+                .yearsOfExperience(1)
+                .build());
+
+        assertThat(fact.getCommissionAmount()).isNotNull();
+        assertThat(rulesService.evaluateChunk(List.of(fact), 0)).allMatch(BatchItemResult::isSucceeded);
+    }
+
+    @Test
+    void resourcePath_followsDeclaredPackage() {
+        assertThat(RuleKieModule.resourcePath("fraud.drl", "// comment\npackage com.guidewire.rules.fraud;\n"))
+                .isEqualTo("src/main/resources/com/guidewire/rules/fraud/fraud.drl");
+        assertThat(RuleKieModule.resourcePath("plain.drl", "rule \"x\" when then end"))
+                .isEqualTo("src/main/resources/plain.drl");
+    }
+
+    @Test
+    void forFactType_rejectsUnknownFacts() {
+        assertThat(RuleDomain.forFactType(CommissionFact.class)).isEqualTo(RuleDomain.COMMISSION);
+        assertThatThrownBy(() -> RuleDomain.forFactType(String.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> rulePackages(RuleDomain domain) {
+        return kieBases.get(domain).getKiePackages().stream()
+                .filter(kiePackage -> !kiePackage.getRules().isEmpty())
+                .map(KiePackage::getName)
+                .toList();
+    }
+}
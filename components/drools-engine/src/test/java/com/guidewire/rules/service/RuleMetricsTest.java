@@ -0,0 +1,131 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.IncidentRoutingFact;
+import com.guidewire.rules.model.RuleStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the per-rule listeners against the real incident-routing rules,
+ * including sessions that are reset and reused by the pool.
+ */
+class RuleMetricsTest {
+
+    private static KieBase kieBase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PooledSessionStrategy sessionStrategy;
+
+    @BeforeAll
+    static void buildKieBase() throws Exception {
+        kieBase = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionStrategy.close();
+    }
+
+    @Test
+    void firings_areCountedPerRuleAcrossPooledSessionReuse() {
+        RulesService rulesService = rulesService(new RuleMetrics(meterRegistry, true, 1.0));
+
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+
+        assertThat(sessionStrategy.getTotalCreated()).isEqualTo(1);
+        assertThat(meterRegistry.get("drools_rule_fired")
+                .tag("rule", "HighPriorityToSenior")
+                .tag("package", "com.guidewire.rules.routing")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("drools_rule_duration")
+                .tag("rule", "HighPriorityToSenior")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("drools_rule_working_memory_actions")
+                .tag("rule", "HighPriorityToSenior")
+                .tag("action", "update")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void zeroSampleRate_instrumentsNoEvaluation() {
+        RulesService rulesService = rulesService(new RuleMetrics(meterRegistry, true, 0.0));
+
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+
+        assertThat(meterRegistry.find("drools_rule_fired").counters()).isEmpty();
+    }
+
+    @Test
+    void sampledEvaluations_scaleFiringCountsByTheSampleRate() {
+        RulesService rulesService = rulesService(new RuleMetrics(meterRegistry, true, 0.5));
+
+        for (int i = 0; i < 400; i++) {
+            rulesService.evaluateRoutingRules(routingFact("HIGH"));
+        }
+
+        double fired = meterRegistry.get("drools_rule_fired").tag("rule", "HighPriorityToSenior").counter().count();
+        long timed = meterRegistry.get("drools_rule_duration").tag("rule", "HighPriorityToSenior").timer().count();
+        assertThat(fired).isEqualTo(timed * 2.0);
+        assertThat(timed).isBetween(120L, 280L);
+    }
+
+    @Test
+    void disabled_attachesNoListeners() {
+        RulesService rulesService = rulesService(new RuleMetrics(meterRegistry, false, 1.0));
+
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+
+        assertThat(meterRegistry.find("drools_rule_fired").counters()).isEmpty();
+    }
+
+    @Test
+    void topRules_ordersByFiringCount() {
+        RuleMetrics ruleMetrics = new RuleMetrics(meterRegistry, true, 1.0);
+        RulesService rulesService = rulesService(ruleMetrics);
+
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+        rulesService.evaluateRoutingRules(routingFact("HIGH"));
+        rulesService.evaluateRoutingRules(routingFact("LOW"));
+
+        List<RuleStats> top = ruleMetrics.topRules(1, "fired");
+
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).getRule()).isEqualTo("HighPriorityToSenior");
+        assertThat(top.get(0).getFired()).isEqualTo(2);
+        assertThat(top.get(0).getPackageName()).isEqualTo("com.guidewire.rules.routing");
+    }
+
+    private RulesService rulesService(RuleMetrics ruleMetrics) {
+        sessionStrategy = new PooledSessionStrategy(() -> kieBase, ruleMetrics::instrument, 2,
+                Duration.ofSeconds(1), meterRegistry);
+        return new RulesService(sessionStrategy);
+    }
+
+    private static IncidentRoutingFact routingFact(String priority) {
+        return IncidentRoutingFact.builder()
+                .priority(priority)
+                .severity("MINOR")
+                .claimedAmount(new BigDecimal("50000"))
+                .productType("AUTO")
+                .customerTier("STANDARD")
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.DroolsConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RuleWarmup against the real DRL KieBase (no Spring context needed).
+ */
+class RuleWarmupTest {
+
+    private static KieBase kieBase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SessionStrategies sessionStrategies;
+
+    @BeforeAll
+    static void buildKieBase() throws Exception {
+        kieBase = new DroolsConfig().kieContainer(KieServices.Factory.get()).getKieBase();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sessionStrategies = SessionStrategies.shared(new PerRequestSessionStrategy(kieBase));
+    }
+
+    @Test
+    void outOfService_untilWarmupFinishes() {
+        RuleWarmup warmup = warmup(true, 5);
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmup.run();
+
+        Health health = warmup.health();
+        assertThat(warmup.isFinished()).isTrue();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKeys("rounds", "durationMs");
+    }
+
+    @Test
+    void run_publishesDurationAndLatencyCurve() {
+        RuleWarmup warmup = warmup(true, 4);
+
+        warmup.run();
+
+        double rounds = meterRegistry.get("drools_warmup_rounds").gauge().value();
+        assertThat(rounds).isBetween(1.0, 4.0);
+        assertThat(meterRegistry.get("drools_warmup_round_latency_seconds").gauges())
+                .hasSize((int) rounds)
+                .allSatisfy(gauge -> assertThat(gauge.value()).isPositive());
+        assertThat(meterRegistry.get("drools_warmup_round_latency_seconds").tag("round", "1").gauge())
+                .extracting(Gauge::value)
+                .isNotNull();
+        assertThat(meterRegistry.get("drools_warmup_duration_seconds").gauge().value()).isPositive();
+    }
+
+    @Test
+    void disabled_isUpWithoutRunning() {
+        RuleWarmup warmup = warmup(false, 5);
+
+        warmup.start();
+
+        assertThat(warmup.isFinished()).isTrue();
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(meterRegistry.get("drools_warmup_rounds").gauge().value()).isZero();
+    }
+
+    private RuleWarmup warmup(boolean enabled, int maxRounds) {
+        return new RuleWarmup(sessionStrategies, meterRegistry, enabled, 50, maxRounds, 2, 0.1, 30_000);
+    }
+}
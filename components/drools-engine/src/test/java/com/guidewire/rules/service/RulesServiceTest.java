@@ -1,13 +1,14 @@
 package com.guidewire.rules.service;
 
 import com.guidewire.rules.model.ClaimFact;
+import com.guidewire.rules.model.ClaimIntake;
 import com.guidewire.rules.model.CommissionFact;
 import com.guidewire.rules.model.IncidentRoutingFact;
 import com.guidewire.rules.model.PolicyFact;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.kie.api.runtime.KieContainer;
+import org.kie.api.KieBase;
 import org.kie.api.runtime.KieSession;
 import org.mockito.InOrder;
 import org.mockito.Mock;
@@ -26,7 +27,7 @@ import static org.mockito.Mockito.*;
 class RulesServiceTest {
 
     @Mock
-    private KieContainer kieContainer;
+    private KieBase kieBase;
 
     @Mock
     private KieSession kieSession;
@@ -35,8 +36,8 @@ class RulesServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(kieContainer.newKieSession()).thenReturn(kieSession);
-        rulesService = new RulesService(kieContainer);
+        when(kieBase.newKieSession()).thenReturn(kieSession);
+        rulesService = new RulesService(new PerRequestSessionStrategy(kieBase));
     }
 
     @Test
@@ -110,6 +111,36 @@ class RulesServiceTest {
         inOrder.verify(kieSession).dispose();
     }
 
+    @Test
+    void evaluateClaimIntake_insertsAllFactsAndFiresOnce() {
+        ClaimFact claimFact = ClaimFact.builder().claimId("CLM-001").build();
+        IncidentRoutingFact routingFact = IncidentRoutingFact.builder().priority("HIGH").build();
+        PolicyFact policyFact = PolicyFact.builder().policyId("POL-001").build();
+        ClaimIntake intake = ClaimIntake.builder().claim(claimFact).routing(routingFact).policy(policyFact).build();
+        when(kieSession.fireAllRules(300)).thenReturn(9);
+
+        ClaimIntake result = rulesService.evaluateClaimIntake(intake);
+
+        assertThat(result).isSameAs(intake);
+        InOrder inOrder = inOrder(kieSession);
+        inOrder.verify(kieSession).insert(claimFact);
+        inOrder.verify(kieSession).insert(routingFact);
+        inOrder.verify(kieSession).insert(policyFact);
+        inOrder.verify(kieSession).fireAllRules(300);
+        inOrder.verify(kieSession).dispose();
+    }
+
+    @Test
+    void evaluateClaimIntake_skipsAbsentFacts() {
+        ClaimFact claimFact = ClaimFact.builder().claimId("CLM-001").build();
+
+        rulesService.evaluateClaimIntake(ClaimIntake.builder().claim(claimFact).build());
+
+        verify(kieSession).insert(claimFact);
+        verify(kieSession).fireAllRules(100);
+        verify(kieSession, times(1)).insert(any());
+    }
+
     @Test
     void evaluateFraudRules_disposesSessionEvenWhenFireAllRulesThrows() {
         ClaimFact claimFact = ClaimFact.builder()
@@ -0,0 +1,144 @@
+package com.guidewire.rules.service;
+
+import com.guidewire.rules.config.BatchConfig;
+import com.guidewire.rules.config.DroolsConfig;
+import com.guidewire.rules.model.SimulationReport;
+import com.guidewire.rules.model.SimulationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.api.KieServices;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Replays generated fact files through the real DRL rule sets, on two workers and in
+ * small chunks so that several chunks are in flight at once.
+ */
+class SimulationServiceTest {
+
+    private static final String[] AMOUNTS = {"15000", "150000", "750000", "1500000"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @TempDir
+    Path dataDir;
+
+    private ThreadPoolTaskExecutor executor;
+    private SimulationService simulationService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RuleBaseRegistry registry = new RuleBaseRegistry(
+                new DroolsConfig().kieContainer(KieServices.Factory.get()), meterRegistry);
+        executor = new BatchConfig().rulesSimulationExecutor(2);
+        simulationService = new SimulationService(registry, executor, meterRegistry,
+                Jackson2ObjectMapperBuilder.json().build(), dataDir.toString(), 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void fraudNdjson_aggregatesRiskLevelsAndWritesRowsInFileOrder() throws Exception {
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter writer = Files.newBufferedWriter(dataDir.resolve("claims.ndjson"))) {
+            for (int i = 0; i < 1000; i++) {
+                writer.write("{\"claimId\":\"CLM-" + i + "\",\"customerId\":\"CUST-" + i % 50
+                        + "\",\"claimedAmount\":" + AMOUNTS[i % AMOUNTS.length]
+                        + ",\"incidentDate\":\"" + today + "\",\"customerRegistrationDate\":\"" + today.minusYears(3)
+                        + "\",\"claimCount\":1,\"claimType\":\"COLLISION\",\"hasPoliceReport\":true,\"hasWitnesses\":true}\n");
+                if (i == 500) {
+                    writer.write("{\"claimId\":\"CLM-BAD\",\"claimedAmount\":\"not-a-number\"}\n");
+                    writer.write("{\"claimId\":\"CLM-TRUNCATED\",\"claimedAmount\":\n");
+                }
+            }
+        }
+
+        SimulationReport started = simulationService.start(SimulationRequest.builder()
+                .ruleSet("fraud").input("claims.ndjson").output("claims-evaluated.ndjson").build());
+        SimulationReport report = simulationService.await(started.getId(), TIMEOUT);
+
+        assertThat(report.getStatus()).isEqualTo(SimulationReport.Status.COMPLETED);
+        assertThat(report.getRuleBase()).isEqualTo("active");
+        assertThat(report.getRuleBaseVersion()).isEqualTo(RuleBaseRegistry.INITIAL_VERSION);
+        assertThat(report.getRowsRead()).isEqualTo(1002);
+        assertThat(report.getEvaluated()).isEqualTo(1000);
+        assertThat(report.getInvalid()).isEqualTo(2);
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getRiskLevels())
+                .containsEntry("LOW", 500L)
+                .containsEntry("MEDIUM", 250L)
+                .containsEntry("CRITICAL", 250L);
+        assertThat(report.getAverageFraudScore()).isPositive();
+        assertThat(report.getRuleFires()).isNotEmpty();
+        assertThat(report.getCommissionTiers()).isNull();
+
+        List<String> output = Files.readAllLines(dataDir.resolve("claims-evaluated.ndjson"));
+        assertThat(output).hasSize(1000);
+        assertThat(output.get(0)).contains("\"claimId\":\"CLM-0\"").contains("\"riskLevel\":\"LOW\"");
+        assertThat(output.get(999)).contains("\"claimId\":\"CLM-999\"").contains("\"riskLevel\":\"CRITICAL\"");
+    }
+
+    @Test
+    void commissionCsv_reportsTiersAndAverageCommission() throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(dataDir.resolve("commissions.csv"))) {
+            writer.write("productType,premiumAmount,salesChannel,agentTier,yearsOfExperience\n");
+            for (int i = 0; i < 300; i++) {
+                writer.write((i % 2 == 0 ? "AUTO" : "LIFE") + "," + (10000 + i * 100) + ",AGENT,"
+                        + (i % 3 == 0 ? "EXECUTIVE" : "JUNIOR") + "," + i % 12 + "\n");
+                if (i == 100) {
+                    writer.write("AUTO,not-a-number,AGENT,JUNIOR,1\n");
+                    writer.write("AUTO,10000,AGENT,JUNIOR,1,unexpected\n");
+                }
+            }
+        }
+
+        SimulationReport started = simulationService.start(SimulationRequest.builder()
+                .ruleSet("commission").input("commissions.csv").output("commissions-evaluated.csv").build());
+        SimulationReport report = simulationService.await(started.getId(), TIMEOUT);
+
+        assertThat(report.getStatus()).isEqualTo(SimulationReport.Status.COMPLETED);
+        assertThat(report.getEvaluated()).isEqualTo(300);
+        assertThat(report.getInvalid()).isEqualTo(2);
+        assertThat(report.getCommissionTiers().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(300);
+        assertThat(report.getAverageCommission()).isPositive();
+        assertThat(report.getAverageCommissionPercentage()).isPositive();
+        assertThat(report.getRiskLevels()).isNull();
+
+        List<String> output = Files.readAllLines(dataDir.resolve("commissions-evaluated.csv"));
+        assertThat(output).hasSize(301);
+        assertThat(output.get(0)).contains("commissionTier").contains("premiumAmount");
+    }
+
+    @Test
+    void start_rejectsFilesOutsideTheDataDirAndMissingShadow() throws IOException {
+        Files.writeString(dataDir.resolve("claims.ndjson"), "{\"claimId\":\"CLM-1\"}\n");
+
+        assertThatThrownBy(() -> simulationService.start(SimulationRequest.builder()
+                .ruleSet("fraud").input("../claims.ndjson").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> simulationService.start(SimulationRequest.builder()
+                .ruleSet("routing").input("claims.ndjson").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> simulationService.start(SimulationRequest.builder()
+                .ruleSet("fraud").ruleBase("shadow").input("claims.ndjson").build()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shadow");
+    }
+}
@@ -0,0 +1,56 @@
+// Carga de tasa abierta para comparar hilos de plataforma y virtuales en camel-gateway y
+// drools-engine. Con un modelo abierto la tasa no baja cuando el servicio se frena, asi que
+// las peticiones en vuelo crecen hasta el limite real del servicio.
+//
+//   k6 run -e TARGET=gateway -e BASE_URL=http://camel-gateway-guidewire-apps.apps-crc.testing virtual-threads.js
+//   k6 run -e TARGET=drools  -e BASE_URL=http://drools-engine-guidewire-apps.apps-crc.testing virtual-threads.js
+//
+// Variables: TARGET (gateway|drools), BASE_URL, PEAK_RATE (peticiones/s, 400 por defecto),
+// MAX_VUS (2000 por defecto), LABEL (aparece en el resumen, p. ej. platform o virtual).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const TARGET = __ENV.TARGET || 'gateway';
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const PEAK_RATE = parseInt(__ENV.PEAK_RATE || '400', 10);
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000', 10);
+const LABEL = __ENV.LABEL || 'run';
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-arrival-rate',
+            startRate: 10,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: MAX_VUS,
+            stages: [
+                { target: PEAK_RATE, duration: '2m' },
+                { target: PEAK_RATE, duration: '3m' },
+                { target: 0, duration: '30s' },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { label: LABEL, target: TARGET },
+};
+
+const claim = JSON.stringify({
+    claimId: 'CLM-LOAD',
+    customerId: 'CUST-LOAD',
+    claimedAmount: 15000,
+    incidentDate: '2026-03-14',
+    customerRegistrationDate: '2020-01-01',
+    claimCount: 1,
+    claimType: 'COLLISION',
+    hasPoliceReport: true,
+    hasWitnesses: true,
+});
+
+export default function () {
+    const res = TARGET === 'drools'
+        ? http.post(`${BASE_URL}/api/v1/rules/fraud-check`, claim, { headers: { 'Content-Type': 'application/json' } })
+        : http.get(`${BASE_URL}/api/v1/claims`);
+    check(res, { 'status 2xx': (r) => r.status >= 200 && r.status < 300 });
+}